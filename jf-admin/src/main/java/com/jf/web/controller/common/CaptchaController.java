@@ -1,23 +1,16 @@
 package com.jf.web.controller.common;
 
-import java.awt.image.BufferedImage;
-import java.io.IOException;
 import java.util.concurrent.TimeUnit;
-import jakarta.annotation.Resource;
-import javax.imageio.ImageIO;
-import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.util.FastByteArrayOutputStream;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RestController;
-import com.google.code.kaptcha.Producer;
-import com.jf.common.config.JFConfig;
 import com.jf.common.constant.CacheConstants;
 import com.jf.common.constant.Constants;
 import com.jf.common.core.domain.AjaxResult;
 import com.jf.common.core.redis.RedisCache;
-import com.jf.common.utils.sign.Base64;
 import com.jf.common.utils.uuid.IdUtils;
+import com.jf.framework.manager.CaptchaPool;
+import com.jf.framework.manager.CaptchaPool.Captcha;
 import com.jf.system.service.ISysConfigService;
 
 /**
@@ -28,11 +21,8 @@ import com.jf.system.service.ISysConfigService;
 @RestController
 public class CaptchaController
 {
-    @Resource(name = "captchaProducer")
-    private Producer captchaProducer;
-
-    @Resource(name = "captchaProducerMath")
-    private Producer captchaProducerMath;
+    @Autowired
+    private CaptchaPool captchaPool;
 
     @Autowired
     private RedisCache redisCache;
@@ -43,7 +33,7 @@ public class CaptchaController
      * 生成验证码
      */
     @GetMapping("/captchaImage")
-    public AjaxResult getCode(HttpServletResponse response) throws IOException
+    public AjaxResult getCode()
     {
         AjaxResult ajax = AjaxResult.success();
         boolean captchaEnabled = configService.selectCaptchaEnabled();
@@ -53,42 +43,14 @@ public class CaptchaController
             return ajax;
         }
 
-        // 保存验证码信息
+        // 从验证码池取出，发放时保存验证码信息
+        Captcha captcha = captchaPool.take();
         String uuid = IdUtils.simpleUUID();
         String verifyKey = CacheConstants.CAPTCHA_CODE_KEY + uuid;
-
-        String capStr = null, code = null;
-        BufferedImage image = null;
-
-        // 生成验证码
-        String captchaType = JFConfig.getCaptchaType();
-        if ("math".equals(captchaType))
-        {
-            String capText = captchaProducerMath.createText();
-            capStr = capText.substring(0, capText.lastIndexOf("@"));
-            code = capText.substring(capText.lastIndexOf("@") + 1);
-            image = captchaProducerMath.createImage(capStr);
-        }
-        else if ("char".equals(captchaType))
-        {
-            capStr = code = captchaProducer.createText();
-            image = captchaProducer.createImage(capStr);
-        }
-
-        redisCache.setCacheObject(verifyKey, code, Constants.CAPTCHA_EXPIRATION, TimeUnit.MINUTES);
-        // 转换流信息写出
-        FastByteArrayOutputStream os = new FastByteArrayOutputStream();
-        try
-        {
-            ImageIO.write(image, "jpg", os);
-        }
-        catch (IOException e)
-        {
-            return AjaxResult.error(e.getMessage());
-        }
+        redisCache.setCacheObject(verifyKey, captcha.getCode(), Constants.CAPTCHA_EXPIRATION, TimeUnit.MINUTES);
 
         ajax.put("uuid", uuid);
-        ajax.put("img", Base64.encode(os.toByteArray()));
+        ajax.put("img", captcha.getImg());
         return ajax;
     }
 }
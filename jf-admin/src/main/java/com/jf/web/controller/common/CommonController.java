@@ -1,5 +1,6 @@
 package com.jf.web.controller.common;
 
+import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,7 +9,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -19,6 +22,8 @@ import com.jf.common.utils.StringUtils;
 import com.jf.common.utils.file.FileUploadUtils;
 import com.jf.common.utils.file.FileUtils;
 import com.jf.framework.config.ServerConfig;
+import com.jf.framework.web.service.ExportJobService;
+import com.jf.framework.web.service.FileDownloadService;
 
 /**
  * 通用请求处理
@@ -34,6 +39,12 @@ public class CommonController
     @Autowired
     private ServerConfig serverConfig;
 
+    @Autowired
+    private ExportJobService exportJobService;
+
+    @Autowired
+    private FileDownloadService fileDownloadService;
+
     private static final String FILE_DELIMITER = ",";
 
     /**
@@ -51,13 +62,13 @@ public class CommonController
             {
                 throw new Exception(StringUtils.format("文件名称({})非法，不允许下载。 ", fileName));
             }
+            exportJobService.checkFileAccess(fileName);
             String realFileName = System.currentTimeMillis() + fileName.substring(fileName.indexOf("_") + 1);
             String filePath = JFConfig.getDownloadPath() + fileName;
 
             response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
-            FileUtils.setAttachmentResponseHeader(response, realFileName);
-            FileUtils.writeBytes(filePath, response.getOutputStream());
-            if (delete)
+            fileDownloadService.download(new File(filePath), realFileName, Boolean.TRUE.equals(delete), request, response);
+            if (Boolean.TRUE.equals(delete))
             {
                 FileUtils.deleteFile(filePath);
             }
@@ -68,6 +79,29 @@ public class CommonController
         }
     }
 
+    /**
+     * 查询异步导出任务，完成后通过通用下载请求获取文件
+     * 
+     * @param jobId 任务编号
+     */
+    @GetMapping("/export/{jobId}")
+    public AjaxResult exportJob(@PathVariable String jobId)
+    {
+        return AjaxResult.success(exportJobService.getJob(jobId));
+    }
+
+    /**
+     * 取消异步导出任务
+     * 
+     * @param jobId 任务编号
+     */
+    @DeleteMapping("/export/{jobId}")
+    public AjaxResult cancelExportJob(@PathVariable String jobId)
+    {
+        exportJobService.cancel(jobId);
+        return AjaxResult.success();
+    }
+
     /**
      * 通用上传请求（单个）
      */
@@ -151,8 +185,7 @@ public class CommonController
             // 下载名称
             String downloadName = StringUtils.substringAfterLast(downloadPath, "/");
             response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
-            FileUtils.setAttachmentResponseHeader(response, downloadName);
-            FileUtils.writeBytes(downloadPath, response.getOutputStream());
+            fileDownloadService.download(new File(downloadPath), downloadName, request, response);
         }
         catch (Exception e)
         {
@@ -1,8 +1,8 @@
 package com.jf.web.controller.monitor;
 
 import java.util.ArrayList;
-import java.util.Collection;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Properties;
@@ -18,7 +18,10 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import com.jf.common.constant.CacheConstants;
+import com.jf.common.core.cache.DictCache;
+import com.jf.common.core.cache.MybatisCache;
 import com.jf.common.core.domain.AjaxResult;
+import com.jf.common.core.redis.RedisCache;
 import com.jf.common.utils.StringUtils;
 import com.jf.system.domain.SysCache;
 
@@ -34,6 +37,12 @@ public class CacheController
     @Autowired
     private RedisTemplate<String, String> redisTemplate;
 
+    @Autowired
+    private RedisCache redisCache;
+
+    @Autowired
+    private DictCache dictCache;
+
     private final static List<SysCache> caches = new ArrayList<SysCache>();
     {
         caches.add(new SysCache(CacheConstants.LOGIN_TOKEN_KEY, "用户信息"));
@@ -42,6 +51,7 @@ public class CacheController
         caches.add(new SysCache(CacheConstants.CAPTCHA_CODE_KEY, "验证码"));
         caches.add(new SysCache(CacheConstants.REPEAT_SUBMIT_KEY, "防重提交"));
         caches.add(new SysCache(CacheConstants.RATE_LIMIT_KEY, "限流处理"));
+        caches.add(new SysCache(CacheConstants.EXPORT_JOB_KEY, "导出任务"));
         caches.add(new SysCache(CacheConstants.PWD_ERR_CNT_KEY, "密码错误次数"));
     }
 
@@ -77,12 +87,38 @@ public class CacheController
         return AjaxResult.success(caches);
     }
 
+    /**
+     * 本节点MyBatis二级缓存各命名空间的命中统计
+     */
+    @PreAuthorize("@ss.hasPermi('monitor:cache:list')")
+    @GetMapping("/mybatis")
+    public AjaxResult mybatis()
+    {
+        List<Map<String, Object>> list = new ArrayList<>();
+        for (MybatisCache cache : MybatisCache.getCaches())
+        {
+            long hits = cache.getLocalHits() + cache.getRedisHits();
+            long total = hits + cache.getMisses();
+            Map<String, Object> data = new LinkedHashMap<>();
+            data.put("namespace", cache.getId());
+            data.put("size", cache.getSize());
+            data.put("ttl", cache.getTtl());
+            data.put("localHits", cache.getLocalHits());
+            data.put("redisHits", cache.getRedisHits());
+            data.put("misses", cache.getMisses());
+            data.put("hitRate", total == 0 ? 0 : (double) hits / total);
+            list.add(data);
+        }
+        return AjaxResult.success(list);
+    }
+
     @PreAuthorize("@ss.hasPermi('monitor:cache:list')")
     @GetMapping("/getKeys/{cacheName}")
     public AjaxResult getCacheKeys(@PathVariable String cacheName)
     {
-        Set<String> cacheKeys = redisTemplate.keys(cacheName + "*");
-        return AjaxResult.success(new TreeSet<>(cacheKeys));
+        Set<String> cacheKeys = new TreeSet<>();
+        redisCache.scan(cacheName + "*", cacheKeys::add);
+        return AjaxResult.success(cacheKeys);
     }
 
     @PreAuthorize("@ss.hasPermi('monitor:cache:list')")
@@ -98,8 +134,7 @@ public class CacheController
     @DeleteMapping("/clearCacheName/{cacheName}")
     public AjaxResult clearCacheName(@PathVariable String cacheName)
     {
-        Collection<String> cacheKeys = redisTemplate.keys(cacheName + "*");
-        redisTemplate.delete(cacheKeys);
+        redisCache.deleteByPattern(cacheName + "*");
         return AjaxResult.success();
     }
 
@@ -115,8 +150,9 @@ public class CacheController
     @DeleteMapping("/clearCacheAll")
     public AjaxResult clearCacheAll()
     {
-        Collection<String> cacheKeys = redisTemplate.keys("*");
-        redisTemplate.delete(cacheKeys);
+        redisCache.deleteByPattern("*");
+        MybatisCache.getCaches().forEach(MybatisCache::clear);
+        dictCache.evictAll();
         return AjaxResult.success();
     }
 }
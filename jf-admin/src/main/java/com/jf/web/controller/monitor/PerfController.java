@@ -0,0 +1,111 @@
+package com.jf.web.controller.monitor;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import com.jf.common.core.domain.AjaxResult;
+import com.jf.framework.manager.CaptchaPool;
+import com.jf.framework.metrics.PerfMetrics;
+import com.jf.framework.metrics.PerfMetrics.Metric;
+
+/**
+ * 性能监控
+ * 
+ * @author jf
+ */
+@RestController
+@RequestMapping("/monitor/perf")
+public class PerfController
+{
+    @Autowired
+    private CaptchaPool captchaPool;
+
+    /**
+     * 各接口、令牌解析、Redis及Mapper的耗时分布（毫秒），按合计耗时倒序
+     */
+    @PreAuthorize("@ss.hasPermi('monitor:server:list')")
+    @GetMapping()
+    public AjaxResult list(String category)
+    {
+        List<Metric> metrics = PerfMetrics.snapshot();
+        if (category != null)
+        {
+            metrics.removeIf(metric -> !metric.getCategory().equals(category));
+        }
+        metrics.sort(Comparator.comparingDouble(Metric::getSum).reversed());
+        return AjaxResult.success(metrics);
+    }
+
+    /**
+     * 验证码池容量、剩余数量、累计生成数及池为空时当场生成的次数
+     */
+    @PreAuthorize("@ss.hasPermi('monitor:server:list')")
+    @GetMapping("/captcha")
+    public AjaxResult captcha()
+    {
+        Map<String, Object> stats = new LinkedHashMap<String, Object>();
+        stats.put("size", captchaPool.getSize());
+        stats.put("depth", captchaPool.getDepth());
+        stats.put("rendered", captchaPool.getRendered());
+        stats.put("misses", captchaPool.getMisses());
+        return AjaxResult.success(stats);
+    }
+
+    /**
+     * Prometheus文本格式导出
+     */
+    @PreAuthorize("@ss.hasPermi('monitor:server:list')")
+    @GetMapping(value = "/prometheus", produces = MediaType.TEXT_PLAIN_VALUE)
+    public String prometheus()
+    {
+        StringBuilder sb = new StringBuilder();
+        sb.append("# HELP jf_latency_seconds Request latency by category and name\n");
+        sb.append("# TYPE jf_latency_seconds summary\n");
+        for (Metric metric : PerfMetrics.snapshot())
+        {
+            String labels = "category=\"" + escape(metric.getCategory()) + "\",name=\"" + escape(metric.getName()) + "\"";
+            appendLine(sb, "jf_latency_seconds", labels + ",quantile=\"0.5\"", metric.getP50() / 1000);
+            appendLine(sb, "jf_latency_seconds", labels + ",quantile=\"0.95\"", metric.getP95() / 1000);
+            appendLine(sb, "jf_latency_seconds", labels + ",quantile=\"0.99\"", metric.getP99() / 1000);
+            appendLine(sb, "jf_latency_seconds_sum", labels, metric.getSum() / 1000);
+            sb.append("jf_latency_seconds_count{").append(labels).append("} ").append(metric.getCount()).append('\n');
+            appendLine(sb, "jf_latency_seconds_max", labels, metric.getMax() / 1000);
+        }
+        sb.append("# TYPE jf_captcha_pool_depth gauge\n");
+        sb.append("jf_captcha_pool_depth ").append(captchaPool.getDepth()).append('\n');
+        sb.append("# TYPE jf_captcha_rendered_total counter\n");
+        sb.append("jf_captcha_rendered_total ").append(captchaPool.getRendered()).append('\n');
+        sb.append("# TYPE jf_captcha_pool_misses_total counter\n");
+        sb.append("jf_captcha_pool_misses_total ").append(captchaPool.getMisses()).append('\n');
+        return sb.toString();
+    }
+
+    /**
+     * 清空统计数据
+     */
+    @PreAuthorize("@ss.hasPermi('monitor:server:list')")
+    @DeleteMapping()
+    public AjaxResult reset()
+    {
+        PerfMetrics.reset();
+        return AjaxResult.success();
+    }
+
+    private void appendLine(StringBuilder sb, String name, String labels, double value)
+    {
+        sb.append(name).append('{').append(labels).append("} ").append(value).append('\n');
+    }
+
+    private String escape(String value)
+    {
+        return value.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+}
@@ -1,11 +1,12 @@
 package com.jf.web.controller.monitor;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import com.jf.common.core.domain.AjaxResult;
-import com.jf.framework.web.domain.Server;
+import com.jf.framework.web.service.ServerMonitorService;
 
 /**
  * 服务器监控
@@ -16,12 +17,23 @@ import com.jf.framework.web.domain.Server;
 @RequestMapping("/monitor/server")
 public class ServerController
 {
+    @Autowired
+    private ServerMonitorService serverMonitorService;
+
     @PreAuthorize("@ss.hasPermi('monitor:server:list')")
     @GetMapping()
     public AjaxResult getInfo() throws Exception
     {
-        Server server = new Server();
-        server.copyTo();
-        return AjaxResult.success(server);
+        return AjaxResult.success(serverMonitorService.getServer());
+    }
+
+    /**
+     * 最近的指标采样点，用于绘制趋势图
+     */
+    @PreAuthorize("@ss.hasPermi('monitor:server:list')")
+    @GetMapping("/history")
+    public AjaxResult history()
+    {
+        return AjaxResult.success(serverMonitorService.getHistory());
     }
 }
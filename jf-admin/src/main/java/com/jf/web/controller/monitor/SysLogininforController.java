@@ -16,6 +16,7 @@ import com.jf.common.core.domain.AjaxResult;
 import com.jf.common.core.page.TableDataInfo;
 import com.jf.common.enums.BusinessType;
 import com.jf.common.utils.poi.ExcelUtil;
+import com.jf.framework.web.service.ExportJobService;
 import com.jf.framework.web.service.SysPasswordService;
 import com.jf.system.domain.SysLogininfor;
 import com.jf.system.service.ISysLogininforService;
@@ -32,6 +33,9 @@ public class SysLogininforController extends BaseController
     @Autowired
     private ISysLogininforService logininforService;
 
+    @Autowired
+    private ExportJobService exportJobService;
+
     @Autowired
     private SysPasswordService passwordService;
 
@@ -39,6 +43,10 @@ public class SysLogininforController extends BaseController
     @GetMapping("/list")
     public TableDataInfo list(SysLogininfor logininfor)
     {
+        if (isSeekPage())
+        {
+            return getSeekDataTable(logininfor, () -> logininforService.selectLogininforList(logininfor));
+        }
         startPage();
         List<SysLogininfor> list = logininforService.selectLogininforList(logininfor);
         return getDataTable(list);
@@ -49,9 +57,17 @@ public class SysLogininforController extends BaseController
     @PostMapping("/export")
     public void export(HttpServletResponse response, SysLogininfor logininfor)
     {
-        List<SysLogininfor> list = logininforService.selectLogininforList(logininfor);
         ExcelUtil<SysLogininfor> util = new ExcelUtil<SysLogininfor>(SysLogininfor.class);
-        util.exportExcel(response, list, "登录日志");
+        util.exportStream(response, handler -> logininforService.streamLogininforList(logininfor, handler), "登录日志");
+    }
+
+    @Log(title = "登录日志", businessType = BusinessType.EXPORT)
+    @PreAuthorize("@ss.hasPermi('monitor:logininfor:export')")
+    @PostMapping("/exportAsync")
+    public AjaxResult exportAsync(SysLogininfor logininfor)
+    {
+        String jobId = exportJobService.submit(SysLogininfor.class, "登录日志", handler -> logininforService.streamLogininforList(logininfor, handler));
+        return AjaxResult.success().put("jobId", jobId);
     }
 
     @PreAuthorize("@ss.hasPermi('monitor:logininfor:remove')")
@@ -13,10 +13,14 @@ import org.springframework.web.bind.annotation.RestController;
 import com.jf.common.annotation.Log;
 import com.jf.common.core.controller.BaseController;
 import com.jf.common.core.domain.AjaxResult;
+import com.jf.common.core.page.PageDomain;
 import com.jf.common.core.page.TableDataInfo;
+import com.jf.common.core.page.TableSupport;
 import com.jf.common.enums.BusinessType;
 import com.jf.common.utils.poi.ExcelUtil;
+import com.jf.framework.web.service.ExportJobService;
 import com.jf.system.domain.SysOperLog;
+import com.jf.system.service.ISysOperLogIndexService;
 import com.jf.system.service.ISysOperLogService;
 
 /**
@@ -31,23 +35,49 @@ public class SysOperlogController extends BaseController
     @Autowired
     private ISysOperLogService operLogService;
 
+    @Autowired
+    private ISysOperLogIndexService operLogIndexService;
+
+    @Autowired
+    private ExportJobService exportJobService;
+
     @PreAuthorize("@ss.hasPermi('monitor:operlog:list')")
     @GetMapping("/list")
     public TableDataInfo list(SysOperLog operLog)
     {
+        if (isSeekPage())
+        {
+            return getSeekDataTable(operLog, () -> operLogService.selectOperLogList(operLog));
+        }
         startPage();
         List<SysOperLog> list = operLogService.selectOperLogList(operLog);
         return getDataTable(list);
     }
 
+    @PreAuthorize("@ss.hasPermi('monitor:operlog:list')")
+    @GetMapping("/search")
+    public TableDataInfo search(String keyword, SysOperLog operLog)
+    {
+        PageDomain pageDomain = TableSupport.buildPageRequest();
+        return getDataTable(operLogService.searchOperLog(keyword, operLog, pageDomain.getPageNum(), pageDomain.getPageSize()));
+    }
+
     @Log(title = "操作日志", businessType = BusinessType.EXPORT)
     @PreAuthorize("@ss.hasPermi('monitor:operlog:export')")
     @PostMapping("/export")
     public void export(HttpServletResponse response, SysOperLog operLog)
     {
-        List<SysOperLog> list = operLogService.selectOperLogList(operLog);
         ExcelUtil<SysOperLog> util = new ExcelUtil<SysOperLog>(SysOperLog.class);
-        util.exportExcel(response, list, "操作日志");
+        util.exportStream(response, handler -> operLogService.streamOperLogList(operLog, handler), "操作日志");
+    }
+
+    @Log(title = "操作日志", businessType = BusinessType.EXPORT)
+    @PreAuthorize("@ss.hasPermi('monitor:operlog:export')")
+    @PostMapping("/exportAsync")
+    public AjaxResult exportAsync(SysOperLog operLog)
+    {
+        String jobId = exportJobService.submit(SysOperLog.class, "操作日志", handler -> operLogService.streamOperLogList(operLog, handler));
+        return AjaxResult.success().put("jobId", jobId);
     }
 
     @Log(title = "操作日志", businessType = BusinessType.DELETE)
@@ -58,6 +88,14 @@ public class SysOperlogController extends BaseController
         return toAjax(operLogService.deleteOperLogByIds(operIds));
     }
 
+    @Log(title = "操作日志索引", businessType = BusinessType.OTHER)
+    @PreAuthorize("@ss.hasPermi('monitor:operlog:remove')")
+    @PostMapping("/index/rebuild")
+    public AjaxResult rebuildIndex()
+    {
+        return operLogIndexService.rebuild() ? success() : error("索引正在重建中");
+    }
+
     @Log(title = "操作日志", businessType = BusinessType.CLEAN)
     @PreAuthorize("@ss.hasPermi('monitor:operlog:remove')")
     @DeleteMapping("/clean")
@@ -1,8 +1,5 @@
 package com.jf.web.controller.monitor;
 
-import java.util.ArrayList;
-import java.util.Collection;
-import java.util.Collections;
 import java.util.List;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -12,16 +9,15 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 import com.jf.common.annotation.Log;
-import com.jf.common.constant.CacheConstants;
 import com.jf.common.core.controller.BaseController;
 import com.jf.common.core.domain.AjaxResult;
-import com.jf.common.core.domain.model.LoginUser;
+import com.jf.common.core.page.PageDomain;
 import com.jf.common.core.page.TableDataInfo;
-import com.jf.common.core.redis.RedisCache;
+import com.jf.common.core.page.TableSupport;
 import com.jf.common.enums.BusinessType;
-import com.jf.common.utils.StringUtils;
+import com.jf.framework.web.service.OnlineSessionService;
+import com.jf.framework.web.service.TokenService;
 import com.jf.system.domain.SysUserOnline;
-import com.jf.system.service.ISysUserOnlineService;
 
 /**
  * 在线用户监控
@@ -33,39 +29,17 @@ import com.jf.system.service.ISysUserOnlineService;
 public class SysUserOnlineController extends BaseController
 {
     @Autowired
-    private ISysUserOnlineService userOnlineService;
+    private OnlineSessionService onlineSessionService;
 
     @Autowired
-    private RedisCache redisCache;
+    private TokenService tokenService;
 
     @PreAuthorize("@ss.hasPermi('monitor:online:list')")
     @GetMapping("/list")
     public TableDataInfo list(String ipaddr, String userName)
     {
-        Collection<String> keys = redisCache.keys(CacheConstants.LOGIN_TOKEN_KEY + "*");
-        List<SysUserOnline> userOnlineList = new ArrayList<SysUserOnline>();
-        for (String key : keys)
-        {
-            LoginUser user = redisCache.getCacheObject(key);
-            if (StringUtils.isNotEmpty(ipaddr) && StringUtils.isNotEmpty(userName))
-            {
-                userOnlineList.add(userOnlineService.selectOnlineByInfo(ipaddr, userName, user));
-            }
-            else if (StringUtils.isNotEmpty(ipaddr))
-            {
-                userOnlineList.add(userOnlineService.selectOnlineByIpaddr(ipaddr, user));
-            }
-            else if (StringUtils.isNotEmpty(userName) && StringUtils.isNotNull(user.getUser()))
-            {
-                userOnlineList.add(userOnlineService.selectOnlineByUserName(userName, user));
-            }
-            else
-            {
-                userOnlineList.add(userOnlineService.loginUserToUserOnline(user));
-            }
-        }
-        Collections.reverse(userOnlineList);
-        userOnlineList.removeAll(Collections.singleton(null));
+        PageDomain pageDomain = TableSupport.buildPageRequest();
+        List<SysUserOnline> userOnlineList = onlineSessionService.selectOnlineList(ipaddr, userName, pageDomain.getPageNum(), pageDomain.getPageSize());
         return getDataTable(userOnlineList);
     }
 
@@ -77,7 +51,7 @@ public class SysUserOnlineController extends BaseController
     @DeleteMapping("/{tokenId}")
     public AjaxResult forceLogout(@PathVariable String tokenId)
     {
-        redisCache.deleteObject(CacheConstants.LOGIN_TOKEN_KEY + tokenId);
+        tokenService.delLoginUser(tokenId);
         return success();
     }
 }
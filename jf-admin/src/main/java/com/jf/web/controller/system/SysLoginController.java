@@ -14,7 +14,6 @@ import com.jf.common.core.domain.entity.SysMenu;
 import com.jf.common.core.domain.entity.SysUser;
 import com.jf.common.core.domain.model.LoginBody;
 import com.jf.common.core.domain.model.LoginUser;
-import com.jf.common.core.text.Convert;
 import com.jf.common.utils.DateUtils;
 import com.jf.common.utils.SecurityUtils;
 import com.jf.common.utils.StringUtils;
@@ -108,14 +107,14 @@ public class SysLoginController
     // 检查初始密码是否提醒修改
     public boolean initPasswordIsModify(Date pwdUpdateDate)
     {
-        Integer initPasswordModify = Convert.toInt(configService.selectConfigByKey("sys.account.initPasswordModify"));
+        Integer initPasswordModify = configService.selectConfigInt("sys.account.initPasswordModify");
         return initPasswordModify != null && initPasswordModify == 1 && pwdUpdateDate == null;
     }
 
     // 检查密码是否过期
     public boolean passwordIsExpiration(Date pwdUpdateDate)
     {
-        Integer passwordValidateDays = Convert.toInt(configService.selectConfigByKey("sys.account.passwordValidateDays"));
+        Integer passwordValidateDays = configService.selectConfigInt("sys.account.passwordValidateDays");
         if (passwordValidateDays != null && passwordValidateDays > 0)
         {
             if (StringUtils.isNull(pwdUpdateDate))
@@ -27,6 +27,7 @@ import com.jf.common.enums.BusinessType;
 import com.jf.common.utils.SecurityUtils;
 import com.jf.common.utils.StringUtils;
 import com.jf.common.utils.poi.ExcelUtil;
+import com.jf.framework.web.service.ExportJobService;
 import com.jf.system.service.ISysDeptService;
 import com.jf.system.service.ISysPostService;
 import com.jf.system.service.ISysRoleService;
@@ -44,6 +45,9 @@ public class SysUserController extends BaseController
     @Autowired
     private ISysUserService userService;
 
+    @Autowired
+    private ExportJobService exportJobService;
+
     @Autowired
     private ISysRoleService roleService;
 
@@ -60,6 +64,10 @@ public class SysUserController extends BaseController
     @GetMapping("/list")
     public TableDataInfo list(SysUser user)
     {
+        if (isSeekPage())
+        {
+            return getSeekDataTable(user, () -> userService.selectUserList(user));
+        }
         startPage();
         List<SysUser> list = userService.selectUserList(user);
         return getDataTable(list);
@@ -70,9 +78,17 @@ public class SysUserController extends BaseController
     @PostMapping("/export")
     public void export(HttpServletResponse response, SysUser user)
     {
-        List<SysUser> list = userService.selectUserList(user);
         ExcelUtil<SysUser> util = new ExcelUtil<SysUser>(SysUser.class);
-        util.exportExcel(response, list, "用户数据");
+        util.exportStream(response, handler -> userService.streamUserList(user, handler), "用户数据");
+    }
+
+    @Log(title = "用户管理", businessType = BusinessType.EXPORT)
+    @PreAuthorize("@ss.hasPermi('system:user:export')")
+    @PostMapping("/exportAsync")
+    public AjaxResult exportAsync(SysUser user)
+    {
+        String jobId = exportJobService.submit(SysUser.class, "用户数据", handler -> userService.streamUserList(user, handler));
+        return AjaxResult.success().put("jobId", jobId);
     }
 
     @Log(title = "用户管理", businessType = BusinessType.IMPORT)
@@ -80,10 +96,8 @@ public class SysUserController extends BaseController
     @PostMapping("/importData")
     public AjaxResult importData(MultipartFile file, boolean updateSupport) throws Exception
     {
-        ExcelUtil<SysUser> util = new ExcelUtil<SysUser>(SysUser.class);
-        List<SysUser> userList = util.importExcel(file.getInputStream());
         String operName = getUsername();
-        String message = userService.importUser(userList, updateSupport, operName);
+        String message = userService.importUser(file.getInputStream(), updateSupport, operName);
         return success(message);
     }
 
@@ -0,0 +1,124 @@
+package com.jf.benchmark;
+
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.apache.ibatis.session.ResultContext;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import com.jf.common.core.domain.entity.SysDept;
+import com.jf.common.core.domain.entity.SysUser;
+import com.jf.common.utils.poi.ExcelUtil;
+
+/**
+ * Excel导出：10万条用户数据写入工作簿的耗时
+ *
+ * @author jf
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgs = { "-Xms2g", "-Xmx2g" })
+@State(Scope.Benchmark)
+public class ExcelExportBenchmark
+{
+    /**
+     * 导出行数
+     */
+    @Param({ "100000" })
+    public int rows;
+
+    /**
+     * 单元格转换并行度，1表示串行
+     */
+    @Param({ "1", "4" })
+    public int parallelism;
+
+    private List<SysUser> users;
+
+    @Setup
+    public void setup()
+    {
+        users = new ArrayList<SysUser>(rows);
+        Date now = new Date();
+        for (int i = 0; i < rows; i++)
+        {
+            SysDept dept = new SysDept();
+            dept.setDeptName("研发部门" + (i % 20));
+            dept.setLeader("负责人" + (i % 20));
+            SysUser user = new SysUser();
+            user.setUserId((long) i);
+            user.setUserName("user" + i);
+            user.setNickName("用户" + i);
+            user.setEmail("user" + i + "@jf.com");
+            user.setPhonenumber("1380000" + String.format("%04d", i % 10000));
+            user.setSex(String.valueOf(i % 3));
+            user.setStatus(String.valueOf(i % 2));
+            user.setLoginIp("192.168.0." + (i % 255));
+            user.setLoginDate(now);
+            user.setDept(dept);
+            users.add(user);
+        }
+    }
+
+    @Benchmark
+    public void exportStream()
+    {
+        ExcelUtil<SysUser> util = new ExcelUtil<SysUser>(SysUser.class);
+        util.setParallelism(parallelism);
+        util.exportStream(OutputStream.nullOutputStream(), handler -> {
+            for (SysUser user : users)
+            {
+                handler.handleResult(new SingleResultContext(user));
+            }
+        }, "用户数据", null);
+    }
+
+    /**
+     * 模拟Mapper流式查询逐行推送的结果上下文
+     */
+    private static class SingleResultContext implements ResultContext<SysUser>
+    {
+        private final SysUser user;
+
+        SingleResultContext(SysUser user)
+        {
+            this.user = user;
+        }
+
+        @Override
+        public SysUser getResultObject()
+        {
+            return user;
+        }
+
+        @Override
+        public int getResultCount()
+        {
+            return 1;
+        }
+
+        @Override
+        public boolean isStopped()
+        {
+            return false;
+        }
+
+        @Override
+        public void stop()
+        {
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.jf.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import com.jf.framework.metrics.LatencyHistogram;
+import com.jf.framework.metrics.PerfMetrics;
+
+/**
+ * 性能指标：直方图记录一次耗时的开销，单线程与多线程并发写入同一直方图
+ *
+ * @author jf
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LatencyHistogramBenchmark
+{
+    private final LatencyHistogram histogram = new LatencyHistogram();
+
+    /**
+     * 基准：仅取两次时间，不记录
+     */
+    @Benchmark
+    public long nanoTime()
+    {
+        long start = System.nanoTime();
+        return System.nanoTime() - start;
+    }
+
+    @Benchmark
+    public void recordNanos()
+    {
+        long start = System.nanoTime();
+        histogram.recordNanos(System.nanoTime() - start);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void recordNanosContended()
+    {
+        long start = System.nanoTime();
+        histogram.recordNanos(System.nanoTime() - start);
+    }
+
+    /**
+     * 按类别和名称查找直方图后记录，对应切面中的实际调用
+     */
+    @Benchmark
+    public void perfMetricsRecord()
+    {
+        long start = System.nanoTime();
+        PerfMetrics.record(PerfMetrics.HTTP, "SysUserController.list", System.nanoTime() - start);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void perfMetricsRecordContended()
+    {
+        long start = System.nanoTime();
+        PerfMetrics.record(PerfMetrics.HTTP, "SysUserController.list", System.nanoTime() - start);
+    }
+}
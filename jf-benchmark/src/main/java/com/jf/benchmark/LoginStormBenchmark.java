@@ -0,0 +1,129 @@
+package com.jf.benchmark;
+
+import java.lang.reflect.Field;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.util.ReflectionUtils;
+import com.jf.common.utils.SecurityUtils;
+import com.jf.framework.manager.PasswordHashExecutor;
+
+/**
+ * 登录高峰压测：大量登录请求与普通接口请求并发时，BCrypt在请求线程上计算与放入专用线程池计算的对比
+ *
+ * Redis读取错误次数、验证码及用户查询以固定的等待时间模拟，不依赖外部服务；
+ * 采样模式下输出每组登录和普通请求的p50/p99延迟
+ *
+ * @author jf
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@State(Scope.Group)
+public class LoginStormBenchmark
+{
+    private static final String PASSWORD = "admin123";
+
+    /**
+     * 模拟的Redis和数据库往返耗时（微秒）
+     */
+    @Param({ "500" })
+    public long ioMicros;
+
+    private String encodedPassword;
+
+    private PasswordHashExecutor executor;
+
+    @Setup
+    public void setup()
+    {
+        encodedPassword = SecurityUtils.encryptPassword(PASSWORD);
+        executor = new PasswordHashExecutor();
+        setField(executor, "threads", 0);
+        setField(executor, "queueSize", 200);
+        setField(executor, "timeout", 5000L);
+        executor.init();
+    }
+
+    @TearDown
+    public void tearDown()
+    {
+        executor.destroy();
+    }
+
+    /**
+     * 登录请求，在请求线程上计算BCrypt
+     */
+    @Benchmark
+    @Group("inline")
+    @GroupThreads(32)
+    public boolean inlineLogin()
+    {
+        simulateIo();
+        return SecurityUtils.matchesPassword(PASSWORD, encodedPassword);
+    }
+
+    /**
+     * 登录高峰期间的普通接口请求
+     */
+    @Benchmark
+    @Group("inline")
+    @GroupThreads(8)
+    public void inlineRequest()
+    {
+        simulateIo();
+        Blackhole.consumeCPU(10000);
+    }
+
+    /**
+     * 登录请求，BCrypt交给密码校验线程池计算
+     */
+    @Benchmark
+    @Group("pooled")
+    @GroupThreads(32)
+    public boolean pooledLogin()
+    {
+        simulateIo();
+        return executor.matches(PASSWORD, encodedPassword);
+    }
+
+    /**
+     * 登录高峰期间的普通接口请求
+     */
+    @Benchmark
+    @Group("pooled")
+    @GroupThreads(8)
+    public void pooledRequest()
+    {
+        simulateIo();
+        Blackhole.consumeCPU(10000);
+    }
+
+    private void simulateIo()
+    {
+        LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(ioMicros));
+    }
+
+    private static void setField(Object target, String name, Object value)
+    {
+        Field field = ReflectionUtils.findField(target.getClass(), name);
+        ReflectionUtils.makeAccessible(field);
+        ReflectionUtils.setField(field, target, value);
+    }
+}
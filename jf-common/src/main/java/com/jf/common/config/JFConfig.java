@@ -30,6 +30,9 @@ public class JFConfig
     /** 验证码类型 */
     private static String captchaType;
 
+    /** Excel并行导出的线程数，0表示使用CPU核数 */
+    private static int excelParallelism;
+
     public String getName()
     {
         return name;
@@ -88,6 +91,16 @@ public class JFConfig
         JFConfig.captchaType = captchaType;
     }
 
+    public static int getExcelParallelism()
+    {
+        return excelParallelism;
+    }
+
+    public void setExcelParallelism(int excelParallelism)
+    {
+        JFConfig.excelParallelism = excelParallelism;
+    }
+
     /**
      * 获取导入上传路径
      */
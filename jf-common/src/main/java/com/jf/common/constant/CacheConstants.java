@@ -12,6 +12,26 @@ public class CacheConstants
      */
     public static final String LOGIN_TOKEN_KEY = "login_tokens:";
 
+    /**
+     * 在线会话索引（按过期时间排序） redis key
+     */
+    public static final String ONLINE_SESSION_KEY = "online_sessions";
+
+    /**
+     * 在线会话摘要 redis key
+     */
+    public static final String ONLINE_SESSION_INFO_KEY = "online_session_info";
+
+    /**
+     * 在线会话用户名索引 redis key
+     */
+    public static final String ONLINE_USER_INDEX_KEY = "online_user_idx:";
+
+    /**
+     * 在线会话登录地址索引 redis key
+     */
+    public static final String ONLINE_IP_INDEX_KEY = "online_ip_idx:";
+
     /**
      * 验证码 redis key
      */
@@ -22,16 +42,66 @@ public class CacheConstants
      */
     public static final String SYS_CONFIG_KEY = "sys_config:";
 
+    /**
+     * 参数版本号 redis key
+     */
+    public static final String SYS_CONFIG_VERSION_KEY = "sys_config_version";
+
+    /**
+     * 参数变更通知 redis channel
+     */
+    public static final String SYS_CONFIG_TOPIC = "sys_config_topic";
+
     /**
      * 字典管理 cache key
      */
     public static final String SYS_DICT_KEY = "sys_dict:";
 
+    /**
+     * 字典变更通知 redis channel
+     */
+    public static final String SYS_DICT_TOPIC = "sys_dict_topic";
+
     /**
      * 防重提交 redis key
      */
     public static final String REPEAT_SUBMIT_KEY = "repeat_submit:";
 
+    /**
+     * 导出任务 redis key
+     */
+    public static final String EXPORT_JOB_KEY = "export_job:";
+
+    /**
+     * 导出文件所属用户 redis key
+     */
+    public static final String EXPORT_FILE_KEY = "export_file:";
+
+    /**
+     * 用户未完成的导出任务数 redis key
+     */
+    public static final String EXPORT_USER_KEY = "export_user:";
+
+    /**
+     * 分页总数 redis key
+     */
+    public static final String PAGE_COUNT_KEY = "page_count:";
+
+    /**
+     * 分页总数缓存的表版本号 redis key
+     */
+    public static final String PAGE_COUNT_VERSION_KEY = "page_count_version:";
+
+    /**
+     * MyBatis二级缓存 redis key
+     */
+    public static final String MYBATIS_CACHE_KEY = "mybatis_cache:";
+
+    /**
+     * MyBatis二级缓存清空通知 redis channel
+     */
+    public static final String MYBATIS_CACHE_TOPIC = "mybatis_cache_topic";
+
     /**
      * 限流 redis key
      */
@@ -0,0 +1,244 @@
+package com.jf.common.core.cache;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import com.alibaba.fastjson2.JSONArray;
+import com.jf.common.constant.CacheConstants;
+import com.jf.common.core.domain.entity.SysDictData;
+import com.jf.common.core.redis.RedisCache;
+import com.jf.common.utils.StringUtils;
+
+/**
+ * 字典本地缓存
+ * 
+ * 每个字典类型保存一份不可变快照（含 键值→标签、标签→键值 映射），
+ * 未命中时依次从Redis、数据库加载，加载在锁外进行；不存在的字典只缓存EMPTY_TTL毫秒，
+ * 避免数据尚未录入或加载时依赖未就绪导致长期为空；字典变更时通过Redis发布订阅通知所有节点失效。
+ * 
+ * @author jf
+ */
+@Component
+public class DictCache implements MessageListener
+{
+    private static final Logger log = LoggerFactory.getLogger(DictCache.class);
+
+    /**
+     * 失效全部字典的消息
+     */
+    private static final String ALL = "*";
+
+    /**
+     * 不存在的字典的缓存时间（毫秒）
+     */
+    private static final long EMPTY_TTL = 10000L;
+
+    private final ConcurrentMap<String, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    /**
+     * 失效次数，加载期间发生失效时不保存加载结果，避免旧数据覆盖失效
+     */
+    private final AtomicLong generation = new AtomicLong();
+
+    @Autowired
+    private RedisCache redisCache;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Autowired
+    private ObjectProvider<DictDataLoader> dictDataLoader;
+
+    @PostConstruct
+    public void init()
+    {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CacheConstants.SYS_DICT_TOPIC));
+    }
+
+    /**
+     * 获取字典快照
+     * 
+     * @param dictType 字典类型
+     * @return 字典快照，不存在时返回空快照
+     */
+    public Snapshot get(String dictType)
+    {
+        if (dictType == null)
+        {
+            return Snapshot.EMPTY;
+        }
+        Snapshot snapshot = snapshots.get(dictType);
+        if (snapshot != null && !snapshot.isExpired())
+        {
+            return snapshot;
+        }
+        long gen = generation.get();
+        snapshot = load(dictType);
+        if (snapshot != Snapshot.EMPTY && generation.get() == gen)
+        {
+            snapshots.put(dictType, snapshot);
+        }
+        return snapshot;
+    }
+
+    /**
+     * 失效指定字典类型，并通知其他节点
+     * 
+     * @param dictType 字典类型
+     */
+    public void evict(String dictType)
+    {
+        generation.incrementAndGet();
+        snapshots.remove(dictType);
+        redisCache.publish(CacheConstants.SYS_DICT_TOPIC, dictType);
+    }
+
+    /**
+     * 失效全部字典，并通知其他节点
+     */
+    public void evictAll()
+    {
+        generation.incrementAndGet();
+        snapshots.clear();
+        redisCache.publish(CacheConstants.SYS_DICT_TOPIC, ALL);
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern)
+    {
+        Object dictType = redisCache.redisTemplate.getValueSerializer().deserialize(message.getBody());
+        generation.incrementAndGet();
+        if (ALL.equals(dictType))
+        {
+            snapshots.clear();
+        }
+        else if (dictType != null)
+        {
+            snapshots.remove(dictType.toString());
+        }
+    }
+
+    private Snapshot load(String dictType)
+    {
+        String cacheKey = CacheConstants.SYS_DICT_KEY + dictType;
+        JSONArray arrayCache = redisCache.getCacheObject(cacheKey);
+        if (StringUtils.isNotNull(arrayCache))
+        {
+            return Snapshot.of(arrayCache.toList(SysDictData.class));
+        }
+        DictDataLoader loader = dictDataLoader.getIfAvailable();
+        if (loader == null)
+        {
+            // 数据库加载尚未就绪，不缓存
+            return Snapshot.EMPTY;
+        }
+        List<SysDictData> dictDatas = loader.loadDictData(dictType);
+        if (StringUtils.isEmpty(dictDatas))
+        {
+            return Snapshot.empty();
+        }
+        log.debug("字典[{}]缓存不存在，从数据库加载", dictType);
+        redisCache.setCacheObject(cacheKey, dictDatas);
+        return Snapshot.of(dictDatas);
+    }
+
+    /**
+     * 单个字典类型的不可变快照
+     */
+    public static final class Snapshot
+    {
+        static final Snapshot EMPTY = new Snapshot(null);
+
+        private final List<SysDictData> datas;
+
+        /** 键值 → 标签 */
+        private final Map<String, String> labelMap;
+
+        /** 标签 → 键值 */
+        private final Map<String, String> valueMap;
+
+        /** 创建时间 */
+        private final long createTime = System.currentTimeMillis();
+
+        private Snapshot(List<SysDictData> datas)
+        {
+            this.datas = datas == null ? null : Collections.unmodifiableList(datas);
+            Map<String, String> labels = new HashMap<>();
+            Map<String, String> values = new HashMap<>();
+            if (datas != null)
+            {
+                for (SysDictData dict : datas)
+                {
+                    labels.put(dict.getDictValue(), dict.getDictLabel());
+                    values.put(dict.getDictLabel(), dict.getDictValue());
+                }
+            }
+            this.labelMap = Collections.unmodifiableMap(labels);
+            this.valueMap = Collections.unmodifiableMap(values);
+        }
+
+        static Snapshot of(List<SysDictData> datas)
+        {
+            return new Snapshot(datas);
+        }
+
+        static Snapshot empty()
+        {
+            return new Snapshot(null);
+        }
+
+        /**
+         * 不存在的字典超过EMPTY_TTL后重新加载
+         */
+        boolean isExpired()
+        {
+            return datas == null && System.currentTimeMillis() - createTime > EMPTY_TTL;
+        }
+
+        /**
+         * 字典是否不存在
+         */
+        public boolean isEmpty()
+        {
+            return datas == null;
+        }
+
+        /**
+         * 字典数据列表，不存在时为null
+         */
+        public List<SysDictData> getDatas()
+        {
+            return datas;
+        }
+
+        /**
+         * 键值 → 标签
+         */
+        public Map<String, String> getLabelMap()
+        {
+            return labelMap;
+        }
+
+        /**
+         * 标签 → 键值
+         */
+        public Map<String, String> getValueMap()
+        {
+            return valueMap;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.jf.common.core.cache;
+
+import java.util.List;
+import com.jf.common.core.domain.entity.SysDictData;
+
+/**
+ * 字典数据加载（Redis中不存在时从数据库读取）
+ * 
+ * @author jf
+ */
+public interface DictDataLoader
+{
+    /**
+     * 根据字典类型查询正常状态的字典数据
+     * 
+     * @param dictType 字典类型
+     * @return 字典数据集合信息
+     */
+    public List<SysDictData> loadDictData(String dictType);
+}
@@ -0,0 +1,338 @@
+package com.jf.common.core.cache;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectStreamClass;
+import java.io.ObjectOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import org.apache.ibatis.builder.InitializingObject;
+import org.apache.ibatis.cache.Cache;
+import org.apache.ibatis.cache.CacheException;
+import org.apache.ibatis.io.Resources;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.jf.common.constant.CacheConstants;
+import com.jf.common.core.redis.RedisCache;
+import com.jf.common.utils.sign.Md5Utils;
+import com.jf.common.utils.spring.SpringUtils;
+
+/**
+ * MyBatis二级缓存，本地Caffeine + Redis两级存储
+ * 
+ * 在mapper中声明：&lt;cache type="com.jf.common.core.cache.MybatisCache"&gt;，可配置size（本地条数）和ttl（秒）；
+ * 结果以序列化字节保存，每次读取得到新的副本，调用方修改结果不会影响缓存。
+ * 命名空间发生写操作时MyBatis调用clear，删除Redis中的数据并通过发布订阅通知其他节点清空本地缓存。
+ * 
+ * @author jf
+ */
+public class MybatisCache implements Cache, InitializingObject
+{
+    private static final Logger log = LoggerFactory.getLogger(MybatisCache.class);
+
+    /** 反序列化白名单，Redis中的数据只允许还原为实体类及JDK基础类型，防止反序列化利用链 */
+    private static final ObjectInputFilter DESERIALIZE_FILTER = ObjectInputFilter.Config
+            .createFilter("com.jf.**;java.lang.*;java.util.*;java.time.*;java.math.*;!*");
+
+    /** 已创建的缓存，按命名空间 */
+    private static final ConcurrentMap<String, MybatisCache> CACHES = new ConcurrentHashMap<String, MybatisCache>();
+
+    private final String id;
+
+    private final byte[] redisKey;
+
+    /** 本地缓存条数 */
+    private int size = 1000;
+
+    /** 过期时间（秒） */
+    private int ttl = 600;
+
+    private com.github.benmanes.caffeine.cache.Cache<String, byte[]> local;
+
+    private volatile RedisCache redisCache;
+
+    private final LongAdder localHits = new LongAdder();
+
+    private final LongAdder redisHits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    public MybatisCache(String id)
+    {
+        this.id = id;
+        this.redisKey = (CacheConstants.MYBATIS_CACHE_KEY + id).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Override
+    public void initialize()
+    {
+        local = Caffeine.newBuilder().maximumSize(size).expireAfterWrite(ttl, TimeUnit.SECONDS).build();
+        CACHES.put(id, this);
+    }
+
+    @Override
+    public String getId()
+    {
+        return id;
+    }
+
+    @Override
+    public void putObject(Object key, Object value)
+    {
+        if (value == null)
+        {
+            return;
+        }
+        String field = field(key);
+        byte[] bytes = serialize(value);
+        local.put(field, bytes);
+        RedisCache redis = getRedisCache();
+        if (redis == null)
+        {
+            return;
+        }
+        try
+        {
+            redis.redisTemplate.execute((RedisCallback<Object>) connection -> {
+                connection.hashCommands().hSet(redisKey, field.getBytes(StandardCharsets.UTF_8), bytes);
+                connection.keyCommands().expire(redisKey, ttl);
+                return null;
+            });
+        }
+        catch (Exception e)
+        {
+            log.warn("写入二级缓存{}失败：{}", id, e.getMessage());
+        }
+    }
+
+    @Override
+    public Object getObject(Object key)
+    {
+        String field = field(key);
+        byte[] bytes = local.getIfPresent(field);
+        Object value = bytes == null ? null : deserialize(bytes);
+        if (value != null)
+        {
+            localHits.increment();
+            return value;
+        }
+        RedisCache redis = getRedisCache();
+        if (redis != null)
+        {
+            try
+            {
+                bytes = (byte[]) redis.redisTemplate.execute((RedisCallback<byte[]>) connection -> connection.hashCommands().hGet(redisKey, field.getBytes(StandardCharsets.UTF_8)));
+            }
+            catch (Exception e)
+            {
+                log.warn("读取二级缓存{}失败：{}", id, e.getMessage());
+            }
+        }
+        value = bytes == null ? null : deserialize(bytes);
+        if (value == null)
+        {
+            misses.increment();
+            return null;
+        }
+        redisHits.increment();
+        local.put(field, bytes);
+        return value;
+    }
+
+    @Override
+    public Object removeObject(Object key)
+    {
+        local.invalidate(field(key));
+        return null;
+    }
+
+    /**
+     * 清空本命名空间的缓存，并通知其他节点
+     * 
+     * MyBatis在事务提交前（beforeCommit）调用，提交前并发读取的旧数据可能被重新放入缓存，事务提交后再清空一次
+     */
+    @Override
+    public void clear()
+    {
+        doClear();
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization()
+            {
+                @Override
+                public void afterCommit()
+                {
+                    doClear();
+                }
+            });
+        }
+    }
+
+    private void doClear()
+    {
+        local.invalidateAll();
+        RedisCache redis = getRedisCache();
+        if (redis == null)
+        {
+            return;
+        }
+        try
+        {
+            redis.redisTemplate.execute((RedisCallback<Object>) connection -> connection.keyCommands().del(redisKey));
+            redis.publish(CacheConstants.MYBATIS_CACHE_TOPIC, id);
+        }
+        catch (Exception e)
+        {
+            log.warn("清空二级缓存{}失败：{}", id, e.getMessage());
+        }
+    }
+
+    @Override
+    public int getSize()
+    {
+        return (int) local.estimatedSize();
+    }
+
+    /**
+     * 只清空本地缓存，收到其他节点的清空通知时调用
+     */
+    public void clearLocal()
+    {
+        local.invalidateAll();
+    }
+
+    public void setSize(int size)
+    {
+        this.size = size;
+    }
+
+    public void setTtl(int ttl)
+    {
+        this.ttl = ttl;
+    }
+
+    public int getTtl()
+    {
+        return ttl;
+    }
+
+    public long getLocalHits()
+    {
+        return localHits.sum();
+    }
+
+    public long getRedisHits()
+    {
+        return redisHits.sum();
+    }
+
+    public long getMisses()
+    {
+        return misses.sum();
+    }
+
+    /**
+     * 获取指定命名空间的缓存
+     * 
+     * @param id 命名空间
+     * @return 缓存，不存在时返回null
+     */
+    public static MybatisCache getCache(String id)
+    {
+        return CACHES.get(id);
+    }
+
+    /**
+     * 获取全部缓存
+     * 
+     * @return 缓存列表
+     */
+    public static List<MybatisCache> getCaches()
+    {
+        return new ArrayList<MybatisCache>(CACHES.values());
+    }
+
+    /**
+     * Redis在容器启动完成后才可用，之前只使用本地缓存
+     */
+    private RedisCache getRedisCache()
+    {
+        if (redisCache == null)
+        {
+            try
+            {
+                redisCache = SpringUtils.getBean(RedisCache.class);
+            }
+            catch (Exception e)
+            {
+                return null;
+            }
+        }
+        return redisCache;
+    }
+
+    private String field(Object key)
+    {
+        return Md5Utils.hash(key.toString());
+    }
+
+    private byte[] serialize(Object value)
+    {
+        try (ByteArrayOutputStream bos = new ByteArrayOutputStream(); ObjectOutputStream oos = new ObjectOutputStream(bos))
+        {
+            oos.writeObject(value);
+            oos.flush();
+            return bos.toByteArray();
+        }
+        catch (IOException e)
+        {
+            throw new CacheException("序列化二级缓存" + id + "失败", e);
+        }
+    }
+
+    /**
+     * 反序列化失败（如实体类结构已变更、含白名单外的类）时按未命中处理
+     */
+    private Object deserialize(byte[] bytes)
+    {
+        try (ObjectInputStream ois = new ClassLoaderObjectInputStream(new ByteArrayInputStream(bytes)))
+        {
+            ois.setObjectInputFilter(DESERIALIZE_FILTER);
+            return ois.readObject();
+        }
+        catch (IOException | ClassNotFoundException e)
+        {
+            log.warn("反序列化二级缓存{}失败：{}", id, e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * 使用MyBatis的类加载器解析类，避免打包运行时找不到实体类
+     */
+    private static class ClassLoaderObjectInputStream extends ObjectInputStream
+    {
+        ClassLoaderObjectInputStream(ByteArrayInputStream in) throws IOException
+        {
+            super(in);
+        }
+
+        @Override
+        protected Class<?> resolveClass(ObjectStreamClass desc) throws ClassNotFoundException
+        {
+            return Resources.classForName(desc.getName());
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.jf.common.core.cache;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+import com.jf.common.constant.CacheConstants;
+import com.jf.common.core.redis.RedisCache;
+
+/**
+ * MyBatis二级缓存清空通知，收到后清空对应命名空间的本地缓存
+ * 
+ * @author jf
+ */
+@Component
+public class MybatisCacheListener implements MessageListener
+{
+    @Autowired
+    private RedisCache redisCache;
+
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    @PostConstruct
+    public void init()
+    {
+        listenerContainer.addMessageListener(this, new ChannelTopic(CacheConstants.MYBATIS_CACHE_TOPIC));
+    }
+
+    @Override
+    public void onMessage(Message message, byte[] pattern)
+    {
+        Object id = redisCache.redisTemplate.getValueSerializer().deserialize(message.getBody());
+        MybatisCache cache = id == null ? null : MybatisCache.getCache(id.toString());
+        if (cache != null)
+        {
+            cache.clearLocal();
+        }
+    }
+}
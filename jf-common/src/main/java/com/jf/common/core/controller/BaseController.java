@@ -3,6 +3,7 @@ package com.jf.common.core.controller;
 import java.beans.PropertyEditorSupport;
 import java.util.Date;
 import java.util.List;
+import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.web.bind.WebDataBinder;
@@ -11,6 +12,7 @@ import com.github.pagehelper.PageHelper;
 import com.github.pagehelper.PageInfo;
 import com.jf.common.constant.HttpStatus;
 import com.jf.common.core.domain.AjaxResult;
+import com.jf.common.core.domain.BaseEntity;
 import com.jf.common.core.domain.model.LoginUser;
 import com.jf.common.core.page.PageDomain;
 import com.jf.common.core.page.TableDataInfo;
@@ -90,6 +92,32 @@ public class BaseController
         return rspData;
     }
 
+    /**
+     * 是否请求游标分页
+     */
+    protected boolean isSeekPage()
+    {
+        return TableSupport.buildPageRequest().getSeek();
+    }
+
+    /**
+     * 游标分页查询并响应，总数由分页总数缓存提供
+     *
+     * @param entity 查询条件
+     * @param select 查询方法
+     */
+    protected TableDataInfo getSeekDataTable(BaseEntity entity, Supplier<List<?>> select)
+    {
+        long total = PageHelper.count(select::get);
+        PageUtils.startSeekPage(entity);
+        TableDataInfo rspData = new TableDataInfo();
+        rspData.setCode(HttpStatus.SUCCESS);
+        rspData.setMsg("查询成功");
+        rspData.setRows(select.get());
+        rspData.setTotal(total);
+        return rspData;
+    }
+
     /**
      * 返回成功
      */
@@ -0,0 +1,138 @@
+package com.jf.common.core.mybatis;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import org.apache.ibatis.executor.BatchResult;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.jf.common.utils.StringUtils;
+
+/**
+ * MyBatis批量写入
+ *
+ * 使用ExecutorType.BATCH会话逐条执行单行语句，每batchSize条flush一次；
+ * 会话通过Spring管理的连接加入当前事务，MySQL连接需开启rewriteBatchedStatements才会合并为多值insert
+ *
+ * @author jf
+ */
+@Component
+public class SqlBatchTemplate
+{
+    private static final Logger log = LoggerFactory.getLogger(SqlBatchTemplate.class);
+
+    private static final String REWRITE_BATCHED = "rewriteBatchedStatements=true";
+
+    /** 每批语句数，同时用于in条件的分片大小 */
+    @Value("${mybatis.batchSize:1000}")
+    private int batchSize;
+
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+
+    /** 是否已检查连接参数 */
+    private volatile boolean checked;
+
+    /**
+     * 批量执行写语句
+     *
+     * @param mapperType Mapper接口
+     * @param list 数据集合
+     * @param statement 对单条数据调用Mapper方法
+     * @return 影响行数
+     */
+    public <M, T> int execute(Class<M> mapperType, Collection<T> list, BiConsumer<M, T> statement)
+    {
+        if (StringUtils.isEmpty(list))
+        {
+            return 0;
+        }
+        int rows = 0;
+        try (SqlSession session = sqlSessionFactory.openSession(ExecutorType.BATCH))
+        {
+            checkRewrite(session);
+            M mapper = session.getMapper(mapperType);
+            int pending = 0;
+            for (T item : list)
+            {
+                statement.accept(mapper, item);
+                if (++pending >= batchSize)
+                {
+                    rows += count(session.flushStatements());
+                    pending = 0;
+                }
+            }
+            rows += count(session.flushStatements());
+            session.commit();
+        }
+        return rows;
+    }
+
+    /**
+     * 按批次大小分片处理，用于in条件过长的删除或查询
+     *
+     * @param list 数据集合
+     * @param consumer 分片处理
+     */
+    public <T> void partition(Collection<T> list, Consumer<List<T>> consumer)
+    {
+        if (StringUtils.isEmpty(list))
+        {
+            return;
+        }
+        List<T> all = new ArrayList<T>(list);
+        for (int i = 0; i < all.size(); i += batchSize)
+        {
+            consumer.accept(all.subList(i, Math.min(i + batchSize, all.size())));
+        }
+    }
+
+    /**
+     * 累计影响行数，驱动合并语句后返回SUCCESS_NO_INFO时按1行计
+     */
+    private int count(List<BatchResult> results)
+    {
+        int rows = 0;
+        for (BatchResult result : results)
+        {
+            for (int count : result.getUpdateCounts())
+            {
+                rows += count == Statement.SUCCESS_NO_INFO ? 1 : Math.max(count, 0);
+            }
+        }
+        return rows;
+    }
+
+    /**
+     * MySQL连接未开启rewriteBatchedStatements时批量语句仍逐条发送，首次使用时提示
+     */
+    private void checkRewrite(SqlSession session)
+    {
+        if (checked)
+        {
+            return;
+        }
+        checked = true;
+        try
+        {
+            String url = session.getConnection().getMetaData().getURL();
+            if (StringUtils.startsWith(url, "jdbc:mysql:") && !StringUtils.contains(url, REWRITE_BATCHED))
+            {
+                log.warn("数据库连接未配置{}，批量写入将逐条执行", REWRITE_BATCHED);
+            }
+        }
+        catch (Exception e)
+        {
+            log.debug("检查数据库连接参数失败：{}", e.getMessage());
+        }
+    }
+}
@@ -24,6 +24,15 @@ public class PageDomain
     /** 分页参数合理化 */
     private Boolean reasonable = true;
 
+    /** 是否为游标分页 */
+    private Boolean seek = false;
+
+    /** 游标：上一页最后一条记录的时间 */
+    private String cursorTime;
+
+    /** 游标：上一页最后一条记录的主键 */
+    private Long cursorId;
+
     public String getOrderBy()
     {
         if (StringUtils.isEmpty(orderByColumn))
@@ -98,4 +107,34 @@ public class PageDomain
     {
         this.reasonable = reasonable;
     }
+
+    public Boolean getSeek()
+    {
+        return Boolean.TRUE.equals(seek);
+    }
+
+    public void setSeek(Boolean seek)
+    {
+        this.seek = seek;
+    }
+
+    public String getCursorTime()
+    {
+        return cursorTime;
+    }
+
+    public void setCursorTime(String cursorTime)
+    {
+        this.cursorTime = cursorTime;
+    }
+
+    public Long getCursorId()
+    {
+        return cursorId;
+    }
+
+    public void setCursorId(Long cursorId)
+    {
+        this.cursorId = cursorId;
+    }
 }
@@ -35,6 +35,21 @@ public class TableSupport
      */
     public static final String REASONABLE = "reasonable";
 
+    /**
+     * 游标分页模式
+     */
+    public static final String SEEK = "seek";
+
+    /**
+     * 游标：上一页最后一条记录的时间
+     */
+    public static final String CURSOR_TIME = "cursorTime";
+
+    /**
+     * 游标：上一页最后一条记录的主键
+     */
+    public static final String CURSOR_ID = "cursorId";
+
     /**
      * 封装分页对象
      */
@@ -46,6 +61,9 @@ public class TableSupport
         pageDomain.setOrderByColumn(ServletUtils.getParameter(ORDER_BY_COLUMN));
         pageDomain.setIsAsc(ServletUtils.getParameter(IS_ASC));
         pageDomain.setReasonable(ServletUtils.getParameterToBool(REASONABLE));
+        pageDomain.setSeek(ServletUtils.getParameterToBool(SEEK, false));
+        pageDomain.setCursorTime(ServletUtils.getParameter(CURSOR_TIME));
+        pageDomain.setCursorId(Convert.toLong(ServletUtils.getParameter(CURSOR_ID)));
         return pageDomain;
     }
 
@@ -1,16 +1,23 @@
 package com.jf.common.core.redis;
 
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.redis.core.BoundSetOperations;
+import org.springframework.data.redis.core.Cursor;
 import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
 import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.serializer.RedisSerializer;
 import org.springframework.stereotype.Component;
 
 /**
@@ -22,6 +29,9 @@ import org.springframework.stereotype.Component;
 @Component
 public class RedisCache
 {
+    /** SCAN每次迭代返回的建议数量及批量删除的批次大小 */
+    public static final int SCAN_BATCH_SIZE = 1000;
+
     @Autowired
     public RedisTemplate redisTemplate;
 
@@ -49,6 +59,32 @@ public class RedisCache
         redisTemplate.opsForValue().set(key, value, timeout, timeUnit);
     }
 
+    /**
+     * 仅当键不存在时缓存对象（SET NX PX，原子操作）
+     *
+     * @param key 缓存的键值
+     * @param value 缓存的值
+     * @param timeout 时间
+     * @param timeUnit 时间颗粒度
+     * @return true=设置成功；false=键已存在
+     */
+    public <T> boolean setCacheObjectIfAbsent(final String key, final T value, final long timeout, final TimeUnit timeUnit)
+    {
+        return Boolean.TRUE.equals(redisTemplate.opsForValue().setIfAbsent(key, value, timeout, timeUnit));
+    }
+
+    /**
+     * 将键的值加一
+     *
+     * @param key Redis键
+     * @return 加一后的值
+     */
+    public long increment(final String key)
+    {
+        Long value = redisTemplate.opsForValue().increment(key);
+        return value == null ? 0 : value;
+    }
+
     /**
      * 设置有效时间
      *
@@ -256,13 +292,139 @@ public class RedisCache
     }
 
     /**
-     * 获得缓存的基本对象列表
+     * 发布消息到指定频道
+     *
+     * @param channel 频道
+     * @param message 消息
+     */
+    public void publish(final String channel, final Object message)
+    {
+        redisTemplate.convertAndSend(channel, message);
+    }
+
+    /**
+     * 获得缓存的基本对象列表（基于SCAN迭代，不阻塞Redis）
      *
      * @param pattern 字符串前缀
      * @return 对象列表
      */
     public Collection<String> keys(final String pattern)
     {
-        return redisTemplate.keys(pattern);
+        Set<String> keys = new LinkedHashSet<String>();
+        scan(pattern, keys::add);
+        return keys;
+    }
+
+    /**
+     * 使用SCAN游标逐个遍历匹配的键
+     *
+     * @param pattern 匹配模式
+     * @param consumer 键处理回调
+     */
+    public void scan(final String pattern, final Consumer<String> consumer)
+    {
+        scan(pattern, SCAN_BATCH_SIZE, consumer);
+    }
+
+    /**
+     * 使用SCAN游标逐个遍历匹配的键，同一个键可能被返回多次
+     *
+     * @param pattern 匹配模式
+     * @param count 每次迭代的建议数量
+     * @param consumer 键处理回调
+     */
+    public void scan(final String pattern, final int count, final Consumer<String> consumer)
+    {
+        ScanOptions options = ScanOptions.scanOptions().match(pattern).count(count).build();
+        try (Cursor<String> cursor = redisTemplate.scan(options))
+        {
+            while (cursor.hasNext())
+            {
+                consumer.accept(cursor.next());
+            }
+        }
+    }
+
+    /**
+     * 使用SCAN游标按批遍历匹配的键
+     *
+     * @param pattern 匹配模式
+     * @param count 每批的数量
+     * @param consumer 批处理回调
+     */
+    public void scanBatch(final String pattern, final int count, final Consumer<List<String>> consumer)
+    {
+        List<String> batch = new ArrayList<String>(count);
+        scan(pattern, count, key -> {
+            batch.add(key);
+            if (batch.size() >= count)
+            {
+                consumer.accept(new ArrayList<String>(batch));
+                batch.clear();
+            }
+        });
+        if (!batch.isEmpty())
+        {
+            consumer.accept(batch);
+        }
+    }
+
+    /**
+     * 使用UNLINK批量删除键，由Redis后台线程回收内存，多批命令通过管道一次发送
+     *
+     * @param keys 键集合
+     * @return 删除的数量
+     */
+    public long unlink(final Collection<String> keys)
+    {
+        if (keys == null || keys.isEmpty())
+        {
+            return 0;
+        }
+        RedisSerializer<String> serializer = redisTemplate.getKeySerializer();
+        List<byte[][]> batches = new ArrayList<byte[][]>();
+        List<byte[]> batch = new ArrayList<byte[]>(SCAN_BATCH_SIZE);
+        for (String key : keys)
+        {
+            batch.add(serializer.serialize(key));
+            if (batch.size() >= SCAN_BATCH_SIZE)
+            {
+                batches.add(batch.toArray(new byte[0][]));
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty())
+        {
+            batches.add(batch.toArray(new byte[0][]));
+        }
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (byte[][] rawKeys : batches)
+            {
+                connection.keyCommands().unlink(rawKeys);
+            }
+            return null;
+        });
+        long count = 0;
+        for (Object result : results)
+        {
+            if (result instanceof Number)
+            {
+                count += ((Number) result).longValue();
+            }
+        }
+        return count;
+    }
+
+    /**
+     * 按匹配模式删除键，边SCAN边UNLINK，不一次性加载全部键
+     *
+     * @param pattern 匹配模式
+     * @return 删除的数量
+     */
+    public long deleteByPattern(final String pattern)
+    {
+        long[] count = { 0 };
+        scanBatch(pattern, SCAN_BATCH_SIZE, keys -> count[0] += unlink(keys));
+        return count[0];
     }
 }
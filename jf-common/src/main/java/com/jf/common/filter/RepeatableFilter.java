@@ -1,6 +1,8 @@
 package com.jf.common.filter;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
 import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.FilterConfig;
@@ -18,21 +20,52 @@ import com.jf.common.utils.StringUtils;
  */
 public class RepeatableFilter implements Filter
 {
+    /**
+     * 默认缓存请求体最大长度（1MB）
+     */
+    public static final int DEFAULT_MAX_BODY_SIZE = 1024 * 1024;
+
+    /**
+     * 缓存请求体最大长度
+     */
+    private int maxBodySize = DEFAULT_MAX_BODY_SIZE;
+
+    /**
+     * 排除链接（不需要重复读取请求体）
+     */
+    public List<String> excludes = new ArrayList<>();
+
     @Override
     public void init(FilterConfig filterConfig) throws ServletException
     {
-
+        String tempMaxBodySize = filterConfig.getInitParameter("maxBodySize");
+        if (StringUtils.isNotEmpty(tempMaxBodySize))
+        {
+            maxBodySize = Integer.parseInt(tempMaxBodySize.trim());
+        }
+        String tempExcludes = filterConfig.getInitParameter("excludes");
+        if (StringUtils.isNotEmpty(tempExcludes))
+        {
+            for (String url : tempExcludes.split(","))
+            {
+                excludes.add(url.trim());
+            }
+        }
     }
 
     @Override
     public void doFilter(ServletRequest request, ServletResponse response, FilterChain chain)
             throws IOException, ServletException
     {
-        ServletRequest requestWrapper = null;
+        RepeatedlyRequestWrapper requestWrapper = null;
+        // 分块传输（长度未知）的请求不缓存，避免无上限地读入内存
+        long contentLength = request.getContentLengthLong();
         if (request instanceof HttpServletRequest
-                && StringUtils.startsWithIgnoreCase(request.getContentType(), MediaType.APPLICATION_JSON_VALUE))
+                && StringUtils.startsWithIgnoreCase(request.getContentType(), MediaType.APPLICATION_JSON_VALUE)
+                && contentLength >= 0 && contentLength <= maxBodySize
+                && !StringUtils.matches(((HttpServletRequest) request).getServletPath(), excludes))
         {
-            requestWrapper = new RepeatedlyRequestWrapper((HttpServletRequest) request, response);
+            requestWrapper = new RepeatedlyRequestWrapper((HttpServletRequest) request, response, maxBodySize);
         }
         if (null == requestWrapper)
         {
@@ -40,7 +73,14 @@ public class RepeatableFilter implements Filter
         }
         else
         {
-            chain.doFilter(requestWrapper, response);
+            try
+            {
+                chain.doFilter(requestWrapper, response);
+            }
+            finally
+            {
+                requestWrapper.release();
+            }
         }
     }
 
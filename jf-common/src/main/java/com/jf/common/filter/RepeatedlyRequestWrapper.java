@@ -1,15 +1,15 @@
 package com.jf.common.filter;
 
 import java.io.BufferedReader;
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import jakarta.servlet.ReadListener;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import jakarta.servlet.ServletInputStream;
 import jakarta.servlet.ServletResponse;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletRequestWrapper;
-import com.jf.common.utils.http.HttpHelper;
+import org.springframework.web.util.WebUtils;
 import com.jf.common.constant.Constants;
 
 /**
@@ -19,58 +19,74 @@ import com.jf.common.constant.Constants;
  */
 public class RepeatedlyRequestWrapper extends HttpServletRequestWrapper
 {
-    private final byte[] body;
+    private final RequestBodyCache body;
 
     public RepeatedlyRequestWrapper(HttpServletRequest request, ServletResponse response) throws IOException
+    {
+        this(request, response, RepeatableFilter.DEFAULT_MAX_BODY_SIZE);
+    }
+
+    public RepeatedlyRequestWrapper(HttpServletRequest request, ServletResponse response, int maxBodySize) throws IOException
     {
         super(request);
         request.setCharacterEncoding(Constants.UTF8);
         response.setCharacterEncoding(Constants.UTF8);
 
-        body = HttpHelper.getBodyString(request).getBytes(Constants.UTF8);
+        XssHttpServletRequestWrapper xssRequest = WebUtils.getNativeRequest(request, XssHttpServletRequestWrapper.class);
+        if (xssRequest != null)
+        {
+            // 复用XSS过滤后的请求体，避免再次复制（读取时同样受长度限制）
+            body = RequestBodyCache.wrap(xssRequest.getCleanBody(maxBodySize));
+        }
+        else
+        {
+            body = RequestBodyCache.read(request.getInputStream(), maxBodySize);
+        }
     }
 
-    @Override
-    public BufferedReader getReader() throws IOException
+    /**
+     * 请求体是否已完整缓存（超出长度限制时只能读取一次）
+     */
+    public boolean isCached()
     {
-        return new BufferedReader(new InputStreamReader(getInputStream()));
+        return body.isComplete();
     }
 
-    @Override
-    public ServletInputStream getInputStream() throws IOException
+    /**
+     * 请求体是否为空
+     */
+    public boolean isEmptyBody()
     {
-        final ByteArrayInputStream bais = new ByteArrayInputStream(body);
-        return new ServletInputStream()
-        {
-            @Override
-            public int read() throws IOException
-            {
-                return bais.read();
-            }
-
-            @Override
-            public int available() throws IOException
-            {
-                return body.length;
-            }
+        return body.length() == 0;
+    }
 
-            @Override
-            public boolean isFinished()
-            {
-                return false;
-            }
+    /**
+     * 将请求体原始字节写入摘要，避免转换为字符串（未完整缓存时只包含已缓存部分）
+     *
+     * @param digest 消息摘要
+     */
+    public void updateDigest(MessageDigest digest)
+    {
+        body.updateDigest(digest);
+    }
 
-            @Override
-            public boolean isReady()
-            {
-                return false;
-            }
+    /**
+     * 释放缓存的请求体；异步请求在请求线程返回后仍可能读取请求体，此时不归还缓冲块
+     */
+    public void release()
+    {
+        body.release(!isAsyncStarted());
+    }
 
-            @Override
-            public void setReadListener(ReadListener readListener)
-            {
+    @Override
+    public BufferedReader getReader() throws IOException
+    {
+        return new BufferedReader(new InputStreamReader(getInputStream(), StandardCharsets.UTF_8));
+    }
 
-            }
-        };
+    @Override
+    public ServletInputStream getInputStream() throws IOException
+    {
+        return body.newInputStream();
     }
 }
@@ -0,0 +1,368 @@
+package com.jf.common.filter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PushbackInputStream;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletInputStream;
+
+/**
+ * 请求体缓存，一次读取到池化的字节块中，可多次重放
+ *
+ * @author jf
+ */
+public class RequestBodyCache
+{
+    /** 单个缓冲块大小 */
+    private static final int CHUNK_SIZE = 8192;
+
+    /** 池中最多保留的空闲缓冲块数量 */
+    private static final int MAX_POOLED_CHUNKS = 512;
+
+    private static final Queue<byte[]> POOL = new ConcurrentLinkedQueue<>();
+
+    private static final AtomicInteger POOLED = new AtomicInteger();
+
+    private List<byte[]> chunks;
+
+    /** 缓冲块是否已归还到池中，归还后已创建的输入流不能再读取 */
+    private volatile boolean recycled;
+
+    private final int length;
+
+    private final int chunkSize;
+
+    private final boolean pooled;
+
+    /** 超出长度限制时未读取的剩余输入流 */
+    private InputStream remaining;
+
+    private RequestBodyCache(List<byte[]> chunks, int length, int chunkSize, boolean pooled, InputStream remaining)
+    {
+        this.chunks = chunks;
+        this.length = length;
+        this.chunkSize = chunkSize;
+        this.pooled = pooled;
+        this.remaining = remaining;
+    }
+
+    /**
+     * 从输入流读取请求体，超过最大长度时停止缓存
+     *
+     * @param in 输入流
+     * @param maxSize 最大缓存长度（字节）
+     * @return 请求体缓存
+     */
+    public static RequestBodyCache read(InputStream in, int maxSize) throws IOException
+    {
+        List<byte[]> chunks = new ArrayList<>();
+        int length = 0;
+        try
+        {
+            while (true)
+            {
+                byte[] chunk = acquire();
+                chunks.add(chunk);
+                int pos = 0;
+                int n;
+                while (pos < CHUNK_SIZE && (n = in.read(chunk, pos, CHUNK_SIZE - pos)) != -1)
+                {
+                    pos += n;
+                }
+                length += pos;
+                if (pos < CHUNK_SIZE)
+                {
+                    return new RequestBodyCache(chunks, length, CHUNK_SIZE, true, null);
+                }
+                if (length >= maxSize)
+                {
+                    // 恰好读满限制长度时预读一个字节，已到流末尾则视为完整缓存
+                    int next = in.read();
+                    if (next == -1)
+                    {
+                        return new RequestBodyCache(chunks, length, CHUNK_SIZE, true, null);
+                    }
+                    PushbackInputStream rest = new PushbackInputStream(in, 1);
+                    rest.unread(next);
+                    return new RequestBodyCache(chunks, length, CHUNK_SIZE, true, rest);
+                }
+            }
+        }
+        catch (IOException e)
+        {
+            chunks.forEach(RequestBodyCache::recycle);
+            throw e;
+        }
+    }
+
+    /**
+     * 直接包装已有的字节数组，不使用缓冲池
+     *
+     * @param bytes 请求体
+     * @return 请求体缓存
+     */
+    public static RequestBodyCache wrap(byte[] bytes)
+    {
+        return new RequestBodyCache(Collections.singletonList(bytes), bytes.length, Math.max(bytes.length, 1), false, null);
+    }
+
+    /**
+     * 请求体是否已完整缓存（可重复读取）
+     */
+    public boolean isComplete()
+    {
+        return remaining == null;
+    }
+
+    /**
+     * 已缓存的字节数
+     */
+    public int length()
+    {
+        return length;
+    }
+
+    /**
+     * 复制已缓存的字节
+     */
+    public byte[] toByteArray()
+    {
+        byte[] bytes = new byte[length];
+        int pos = 0;
+        for (byte[] chunk : chunks)
+        {
+            int len = Math.min(length - pos, chunk.length);
+            System.arraycopy(chunk, 0, bytes, pos, len);
+            pos += len;
+        }
+        return bytes;
+    }
+
+    /**
+     * 将缓存的字节写入摘要
+     *
+     * @param digest 消息摘要
+     */
+    public void updateDigest(MessageDigest digest)
+    {
+        int left = length;
+        for (byte[] chunk : chunks)
+        {
+            int len = Math.min(left, chunk.length);
+            digest.update(chunk, 0, len);
+            left -= len;
+        }
+    }
+
+    /**
+     * 获取读取缓存内容的输入流；未完整缓存时在缓存内容之后衔接剩余的原始流，只能读取一次
+     */
+    public ServletInputStream newInputStream()
+    {
+        InputStream tail = remaining;
+        if (tail != null)
+        {
+            remaining = EmptyInputStream.INSTANCE;
+        }
+        return new ChunkInputStream(this, List.copyOf(chunks), length, chunkSize, tail);
+    }
+
+    /**
+     * 归还缓冲块到池中，请求结束后调用；之后已创建的输入流再读取会抛出异常
+     */
+    public void release()
+    {
+        release(true);
+    }
+
+    /**
+     * 释放缓存
+     *
+     * @param recycle 是否归还缓冲块到池中（异步请求仍可能持有输入流时不归还）
+     */
+    public void release(boolean recycle)
+    {
+        if (pooled && recycle && !recycled)
+        {
+            List<byte[]> list = chunks;
+            chunks = Collections.emptyList();
+            recycled = true;
+            list.forEach(RequestBodyCache::recycle);
+        }
+    }
+
+    private static byte[] acquire()
+    {
+        byte[] chunk = POOL.poll();
+        if (chunk == null)
+        {
+            return new byte[CHUNK_SIZE];
+        }
+        POOLED.decrementAndGet();
+        return chunk;
+    }
+
+    private static void recycle(byte[] chunk)
+    {
+        if (POOLED.incrementAndGet() <= MAX_POOLED_CHUNKS)
+        {
+            POOL.offer(chunk);
+        }
+        else
+        {
+            POOLED.decrementAndGet();
+        }
+    }
+
+    /**
+     * 按块批量读取的输入流
+     */
+    private static class ChunkInputStream extends ServletInputStream
+    {
+        private final RequestBodyCache owner;
+
+        private final List<byte[]> chunks;
+
+        private final int length;
+
+        private final int chunkSize;
+
+        private final InputStream tail;
+
+        private int position;
+
+        private boolean tailFinished;
+
+        ChunkInputStream(RequestBodyCache owner, List<byte[]> chunks, int length, int chunkSize, InputStream tail)
+        {
+            this.owner = owner;
+            this.chunks = chunks;
+            this.length = length;
+            this.chunkSize = chunkSize;
+            this.tail = tail;
+            this.tailFinished = tail == null;
+        }
+
+        @Override
+        public int read() throws IOException
+        {
+            checkReleased();
+            if (position < length)
+            {
+                byte b = chunks.get(position / chunkSize)[position % chunkSize];
+                position++;
+                return b & 0xff;
+            }
+            return readTail(null, 0, 1);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException
+        {
+            checkReleased();
+            if (len == 0)
+            {
+                return 0;
+            }
+            if (position >= length)
+            {
+                return readTail(b, off, len);
+            }
+            int total = 0;
+            while (total < len && position < length)
+            {
+                byte[] chunk = chunks.get(position / chunkSize);
+                int offset = position % chunkSize;
+                int n = Math.min(Math.min(len - total, chunk.length - offset), length - position);
+                System.arraycopy(chunk, offset, b, off + total, n);
+                position += n;
+                total += n;
+            }
+            return total;
+        }
+
+        private void checkReleased() throws IOException
+        {
+            // 缓冲块可能已被其他请求复用，禁止继续读取
+            if (owner.recycled)
+            {
+                throw new IOException("请求体缓存已释放");
+            }
+        }
+
+        private int readTail(byte[] b, int off, int len) throws IOException
+        {
+            if (tailFinished)
+            {
+                return -1;
+            }
+            int n = b == null ? tail.read() : tail.read(b, off, len);
+            if (n == -1)
+            {
+                tailFinished = true;
+            }
+            return n;
+        }
+
+        @Override
+        public int available() throws IOException
+        {
+            int left = length - position;
+            return tailFinished ? left : left + tail.available();
+        }
+
+        @Override
+        public boolean isFinished()
+        {
+            return position >= length && tailFinished;
+        }
+
+        @Override
+        public boolean isReady()
+        {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener)
+        {
+            // 数据已全部在内存中，始终可读
+            try
+            {
+                if (!isFinished())
+                {
+                    readListener.onDataAvailable();
+                }
+                if (isFinished())
+                {
+                    readListener.onAllDataRead();
+                }
+            }
+            catch (IOException e)
+            {
+                readListener.onError(e);
+            }
+        }
+    }
+
+    /**
+     * 剩余流被消费后的占位流
+     */
+    private static class EmptyInputStream extends InputStream
+    {
+        static final EmptyInputStream INSTANCE = new EmptyInputStream();
+
+        @Override
+        public int read()
+        {
+            return -1;
+        }
+    }
+}
@@ -1,8 +1,6 @@
 package com.jf.common.filter;
 
-import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import jakarta.servlet.ReadListener;
 import jakarta.servlet.ServletInputStream;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletRequestWrapper;
@@ -11,6 +9,7 @@ import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import com.jf.common.utils.StringUtils;
 import com.jf.common.utils.html.EscapeUtil;
+import com.jf.common.utils.html.HTMLSanitizer;
 
 /**
  * XSS过滤处理
@@ -19,6 +18,11 @@ import com.jf.common.utils.html.EscapeUtil;
  */
 public class XssHttpServletRequestWrapper extends HttpServletRequestWrapper
 {
+    /**
+     * 过滤后的json请求体，首次读取时生成
+     */
+    private byte[] cleanBody;
+
     /**
      * @param request
      */
@@ -53,49 +57,45 @@ public class XssHttpServletRequestWrapper extends HttpServletRequestWrapper
         {
             return super.getInputStream();
         }
+        return RequestBodyCache.wrap(getCleanBody()).newInputStream();
+    }
 
-        // 为空，直接返回
-        String json = IOUtils.toString(super.getInputStream(), "utf-8");
-        if (StringUtils.isEmpty(json))
+    /**
+     * 获取xss过滤后的json请求体，只读取和过滤一次（只过滤字符串值）
+     */
+    public byte[] getCleanBody() throws IOException
+    {
+        if (cleanBody == null)
         {
-            return super.getInputStream();
+            cleanBody = HTMLSanitizer.cleanJson(IOUtils.toByteArray(super.getInputStream()));
         }
+        return cleanBody;
+    }
 
-        // xss过滤
-        json = EscapeUtil.clean(json).trim();
-        byte[] jsonBytes = json.getBytes("utf-8");
-        final ByteArrayInputStream bis = new ByteArrayInputStream(jsonBytes);
-        return new ServletInputStream()
+    /**
+     * 获取xss过滤后的json请求体，原始请求体超过最大长度时抛出异常
+     *
+     * @param maxSize 最大长度（字节）
+     */
+    public byte[] getCleanBody(int maxSize) throws IOException
+    {
+        if (cleanBody == null)
         {
-            @Override
-            public boolean isFinished()
+            RequestBodyCache raw = RequestBodyCache.read(super.getInputStream(), maxSize);
+            try
             {
-                return true;
+                if (!raw.isComplete())
+                {
+                    throw new IOException("请求体超出长度限制：" + maxSize);
+                }
+                cleanBody = HTMLSanitizer.cleanJson(raw.toByteArray());
             }
-
-            @Override
-            public boolean isReady()
-            {
-                return true;
-            }
-
-            @Override
-            public int available() throws IOException
+            finally
             {
-                return jsonBytes.length;
+                raw.release();
             }
-
-            @Override
-            public void setReadListener(ReadListener readListener)
-            {
-            }
-
-            @Override
-            public int read() throws IOException
-            {
-                return bis.read();
-            }
-        };
+        }
+        return cleanBody;
     }
 
     /**
@@ -108,4 +108,4 @@ public class XssHttpServletRequestWrapper extends HttpServletRequestWrapper
         String header = super.getHeader(HttpHeaders.CONTENT_TYPE);
         return StringUtils.startsWithIgnoreCase(header, MediaType.APPLICATION_JSON_VALUE);
     }
-}
\ No newline at end of file
+}
@@ -1,11 +1,9 @@
 package com.jf.common.utils;
 
-import java.util.Collection;
-import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import com.alibaba.fastjson2.JSONArray;
 import com.jf.common.constant.CacheConstants;
+import com.jf.common.core.cache.DictCache;
 import com.jf.common.core.domain.entity.SysDictData;
 import com.jf.common.core.redis.RedisCache;
 import com.jf.common.utils.spring.SpringUtils;
@@ -31,6 +29,7 @@ public class DictUtils
     public static void setDictCache(String key, List<SysDictData> dictDatas)
     {
         SpringUtils.getBean(RedisCache.class).setCacheObject(getCacheKey(key), dictDatas);
+        SpringUtils.getBean(DictCache.class).evict(key);
     }
 
     /**
@@ -41,12 +40,7 @@ public class DictUtils
      */
     public static List<SysDictData> getDictCache(String key)
     {
-        JSONArray arrayCache = SpringUtils.getBean(RedisCache.class).getCacheObject(getCacheKey(key));
-        if (StringUtils.isNotNull(arrayCache))
-        {
-            return arrayCache.toList(SysDictData.class);
-        }
-        return null;
+        return SpringUtils.getBean(DictCache.class).get(key).getDatas();
     }
 
     /**
@@ -91,12 +85,12 @@ public class DictUtils
      */
     public static String getDictLabel(String dictType, String dictValue, String separator)
     {
-        List<SysDictData> datas = getDictCache(dictType);
-        if (StringUtils.isNull(datas) || StringUtils.isEmpty(dictValue))
+        DictCache.Snapshot snapshot = SpringUtils.getBean(DictCache.class).get(dictType);
+        if (snapshot.isEmpty() || StringUtils.isEmpty(dictValue))
         {
             return StringUtils.EMPTY;
         }
-        Map<String, String> dictMap = datas.stream().collect(HashMap::new, (map, dict) -> map.put(dict.getDictValue(), dict.getDictLabel()), Map::putAll);
+        Map<String, String> dictMap = snapshot.getLabelMap();
         if (!StringUtils.contains(dictValue, separator))
         {
             return dictMap.getOrDefault(dictValue, StringUtils.EMPTY);
@@ -122,12 +116,12 @@ public class DictUtils
      */
     public static String getDictValue(String dictType, String dictLabel, String separator)
     {
-        List<SysDictData> datas = getDictCache(dictType);
-        if (StringUtils.isNull(datas) || StringUtils.isEmpty(dictLabel))
+        DictCache.Snapshot snapshot = SpringUtils.getBean(DictCache.class).get(dictType);
+        if (snapshot.isEmpty() || StringUtils.isEmpty(dictLabel))
         {
             return StringUtils.EMPTY;
         }
-        Map<String, String> dictMap = datas.stream().collect(HashMap::new, (map, dict) -> map.put(dict.getDictLabel(), dict.getDictValue()), Map::putAll);
+        Map<String, String> dictMap = snapshot.getValueMap();
         if (!StringUtils.contains(dictLabel, separator))
         {
             return dictMap.getOrDefault(dictLabel, StringUtils.EMPTY);
@@ -193,6 +187,7 @@ public class DictUtils
     public static void removeDictCache(String key)
     {
         SpringUtils.getBean(RedisCache.class).deleteObject(getCacheKey(key));
+        SpringUtils.getBean(DictCache.class).evict(key);
     }
 
     /**
@@ -200,8 +195,8 @@ public class DictUtils
      */
     public static void clearDictCache()
     {
-        Collection<String> keys = SpringUtils.getBean(RedisCache.class).keys(CacheConstants.SYS_DICT_KEY + "*");
-        SpringUtils.getBean(RedisCache.class).deleteObject(keys);
+        SpringUtils.getBean(RedisCache.class).deleteByPattern(CacheConstants.SYS_DICT_KEY + "*");
+        SpringUtils.getBean(DictCache.class).evictAll();
     }
 
     /**
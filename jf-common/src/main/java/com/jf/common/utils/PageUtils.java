@@ -1,8 +1,12 @@
 package com.jf.common.utils;
 
+import java.util.Date;
+import java.util.Map;
 import com.github.pagehelper.PageHelper;
+import com.jf.common.core.domain.BaseEntity;
 import com.jf.common.core.page.PageDomain;
 import com.jf.common.core.page.TableSupport;
+import com.jf.common.exception.ServiceException;
 import com.jf.common.utils.sql.SqlUtil;
 
 /**
@@ -25,6 +29,32 @@ public class PageUtils extends PageHelper
         PageHelper.startPage(pageNum, pageSize, orderBy).setReasonable(reasonable);
     }
 
+    /**
+     * 设置游标分页数据，从上一页最后一条记录之后取pageSize条，不执行count
+     *
+     * @param entity 查询条件，写入params.seek及游标params.cursorTime、params.cursorId
+     */
+    public static void startSeekPage(BaseEntity entity)
+    {
+        PageDomain pageDomain = TableSupport.buildPageRequest();
+        Map<String, Object> params = entity.getParams();
+        params.put(TableSupport.SEEK, true);
+        Long cursorId = pageDomain.getCursorId();
+        String cursorTime = pageDomain.getCursorTime();
+        if (StringUtils.isNotNull(cursorId) || StringUtils.isNotEmpty(cursorTime))
+        {
+            // 游标两项需同时传入且时间可解析，否则比较NULL会静默返回空页
+            Date time = DateUtils.parseDate(cursorTime);
+            if (StringUtils.isNull(cursorId) || StringUtils.isNull(time))
+            {
+                throw new ServiceException("游标分页参数cursorTime、cursorId无效");
+            }
+            params.put(TableSupport.CURSOR_TIME, time);
+            params.put(TableSupport.CURSOR_ID, cursorId);
+        }
+        PageHelper.startPage(1, pageDomain.getPageSize(), false);
+    }
+
     /**
      * 清理分页的线程变量
      */
@@ -1,14 +1,17 @@
 package com.jf.common.utils.file;
 
 import java.io.File;
-import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
 import java.net.URLEncoder;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.apache.commons.io.FilenameUtils;
@@ -38,7 +41,7 @@ public class FileUtils
      */
     public static void writeBytes(String filePath, OutputStream os) throws IOException
     {
-        FileInputStream fis = null;
+        FileChannel channel = null;
         try
         {
             File file = new File(filePath);
@@ -46,12 +49,19 @@ public class FileUtils
             {
                 throw new FileNotFoundException(filePath);
             }
-            fis = new FileInputStream(file);
-            byte[] b = new byte[1024];
-            int length;
-            while ((length = fis.read(b)) > 0)
+            channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+            WritableByteChannel target = Channels.newChannel(os);
+            long position = 0;
+            long size = channel.size();
+            while (position < size)
             {
-                os.write(b, 0, length);
+                long n = channel.transferTo(position, size - position, target);
+                // 文件被截断或目标通道无进展时结束，避免空转
+                if (n <= 0)
+                {
+                    break;
+                }
+                position += n;
             }
         }
         catch (IOException e)
@@ -61,7 +71,7 @@ public class FileUtils
         finally
         {
             IOUtils.close(os);
-            IOUtils.close(fis);
+            IOUtils.close(channel);
         }
     }
 
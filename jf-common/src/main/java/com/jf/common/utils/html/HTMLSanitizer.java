@@ -0,0 +1,702 @@
+package com.jf.common.utils.html;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 单遍扫描的HTML过滤器，白名单规则与 {@link HTMLFilter} 默认配置一致。
+ *
+ * 不依赖正则，按状态逐字符处理标签、游离尖括号和注释；
+ * 不含尖括号的文本直接原样返回。JSON请求体只过滤字符串值，不处理键和结构字符。
+ *
+ * @author jf
+ */
+public final class HTMLSanitizer
+{
+    /**
+     * 允许的标签及其允许的属性
+     */
+    private static final Map<String, List<String>> ALLOWED = new HashMap<>();
+
+    /**
+     * 必须自闭合的标签，其余允许的标签均需要成对闭合
+     */
+    private static final String SELF_CLOSING_TAG = "img";
+
+    /**
+     * 内容为空时需要移除的标签（顺序与HTMLFilter一致）
+     */
+    private static final String[] REMOVE_BLANKS = { "a", "b", "strong", "i", "em" };
+
+    /**
+     * 需要校验协议的属性
+     */
+    private static final List<String> PROTOCOL_ATTS = Arrays.asList("src", "href");
+
+    /**
+     * 允许的协议
+     */
+    private static final List<String> ALLOWED_PROTOCOLS = Arrays.asList("http", "mailto", "https");
+
+    /**
+     * 允许的实体
+     */
+    private static final List<String> ALLOWED_ENTITIES = Arrays.asList("amp", "gt", "lt", "quot");
+
+    /**
+     * 原始文本中属性值的引号（兼容直接过滤JSON文本的写法）
+     */
+    private static final String ESCAPED_QUOTE = "\\\"";
+
+    private static final String PLAIN_QUOTE = "\"";
+
+    static
+    {
+        ALLOWED.put("a", Arrays.asList("href", "target"));
+        ALLOWED.put("img", Arrays.asList("src", "width", "height", "alt"));
+        ALLOWED.put("b", Collections.emptyList());
+        ALLOWED.put("strong", Collections.emptyList());
+        ALLOWED.put("i", Collections.emptyList());
+        ALLOWED.put("em", Collections.emptyList());
+    }
+
+    private HTMLSanitizer()
+    {
+    }
+
+    /**
+     * 过滤文本中的非法html，结果与 {@code new HTMLFilter().filter(input)} 相同
+     *
+     * @param input 文本
+     * @return 过滤后的文本
+     */
+    public static String clean(final String input)
+    {
+        return sanitize(input, ESCAPED_QUOTE);
+    }
+
+    /**
+     * 过滤UTF-8编码的JSON中所有字符串值，键和结构保持不变
+     *
+     * @param json JSON字节
+     * @return 过滤后的JSON字节，无需修改时返回原数组
+     */
+    public static byte[] cleanJson(final byte[] json)
+    {
+        ByteArrayOutputStream out = null;
+        int last = 0;
+        int len = json.length;
+        int i = 0;
+        while (i < len)
+        {
+            if (json[i] != '"')
+            {
+                i++;
+                continue;
+            }
+            // 字符串token [i, end]
+            boolean markup = false;
+            boolean escaped = false;
+            int end = i + 1;
+            while (end < len && json[end] != '"')
+            {
+                byte b = json[end];
+                if (b == '\\')
+                {
+                    escaped = true;
+                    end++;
+                }
+                else if (b == '<' || b == '>')
+                {
+                    markup = true;
+                }
+                end++;
+            }
+            if (end >= len)
+            {
+                // 非法JSON，退回整体文本过滤
+                return clean(new String(json, StandardCharsets.UTF_8)).getBytes(StandardCharsets.UTF_8);
+            }
+            if ((markup || escaped) && !isObjectKey(json, end + 1))
+            {
+                String value = escaped ? unescapeJson(json, i + 1, end) : new String(json, i + 1, end - i - 1, StandardCharsets.UTF_8);
+                String clean = sanitize(value, PLAIN_QUOTE);
+                if (!clean.equals(value))
+                {
+                    if (out == null)
+                    {
+                        out = new ByteArrayOutputStream(len + 64);
+                    }
+                    out.write(json, last, i - last);
+                    out.writeBytes(escapeJson(clean).getBytes(StandardCharsets.UTF_8));
+                    last = end + 1;
+                }
+            }
+            i = end + 1;
+        }
+        if (out == null)
+        {
+            return json;
+        }
+        out.write(json, last, len - last);
+        return out.toByteArray();
+    }
+
+    private static String sanitize(final String s, final String quote)
+    {
+        if (s.indexOf('<') < 0 && s.indexOf('>') < 0)
+        {
+            return s;
+        }
+        int len = s.length();
+        int commentStart = s.indexOf("<!--");
+        int commentEnd = commentStart < 0 ? -1 : s.indexOf("-->", commentStart + 4);
+        StringBuilder out = new StringBuilder(len + 16);
+        Map<String, Integer> tagCounts = new HashMap<>();
+        boolean hasTag = false;
+        // 与HTMLFilter一致：以 ">" 开头时，其后第一个游离的 ">" 保留原样
+        boolean keepStray = s.charAt(0) == '>';
+        int i = 0;
+        while (i < len)
+        {
+            char c = s.charAt(i);
+            if (c == '<')
+            {
+                if (i == commentStart && commentEnd >= 0)
+                {
+                    // 注释整体移除
+                    i = commentEnd + 3;
+                    keepStray = false;
+                    continue;
+                }
+                int j = nextBracket(s, i + 1);
+                if (j < len && s.charAt(j) == '>')
+                {
+                    keepStray = false;
+                    if (j > i + 1)
+                    {
+                        hasTag |= processTag(s, i + 1, j, quote, tagCounts, out);
+                    }
+                    i = j + 1;
+                }
+                else
+                {
+                    // 游离的左尖括号
+                    out.append("&lt;").append(s, i + 1, j);
+                    i = j;
+                }
+            }
+            else if (c == '>')
+            {
+                // 游离的右尖括号
+                if (keepStray && i > 0)
+                {
+                    out.append('>');
+                    keepStray = false;
+                }
+                else
+                {
+                    out.append("&gt;");
+                }
+                i++;
+            }
+            else
+            {
+                int j = nextBracket(s, i + 1);
+                out.append(s, i, j);
+                i = j;
+            }
+        }
+        for (Map.Entry<String, Integer> entry : tagCounts.entrySet())
+        {
+            for (int n = 0; n < entry.getValue(); n++)
+            {
+                out.append("</").append(entry.getKey()).append('>');
+            }
+        }
+        String result = out.toString();
+        if (hasTag)
+        {
+            for (String tag : REMOVE_BLANKS)
+            {
+                result = removeBlanks(result, tag, false);
+                result = removeBlanks(result, tag, true);
+            }
+        }
+        return result;
+    }
+
+    private static int nextBracket(final String s, int i)
+    {
+        int len = s.length();
+        while (i < len)
+        {
+            char c = s.charAt(i);
+            if (c == '<' || c == '>')
+            {
+                return i;
+            }
+            i++;
+        }
+        return len;
+    }
+
+    /**
+     * 处理标签内容 s[from, to)，允许的标签写入out
+     *
+     * @return 是否写入了标签
+     */
+    private static boolean processTag(final String s, final int from, final int to, final String quote,
+            final Map<String, Integer> tagCounts, final StringBuilder out)
+    {
+        // 结束标签
+        if (s.charAt(from) == '/')
+        {
+            int e = alnumEnd(s, from + 1, to);
+            if (e > from + 1)
+            {
+                String name = s.substring(from + 1, e).toLowerCase();
+                if (ALLOWED.containsKey(name) && !SELF_CLOSING_TAG.equals(name) && tagCounts.containsKey(name))
+                {
+                    tagCounts.put(name, tagCounts.get(name) - 1);
+                    out.append("</").append(name).append('>');
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // 开始标签，其余（含注释）全部丢弃
+        int e = alnumEnd(s, from, to);
+        if (e == from)
+        {
+            return false;
+        }
+        String name = s.substring(from, e).toLowerCase();
+        List<String> allowedAtts = ALLOWED.get(name);
+        if (allowedAtts == null)
+        {
+            return false;
+        }
+        int bodyEnd = bodyEnd(s, from, e, to);
+        out.append('<').append(name);
+        appendQuotedAttributes(s, e, bodyEnd, allowedAtts, quote, out);
+        appendUnquotedAttributes(s, e, bodyEnd, allowedAtts, quote, out);
+        if (SELF_CLOSING_TAG.equals(name))
+        {
+            out.append(" />");
+        }
+        else
+        {
+            tagCounts.put(name, tagCounts.containsKey(name) ? tagCounts.get(name) + 1 : 1);
+            out.append('>');
+        }
+        return true;
+    }
+
+    /**
+     * 标签属性部分的结束位置：去掉末尾的 "/" 和行结束符
+     */
+    private static int bodyEnd(final String s, final int from, final int e, final int to)
+    {
+        for (int p = Math.max(e, to - 3); p < to; p++)
+        {
+            if (isLineEnd(s, from, to, p) || (s.charAt(p) == '/' && isLineEnd(s, from, to, p + 1)))
+            {
+                return p;
+            }
+        }
+        return to;
+    }
+
+    /**
+     * 位置p是否满足正则中的 "$"（文本结尾或最后一个行结束符之前）
+     */
+    private static boolean isLineEnd(final String s, final int from, final int to, final int p)
+    {
+        if (p == to)
+        {
+            return true;
+        }
+        if (p == to - 2)
+        {
+            return s.charAt(p) == '\r' && s.charAt(p + 1) == '\n';
+        }
+        if (p == to - 1)
+        {
+            char c = s.charAt(p);
+            if (c == '\n')
+            {
+                return p == from || s.charAt(p - 1) != '\r';
+            }
+            return c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+        }
+        return false;
+    }
+
+    /**
+     * name="value" 或 name='value' 形式的属性
+     */
+    private static void appendQuotedAttributes(final String s, int p, final int end, final List<String> allowedAtts,
+            final String quote, final StringBuilder out)
+    {
+        while (p < end)
+        {
+            if (!isAlnum(s.charAt(p)))
+            {
+                p++;
+                continue;
+            }
+            int q = alnumEnd(s, p, end);
+            if (q + 1 < end && s.charAt(q) == '=' && (s.charAt(q + 1) == '"' || s.charAt(q + 1) == '\''))
+            {
+                int close = s.indexOf(s.charAt(q + 1), q + 2);
+                if (close >= 0 && close < end)
+                {
+                    appendAttribute(s.substring(p, q), s.substring(q + 2, close), allowedAtts, quote, out);
+                    p = close + 1;
+                    continue;
+                }
+            }
+            p = q;
+        }
+    }
+
+    /**
+     * name=value 形式的属性
+     */
+    private static void appendUnquotedAttributes(final String s, int p, final int end, final List<String> allowedAtts,
+            final String quote, final StringBuilder out)
+    {
+        while (p < end)
+        {
+            if (!isAlnum(s.charAt(p)))
+            {
+                p++;
+                continue;
+            }
+            int q = alnumEnd(s, p, end);
+            if (q + 1 < end && s.charAt(q) == '=' && isUnquotedValue(s.charAt(q + 1)))
+            {
+                int v = q + 2;
+                while (v < end && isUnquotedValue(s.charAt(v)))
+                {
+                    v++;
+                }
+                appendAttribute(s.substring(p, q), s.substring(q + 1, v), allowedAtts, quote, out);
+                p = v;
+                continue;
+            }
+            p = q;
+        }
+    }
+
+    private static void appendAttribute(final String rawName, String value, final List<String> allowedAtts,
+            final String quote, final StringBuilder out)
+    {
+        String name = rawName.toLowerCase();
+        if (allowedAtts.contains(name))
+        {
+            if (PROTOCOL_ATTS.contains(name))
+            {
+                value = processParamProtocol(value);
+            }
+            out.append(' ').append(name).append('=').append(quote).append(value).append(quote);
+        }
+    }
+
+    private static String processParamProtocol(String s)
+    {
+        s = decodeEntities(s);
+        int colon = s.indexOf(':');
+        if (colon > 0)
+        {
+            String protocol = s.substring(0, colon);
+            if (!ALLOWED_PROTOCOLS.contains(protocol))
+            {
+                // 不允许的协议，转为本地锚点
+                s = "#" + s.substring(colon + 1);
+                if (s.startsWith("#//"))
+                {
+                    s = "#" + s.substring(3);
+                }
+            }
+        }
+        return s;
+    }
+
+    /**
+     * 依次解码 &amp;#十进制; &amp;#x十六进制; %十六进制 后校验实体，顺序与HTMLFilter一致
+     */
+    private static String decodeEntities(String s)
+    {
+        s = decodeNumericEntities(s, "&#", 10, Integer.MAX_VALUE);
+        s = decodeNumericEntities(s, "&#x", 16, Integer.MAX_VALUE);
+        s = decodeNumericEntities(s, "%", 16, 2);
+        return validateEntities(s);
+    }
+
+    private static String decodeNumericEntities(final String s, final String prefix, final int radix, final int maxDigits)
+    {
+        if (s.indexOf(prefix) < 0)
+        {
+            return s;
+        }
+        int len = s.length();
+        int plen = prefix.length();
+        StringBuilder buf = new StringBuilder(len);
+        int i = 0;
+        while (i < len)
+        {
+            if (s.startsWith(prefix, i))
+            {
+                int j = i + plen;
+                while (j < len && j - i - plen < maxDigits && isDigit(s.charAt(j), radix))
+                {
+                    j++;
+                }
+                int digits = j - i - plen;
+                if (digits > 0 && (maxDigits == Integer.MAX_VALUE || digits == maxDigits))
+                {
+                    String number = s.substring(i + plen, j);
+                    int decimal = radix == 10 ? Integer.decode(number) : Integer.valueOf(number, 16);
+                    buf.append((char) decimal);
+                    if (j < len && s.charAt(j) == ';')
+                    {
+                        j++;
+                    }
+                    i = j;
+                    continue;
+                }
+            }
+            buf.append(s.charAt(i++));
+        }
+        return buf.toString();
+    }
+
+    private static String validateEntities(final String s)
+    {
+        int amp = s.indexOf('&');
+        if (amp < 0)
+        {
+            return s;
+        }
+        int len = s.length();
+        StringBuilder buf = new StringBuilder(len + 16);
+        buf.append(s, 0, amp);
+        int i = amp;
+        while (i < len)
+        {
+            char c = s.charAt(i);
+            if (c != '&')
+            {
+                buf.append(c);
+                i++;
+                continue;
+            }
+            int k = i + 1;
+            while (k < len && s.charAt(k) != '&' && s.charAt(k) != ';')
+            {
+                k++;
+            }
+            String entity = s.substring(i + 1, k);
+            boolean valid = k < len && s.charAt(k) == ';' && ALLOWED_ENTITIES.contains(entity);
+            buf.append(valid ? "&" : "&amp;").append(entity);
+            i = k;
+        }
+        return buf.toString();
+    }
+
+    /**
+     * 移除内容为空的标签，如 &lt;b&gt;&lt;/b&gt; 或 &lt;b /&gt;
+     */
+    private static String removeBlanks(final String s, final String tag, final boolean selfClosing)
+    {
+        String open = "<" + tag;
+        String close = "</" + tag + ">";
+        int idx = s.indexOf(open);
+        if (idx < 0)
+        {
+            return s;
+        }
+        int len = s.length();
+        StringBuilder buf = null;
+        int last = 0;
+        while (idx >= 0)
+        {
+            int j = idx + open.length();
+            int end = -1;
+            if (j < len)
+            {
+                char c = s.charAt(j);
+                if (selfClosing)
+                {
+                    if (c == '/' && j + 1 < len && s.charAt(j + 1) == '>')
+                    {
+                        end = j + 2;
+                    }
+                    else if (isSpace(c))
+                    {
+                        int k = s.indexOf('>', j + 1);
+                        if (k > j + 1 && s.charAt(k - 1) == '/')
+                        {
+                            end = k + 1;
+                        }
+                    }
+                }
+                else
+                {
+                    int k = c == '>' ? j : isSpace(c) ? s.indexOf('>', j + 1) : -1;
+                    if (k >= 0 && s.startsWith(close, k + 1))
+                    {
+                        end = k + 1 + close.length();
+                    }
+                }
+            }
+            if (end < 0)
+            {
+                idx = s.indexOf(open, idx + 1);
+                continue;
+            }
+            if (buf == null)
+            {
+                buf = new StringBuilder(len);
+            }
+            buf.append(s, last, idx);
+            last = end;
+            idx = s.indexOf(open, end);
+        }
+        if (buf == null)
+        {
+            return s;
+        }
+        buf.append(s, last, len);
+        return buf.toString();
+    }
+
+    /**
+     * 冒号前（跳过空白）是否为对象的键
+     */
+    private static boolean isObjectKey(final byte[] json, int i)
+    {
+        while (i < json.length && (json[i] == ' ' || json[i] == '\t' || json[i] == '\n' || json[i] == '\r'))
+        {
+            i++;
+        }
+        return i < json.length && json[i] == ':';
+    }
+
+    private static String unescapeJson(final byte[] json, final int from, final int to)
+    {
+        String raw = new String(json, from, to - from, StandardCharsets.UTF_8);
+        StringBuilder buf = new StringBuilder(raw.length());
+        int len = raw.length();
+        for (int i = 0; i < len; i++)
+        {
+            char c = raw.charAt(i);
+            if (c != '\\' || i + 1 >= len)
+            {
+                buf.append(c);
+                continue;
+            }
+            char n = raw.charAt(++i);
+            switch (n)
+            {
+                case 'b': buf.append('\b'); break;
+                case 'f': buf.append('\f'); break;
+                case 'n': buf.append('\n'); break;
+                case 'r': buf.append('\r'); break;
+                case 't': buf.append('\t'); break;
+                case 'u':
+                    if (i + 4 < len && isHex(raw, i + 1, i + 5))
+                    {
+                        buf.append((char) Integer.parseInt(raw.substring(i + 1, i + 5), 16));
+                        i += 4;
+                    }
+                    else
+                    {
+                        buf.append('\\').append(n);
+                    }
+                    break;
+                default: buf.append(n);
+            }
+        }
+        return buf.toString();
+    }
+
+    private static String escapeJson(final String s)
+    {
+        StringBuilder buf = new StringBuilder(s.length() + 16);
+        buf.append('"');
+        for (int i = 0; i < s.length(); i++)
+        {
+            char c = s.charAt(i);
+            switch (c)
+            {
+                case '"': buf.append("\\\""); break;
+                case '\\': buf.append("\\\\"); break;
+                case '\b': buf.append("\\b"); break;
+                case '\f': buf.append("\\f"); break;
+                case '\n': buf.append("\\n"); break;
+                case '\r': buf.append("\\r"); break;
+                case '\t': buf.append("\\t"); break;
+                default:
+                    if (c < 0x20)
+                    {
+                        buf.append(String.format("\\u%04x", (int) c));
+                    }
+                    else
+                    {
+                        buf.append(c);
+                    }
+            }
+        }
+        return buf.append('"').toString();
+    }
+
+    private static int alnumEnd(final String s, int i, final int end)
+    {
+        while (i < end && isAlnum(s.charAt(i)))
+        {
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isAlnum(final char c)
+    {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+
+    private static boolean isDigit(final char c, final int radix)
+    {
+        return (c >= '0' && c <= '9') || (radix == 16 && c >= 'a' && c <= 'f');
+    }
+
+    private static boolean isHex(final String s, int from, final int to)
+    {
+        for (; from < to; from++)
+        {
+            if (Character.digit(s.charAt(from), 16) < 0)
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isSpace(final char c)
+    {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isUnquotedValue(final char c)
+    {
+        return c != '"' && c != '\'' && !isSpace(c);
+    }
+}
@@ -5,28 +5,43 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Field;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.lang.reflect.ParameterizedType;
 import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
 import java.text.DecimalFormat;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Date;
+import java.util.Deque;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 import jakarta.servlet.http.HttpServletResponse;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.RegExUtils;
 import org.apache.commons.lang3.reflect.FieldUtils;
+import org.apache.ibatis.cursor.Cursor;
+import org.apache.ibatis.session.ResultHandler;
 import org.apache.poi.hssf.usermodel.HSSFClientAnchor;
 import org.apache.poi.hssf.usermodel.HSSFPicture;
 import org.apache.poi.hssf.usermodel.HSSFPictureData;
@@ -34,12 +49,17 @@ import org.apache.poi.hssf.usermodel.HSSFShape;
 import org.apache.poi.hssf.usermodel.HSSFSheet;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ooxml.POIXMLDocumentPart;
+import org.apache.poi.ooxml.util.SAXHelper;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.FileMagic;
 import org.apache.poi.ss.usermodel.BorderStyle;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.ClientAnchor;
 import org.apache.poi.ss.usermodel.DataFormat;
+import org.apache.poi.ss.usermodel.DataFormatter;
 import org.apache.poi.ss.usermodel.DataValidation;
 import org.apache.poi.ss.usermodel.DataValidationConstraint;
 import org.apache.poi.ss.usermodel.DataValidationHelper;
@@ -58,9 +78,15 @@ import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.usermodel.WorkbookFactory;
 import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.ss.util.CellRangeAddressList;
+import org.apache.poi.ss.util.CellReference;
 import org.apache.poi.util.IOUtils;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
 import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFClientAnchor;
+import org.apache.poi.xssf.usermodel.XSSFComment;
 import org.apache.poi.xssf.usermodel.XSSFDataValidation;
 import org.apache.poi.xssf.usermodel.XSSFDrawing;
 import org.apache.poi.xssf.usermodel.XSSFPicture;
@@ -70,6 +96,8 @@ import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.openxmlformats.schemas.drawingml.x2006.spreadsheetDrawing.CTMarker;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
 import com.jf.common.annotation.Excel;
 import com.jf.common.annotation.Excel.ColumnType;
 import com.jf.common.annotation.Excel.Type;
@@ -101,6 +129,18 @@ public class ExcelUtil<T>
 
     public static final String[] FORMULA_STR = { "=", "-", "+", "@" };
 
+    /**
+     * 字段读取句柄缓存，每个类的字段只解析一次
+     */
+    private static final ClassValue<Map<String, MethodHandle>> FIELD_GETTERS = new ClassValue<Map<String, MethodHandle>>()
+    {
+        @Override
+        protected Map<String, MethodHandle> computeValue(Class<?> type)
+        {
+            return new ConcurrentHashMap<String, MethodHandle>();
+        }
+    };
+
     /**
      * 用于dictType属性数据存储，避免重复查缓存
      */
@@ -111,6 +151,21 @@ public class ExcelUtil<T>
      */
     public static final int sheetSize = 65536;
 
+    /**
+     * 并行导出时每个转换块的行数
+     */
+    private static final int PARALLEL_BLOCK_SIZE = 4096;
+
+    /**
+     * 并行转换时fork/join拆分的最小行数
+     */
+    private static final int PARALLEL_SPLIT_THRESHOLD = 512;
+
+    /**
+     * 不导出的列，不创建单元格
+     */
+    private static final Object SKIP_CELL = new Object();
+
     /**
      * 工作表名称
      */
@@ -136,6 +191,31 @@ public class ExcelUtil<T>
      */
     private Map<String, CellStyle> styles;
 
+    /**
+     * 列数据样式，按注解解析一次
+     */
+    private Map<Excel, CellStyle> columnStyles = new IdentityHashMap<Excel, CellStyle>();
+
+    /**
+     * 日期列数据样式
+     */
+    private Map<Excel, CellStyle> dateStyles = new IdentityHashMap<Excel, CellStyle>();
+
+    /**
+     * 数据格式索引缓存
+     */
+    private Map<String, Short> dataFormats = new HashMap<String, Short>();
+
+    /**
+     * 目标属性路径缓存
+     */
+    private Map<Excel, String[]> targetPaths = new IdentityHashMap<Excel, String[]>();
+
+    /**
+     * 数据处理器实例缓存
+     */
+    private Map<Class<?>, Object> handlers = new HashMap<Class<?>, Object>();
+
     /**
      * 导入导出数据列表
      */
@@ -156,6 +236,36 @@ public class ExcelUtil<T>
      */
     private String title;
 
+    /**
+     * 流式导出当前写入行号
+     */
+    private int streamRowNum;
+
+    /**
+     * 流式导出当前工作表已写入记录数
+     */
+    private int streamSheetRows;
+
+    /**
+     * 流式导出当前工作表序号
+     */
+    private int streamSheetIndex;
+
+    /**
+     * 流式并行导出时正在收集的记录块，未开启并行时为null
+     */
+    private List<T> streamBlock;
+
+    /**
+     * 流式并行导出时已提交、尚未写入的转换任务
+     */
+    private Deque<ConvertTask> streamPending;
+
+    /**
+     * 流式并行导出时共用的字典标签缓存
+     */
+    private Map<String, String> streamDictMap;
+
     /**
      * 最大高度
      */
@@ -181,11 +291,21 @@ public class ExcelUtil<T>
      */
     private Map<String, List<Field>> subFieldsMap;
 
+    /**
+     * 流式导入解析失败的行信息
+     */
+    private List<String> importErrors = new ArrayList<String>();
+
     /**
      * 统计列表
      */
     private Map<Integer, Double> statistics = new HashMap<Integer, Double>();
 
+    /**
+     * 并行导出的线程数，0表示使用CPU核数
+     */
+    private int parallelism = JFConfig.getExcelParallelism();
+
     /**
      * 实体对象
      */
@@ -226,6 +346,16 @@ public class ExcelUtil<T>
         this.excludeFields = fields;
     }
 
+    /**
+     * 设置并行导出的线程数，数据超过单个工作表时多线程转换单元格值
+     *
+     * @param parallelism 线程数，0表示使用CPU核数，1表示关闭并行
+     */
+    public void setParallelism(int parallelism)
+    {
+        this.parallelism = parallelism;
+    }
+
     public void init(List<T> list, String sheetName, String title, Type type)
     {
         if (list == null)
@@ -422,101 +552,8 @@ public class ExcelUtil<T>
                     // 从map中得到对应列的field.
                     Field field = (Field) entry.getValue()[0];
                     Excel attr = (Excel) entry.getValue()[1];
-                    // 取得类型,并根据对象类型设置值.
-                    Class<?> fieldType = field.getType();
-                    if (String.class == fieldType)
-                    {
-                        String s = Convert.toStr(val);
-                        if (s.matches("^\\d+\\.0$"))
-                        {
-                            val = StringUtils.substringBefore(s, ".0");
-                        }
-                        else
-                        {
-                            String dateFormat = field.getAnnotation(Excel.class).dateFormat();
-                            if (StringUtils.isNotEmpty(dateFormat))
-                            {
-                                val = parseDateToStr(dateFormat, val);
-                            }
-                            else
-                            {
-                                val = Convert.toStr(val);
-                            }
-                        }
-                    }
-                    else if ((Integer.TYPE == fieldType || Integer.class == fieldType) && StringUtils.isNumeric(Convert.toStr(val)))
-                    {
-                        val = Convert.toInt(val);
-                    }
-                    else if ((Long.TYPE == fieldType || Long.class == fieldType) && StringUtils.isNumeric(Convert.toStr(val)))
-                    {
-                        val = Convert.toLong(val);
-                    }
-                    else if (Double.TYPE == fieldType || Double.class == fieldType)
-                    {
-                        val = Convert.toDouble(val);
-                    }
-                    else if (Float.TYPE == fieldType || Float.class == fieldType)
-                    {
-                        val = Convert.toFloat(val);
-                    }
-                    else if (BigDecimal.class == fieldType)
-                    {
-                        val = Convert.toBigDecimal(val);
-                    }
-                    else if (Date.class == fieldType)
-                    {
-                        if (val instanceof String)
-                        {
-                            val = DateUtils.parseDate(val);
-                        }
-                        else if (val instanceof Double)
-                        {
-                            val = DateUtil.getJavaDate((Double) val);
-                        }
-                    }
-                    else if (Boolean.TYPE == fieldType || Boolean.class == fieldType)
-                    {
-                        val = Convert.toBool(val, false);
-                    }
-                    if (StringUtils.isNotNull(fieldType))
-                    {
-                        String propertyName = field.getName();
-                        if (StringUtils.isNotEmpty(attr.targetAttr()))
-                        {
-                            propertyName = field.getName() + "." + attr.targetAttr();
-                        }
-                        if (StringUtils.isNotEmpty(attr.readConverterExp()))
-                        {
-                            val = reverseByExp(Convert.toStr(val), attr.readConverterExp(), attr.separator());
-                        }
-                        else if (StringUtils.isNotEmpty(attr.dictType()))
-                        {
-                            if (!sysDictMap.containsKey(attr.dictType() + val))
-                            {
-                                String dictValue = reverseDictByExp(Convert.toStr(val), attr.dictType(), attr.separator());
-                                sysDictMap.put(attr.dictType() + val, dictValue);
-                            }
-                            val = sysDictMap.get(attr.dictType() + val);
-                        }
-                        else if (!attr.handler().equals(ExcelHandlerAdapter.class))
-                        {
-                            val = dataFormatHandlerAdapter(val, attr, null);
-                        }
-                        else if (ColumnType.IMAGE == attr.cellType() && StringUtils.isNotEmpty(pictures))
-                        {
-                            StringBuilder propertyString = new StringBuilder();
-                            List<PictureData> images = pictures.get(row.getRowNum() + "_" + entry.getKey());
-                            for (PictureData picture : images)
-                            {
-                                byte[] data = picture.getData();
-                                String fileName = FileUtils.writeImportBytes(data);
-                                propertyString.append(fileName).append(SEPARATOR);
-                            }
-                            val = StringUtils.stripEnd(propertyString.toString(), SEPARATOR);
-                        }
-                        ReflectUtils.invokeSetter(entity, propertyName, val);
-                    }
+                    List<PictureData> images = StringUtils.isNotEmpty(pictures) ? pictures.get(row.getRowNum() + "_" + entry.getKey()) : null;
+                    setImportValue(entity, field, attr, val, images);
                 }
                 list.add(entity);
             }
@@ -525,269 +562,1173 @@ public class ExcelUtil<T>
     }
 
     /**
-     * 对list数据源将其里面的数据导入到excel表单
+     * 将单元格值转换为字段类型并设置到实体
      * 
-     * @param list 导出数据集合
-     * @param sheetName 工作表的名称
-     * @return 结果
+     * @param entity 实体对象
+     * @param field 字段
+     * @param attr 注解
+     * @param val 单元格值
+     * @param images 单元格中的图片
      */
-    public AjaxResult exportExcel(List<T> list, String sheetName)
+    private void setImportValue(T entity, Field field, Excel attr, Object val, List<PictureData> images) throws Exception
     {
-        return exportExcel(list, sheetName, StringUtils.EMPTY);
+        // 取得类型,并根据对象类型设置值.
+        Class<?> fieldType = field.getType();
+        if (String.class == fieldType)
+        {
+            String s = Convert.toStr(val);
+            if (s.matches("^\\d+\\.0$"))
+            {
+                val = StringUtils.substringBefore(s, ".0");
+            }
+            else
+            {
+                String dateFormat = field.getAnnotation(Excel.class).dateFormat();
+                if (StringUtils.isNotEmpty(dateFormat))
+                {
+                    val = parseDateToStr(dateFormat, val);
+                }
+                else
+                {
+                    val = Convert.toStr(val);
+                }
+            }
+        }
+        else if ((Integer.TYPE == fieldType || Integer.class == fieldType) && StringUtils.isNumeric(Convert.toStr(val)))
+        {
+            val = Convert.toInt(val);
+        }
+        else if ((Long.TYPE == fieldType || Long.class == fieldType) && StringUtils.isNumeric(Convert.toStr(val)))
+        {
+            val = Convert.toLong(val);
+        }
+        else if (Double.TYPE == fieldType || Double.class == fieldType)
+        {
+            val = Convert.toDouble(val);
+        }
+        else if (Float.TYPE == fieldType || Float.class == fieldType)
+        {
+            val = Convert.toFloat(val);
+        }
+        else if (BigDecimal.class == fieldType)
+        {
+            val = Convert.toBigDecimal(val);
+        }
+        else if (Date.class == fieldType)
+        {
+            if (val instanceof String)
+            {
+                val = DateUtils.parseDate(val);
+            }
+            else if (val instanceof Double)
+            {
+                val = DateUtil.getJavaDate((Double) val);
+            }
+        }
+        else if (Boolean.TYPE == fieldType || Boolean.class == fieldType)
+        {
+            val = Convert.toBool(val, false);
+        }
+        if (StringUtils.isNotNull(fieldType))
+        {
+            String propertyName = field.getName();
+            if (StringUtils.isNotEmpty(attr.targetAttr()))
+            {
+                propertyName = field.getName() + "." + attr.targetAttr();
+            }
+            if (StringUtils.isNotEmpty(attr.readConverterExp()))
+            {
+                val = reverseByExp(Convert.toStr(val), attr.readConverterExp(), attr.separator());
+            }
+            else if (StringUtils.isNotEmpty(attr.dictType()))
+            {
+                if (!sysDictMap.containsKey(attr.dictType() + val))
+                {
+                    String dictValue = reverseDictByExp(Convert.toStr(val), attr.dictType(), attr.separator());
+                    sysDictMap.put(attr.dictType() + val, dictValue);
+                }
+                val = sysDictMap.get(attr.dictType() + val);
+            }
+            else if (!attr.handler().equals(ExcelHandlerAdapter.class))
+            {
+                val = dataFormatHandlerAdapter(val, attr, null);
+            }
+            else if (ColumnType.IMAGE == attr.cellType() && StringUtils.isNotEmpty(images))
+            {
+                StringBuilder propertyString = new StringBuilder();
+                for (PictureData picture : images)
+                {
+                    byte[] data = picture.getData();
+                    String fileName = FileUtils.writeImportBytes(data);
+                    propertyString.append(fileName).append(SEPARATOR);
+                }
+                val = StringUtils.stripEnd(propertyString.toString(), SEPARATOR);
+            }
+            ReflectUtils.invokeSetter(entity, propertyName, val);
+        }
     }
 
     /**
-     * 对list数据源将其里面的数据导入到excel表单
+     * 流式导入，逐行解析xlsx并按批次交给处理器，不加载整个工作簿；
+     * xls文件或包含图片列时退化为普通导入后分批处理
      * 
-     * @param list 导出数据集合
-     * @param sheetName 工作表的名称
-     * @param title 标题
-     * @return 结果
+     * @param is 输入流
+     * @param titleNum 标题占用行数
+     * @param batchSize 每批记录数
+     * @param handler 批次处理器
      */
-    public AjaxResult exportExcel(List<T> list, String sheetName, String title)
+    public void importStream(InputStream is, int titleNum, int batchSize, Consumer<List<T>> handler)
     {
-        this.init(list, sheetName, title, Type.EXPORT);
-        return exportExcel();
+        this.type = Type.IMPORT;
+        this.importErrors = new ArrayList<String>();
+        File tempFile = null;
+        OPCPackage pkg = null;
+        try
+        {
+            InputStream in = FileMagic.prepareToCheckMagic(is);
+            List<Object[]> fields = this.getFields();
+            boolean hasImage = fields.stream().anyMatch(os -> ColumnType.IMAGE == ((Excel) os[1]).cellType());
+            if (FileMagic.valueOf(in) != FileMagic.OOXML || hasImage)
+            {
+                List<T> list = importExcel(StringUtils.EMPTY, in, titleNum);
+                for (int i = 0; i < list.size(); i += batchSize)
+                {
+                    handler.accept(new ArrayList<T>(list.subList(i, Math.min(i + batchSize, list.size()))));
+                }
+                return;
+            }
+            tempFile = File.createTempFile("import-", ".xlsx");
+            Files.copy(in, tempFile.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            pkg = OPCPackage.open(tempFile, PackageAccess.READ);
+            XSSFReader reader = new XSSFReader(pkg);
+            RawValueFormatter formatter = new RawValueFormatter();
+            StreamSheetHandler sheetHandler = new StreamSheetHandler(fields, titleNum, batchSize, handler, formatter);
+            XMLReader parser = SAXHelper.newXMLReader();
+            parser.setContentHandler(new XSSFSheetXMLHandler(reader.getStylesTable(), new ReadOnlySharedStringsTable(pkg), sheetHandler, formatter, false));
+            try (InputStream sheet = reader.getSheetsData().next())
+            {
+                parser.parse(new InputSource(sheet));
+            }
+            sheetHandler.finish();
+        }
+        catch (UtilException e)
+        {
+            throw e;
+        }
+        catch (Exception e)
+        {
+            log.error("导入Excel异常{}", e.getMessage());
+            throw new UtilException(e.getMessage());
+        }
+        finally
+        {
+            if (pkg != null)
+            {
+                pkg.revert();
+            }
+            if (tempFile != null)
+            {
+                tempFile.delete();
+            }
+            IOUtils.closeQuietly(is);
+        }
     }
 
     /**
-     * 对list数据源将其里面的数据导入到excel表单
-     * 
-     * @param response 返回数据
-     * @param list 导出数据集合
-     * @param sheetName 工作表的名称
-     * @return 结果
+     * 获取流式导入时解析失败的行信息
      */
-    public void exportExcel(HttpServletResponse response, List<T> list, String sheetName)
+    public List<String> getImportErrors()
     {
-        exportExcel(response, list, sheetName, StringUtils.EMPTY);
+        return importErrors;
     }
 
     /**
-     * 对list数据源将其里面的数据导入到excel表单
-     * 
-     * @param response 返回数据
-     * @param list 导出数据集合
-     * @param sheetName 工作表的名称
-     * @param title 标题
-     * @return 结果
+     * 流式导入的行处理器，按表头映射列并逐行生成实体
      */
-    public void exportExcel(HttpServletResponse response, List<T> list, String sheetName, String title)
+    private class StreamSheetHandler implements SheetContentsHandler
     {
-        response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
-        response.setCharacterEncoding("utf-8");
-        this.init(list, sheetName, title, Type.EXPORT);
-        exportExcel(response);
-    }
+        private final List<Object[]> fields;
 
-    /**
-     * 对list数据源将其里面的数据导入到excel表单
-     * 
-     * @param sheetName 工作表的名称
-     * @return 结果
-     */
-    public AjaxResult importTemplateExcel(String sheetName)
-    {
-        return importTemplateExcel(sheetName, StringUtils.EMPTY);
-    }
+        private final int titleNum;
 
-    /**
-     * 对list数据源将其里面的数据导入到excel表单
-     * 
-     * @param sheetName 工作表的名称
-     * @param title 标题
-     * @return 结果
-     */
-    public AjaxResult importTemplateExcel(String sheetName, String title)
-    {
-        this.init(null, sheetName, title, Type.IMPORT);
-        return exportExcel();
+        private final int batchSize;
+
+        private final Consumer<List<T>> handler;
+
+        private final RawValueFormatter formatter;
+
+        private Map<Integer, Object[]> fieldsMap;
+
+        private Map<Integer, Object> rowValues = new HashMap<Integer, Object>();
+
+        private List<T> batch = new ArrayList<T>();
+
+        private int currentRow;
+
+        private int lastColumn;
+
+        private boolean hasRows;
+
+        StreamSheetHandler(List<Object[]> fields, int titleNum, int batchSize, Consumer<List<T>> handler, RawValueFormatter formatter)
+        {
+            this.fields = fields;
+            this.titleNum = titleNum;
+            this.batchSize = batchSize;
+            this.handler = handler;
+            this.formatter = formatter;
+        }
+
+        @Override
+        public void startRow(int rowNum)
+        {
+            currentRow = rowNum;
+            lastColumn = -1;
+            rowValues.clear();
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment)
+        {
+            Object value = formatter.take();
+            int column = cellReference != null ? new CellReference(cellReference).getCol() : lastColumn + 1;
+            lastColumn = column;
+            if (currentRow >= titleNum && StringUtils.isNotEmpty(formattedValue))
+            {
+                rowValues.put(column, value != null ? value : formattedValue);
+            }
+        }
+
+        @Override
+        public void endRow(int rowNum)
+        {
+            if (rowNum < titleNum)
+            {
+                return;
+            }
+            if (rowNum == titleNum)
+            {
+                createFieldsMap();
+                return;
+            }
+            hasRows = true;
+            if (fieldsMap == null)
+            {
+                throw new UtilException("文件标题行为空，请检查Excel文件格式");
+            }
+            if (rowValues.isEmpty())
+            {
+                return;
+            }
+            try
+            {
+                T entity = clazz.getDeclaredConstructor().newInstance();
+                for (Map.Entry<Integer, Object[]> entry : fieldsMap.entrySet())
+                {
+                    Object val = rowValues.containsKey(entry.getKey()) ? rowValues.get(entry.getKey()) : "";
+                    setImportValue(entity, (Field) entry.getValue()[0], (Excel) entry.getValue()[1], val, null);
+                }
+                batch.add(entity);
+            }
+            catch (Exception e)
+            {
+                importErrors.add(StringUtils.format("第{}行数据解析失败：{}", rowNum + 1, e.getMessage()));
+            }
+            if (batch.size() >= batchSize)
+            {
+                flush();
+            }
+        }
+
+        @Override
+        public void headerFooter(String text, boolean isHeader, String tagName)
+        {
+        }
+
+        /**
+         * 根据表头建立列号与字段的映射
+         */
+        private void createFieldsMap()
+        {
+            Map<String, Integer> cellMap = new HashMap<String, Integer>();
+            for (Map.Entry<Integer, Object> entry : rowValues.entrySet())
+            {
+                cellMap.put(entry.getValue().toString(), entry.getKey());
+            }
+            fieldsMap = new HashMap<Integer, Object[]>();
+            for (Object[] objects : fields)
+            {
+                Excel attr = (Excel) objects[1];
+                Integer column = cellMap.get(attr.name());
+                if (column != null)
+                {
+                    fieldsMap.put(column, objects);
+                }
+            }
+        }
+
+        private void flush()
+        {
+            if (!batch.isEmpty())
+            {
+                List<T> current = batch;
+                batch = new ArrayList<T>();
+                handler.accept(current);
+            }
+        }
+
+        /**
+         * 解析结束，提交剩余记录
+         */
+        void finish()
+        {
+            if (hasRows && fieldsMap == null)
+            {
+                throw new UtilException("文件标题行为空，请检查Excel文件格式");
+            }
+            flush();
+        }
+    }
+
+    /**
+     * 记录数字单元格原始值的格式化器，使流式导入得到与getCellValue一致的值类型
+     */
+    private static class RawValueFormatter extends DataFormatter
+    {
+        private Object value;
+
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString, boolean use1904Windowing)
+        {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value))
+            {
+                this.value = DateUtil.getJavaDate(value, use1904Windowing);
+            }
+            else if (value % 1 != 0)
+            {
+                this.value = new BigDecimal(Double.toString(value));
+            }
+            else
+            {
+                this.value = new DecimalFormat("0").format(value);
+            }
+            return super.formatRawCellContents(value, formatIndex, formatString, use1904Windowing);
+        }
+
+        /**
+         * 取出并清除最近一次记录的原始值
+         */
+        Object take()
+        {
+            Object current = value;
+            value = null;
+            return current;
+        }
+    }
+
+    /**
+     * 对list数据源将其里面的数据导入到excel表单
+     * 
+     * @param list 导出数据集合
+     * @param sheetName 工作表的名称
+     * @return 结果
+     */
+    public AjaxResult exportExcel(List<T> list, String sheetName)
+    {
+        return exportExcel(list, sheetName, StringUtils.EMPTY);
+    }
+
+    /**
+     * 对list数据源将其里面的数据导入到excel表单
+     * 
+     * @param list 导出数据集合
+     * @param sheetName 工作表的名称
+     * @param title 标题
+     * @return 结果
+     */
+    public AjaxResult exportExcel(List<T> list, String sheetName, String title)
+    {
+        this.init(list, sheetName, title, Type.EXPORT);
+        return exportExcel();
+    }
+
+    /**
+     * 对list数据源将其里面的数据导入到excel表单
+     * 
+     * @param response 返回数据
+     * @param list 导出数据集合
+     * @param sheetName 工作表的名称
+     * @return 结果
+     */
+    public void exportExcel(HttpServletResponse response, List<T> list, String sheetName)
+    {
+        exportExcel(response, list, sheetName, StringUtils.EMPTY);
+    }
+
+    /**
+     * 对list数据源将其里面的数据导入到excel表单
+     * 
+     * @param response 返回数据
+     * @param list 导出数据集合
+     * @param sheetName 工作表的名称
+     * @param title 标题
+     * @return 结果
+     */
+    public void exportExcel(HttpServletResponse response, List<T> list, String sheetName, String title)
+    {
+        response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+        response.setCharacterEncoding("utf-8");
+        this.init(list, sheetName, title, Type.EXPORT);
+        exportExcel(response);
+    }
+
+    /**
+     * 流式导出，查询结果逐行写入工作簿，无需将全部数据加载到内存
+     * 
+     * @param response 返回数据
+     * @param query 查询回调，通过ResultHandler逐行推送数据（如Mapper流式查询）
+     * @param sheetName 工作表的名称
+     */
+    public void exportStream(HttpServletResponse response, Consumer<ResultHandler<T>> query, String sheetName)
+    {
+        exportStream(response, query, sheetName, StringUtils.EMPTY);
+    }
+
+    /**
+     * 流式导出，查询结果逐行写入工作簿，无需将全部数据加载到内存
+     * 
+     * @param response 返回数据
+     * @param query 查询回调，通过ResultHandler逐行推送数据（如Mapper流式查询）
+     * @param sheetName 工作表的名称
+     * @param title 标题
+     */
+    public void exportStream(HttpServletResponse response, Consumer<ResultHandler<T>> query, String sheetName, String title)
+    {
+        response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+        response.setCharacterEncoding("utf-8");
+        try
+        {
+            exportStream(response.getOutputStream(), query, sheetName, title);
+        }
+        catch (Exception e)
+        {
+            log.error("导出Excel异常{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 流式导出到输出流，查询结果逐行写入工作簿，导出失败时抛出异常
+     * 
+     * @param out 输出流
+     * @param query 查询回调，通过ResultHandler逐行推送数据（如Mapper流式查询）
+     * @param sheetName 工作表的名称
+     * @param title 标题
+     */
+    public void exportStream(OutputStream out, Consumer<ResultHandler<T>> query, String sheetName, String title)
+    {
+        this.init(null, sheetName, title, Type.EXPORT);
+        try
+        {
+            beginStream();
+            query.accept(context -> appendRow(context.getResultObject()));
+            endStream();
+            wb.write(out);
+        }
+        catch (Exception e)
+        {
+            log.error("导出Excel异常{}", e.getMessage());
+            throw new UtilException("导出Excel失败，请联系网站管理员！");
+        }
+        finally
+        {
+            closeWorkbook();
+        }
+    }
+
+    /**
+     * 流式导出，逐条读取游标写入工作簿，导出期间游标所在的会话需保持打开
+     * 
+     * @param response 返回数据
+     * @param cursor 查询游标
+     * @param sheetName 工作表的名称
+     * @param title 标题
+     */
+    public void exportStream(HttpServletResponse response, Cursor<T> cursor, String sheetName, String title)
+    {
+        response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+        response.setCharacterEncoding("utf-8");
+        this.init(null, sheetName, title, Type.EXPORT);
+        try
+        {
+            beginStream();
+            for (T vo : cursor)
+            {
+                appendRow(vo);
+            }
+            endStream();
+            wb.write(response.getOutputStream());
+        }
+        catch (Exception e)
+        {
+            log.error("导出Excel异常{}", e.getMessage());
+        }
+        finally
+        {
+            IOUtils.closeQuietly(cursor);
+            closeWorkbook();
+        }
+    }
+
+    /**
+     * 开始流式写入，写入首个工作表的列头
+     */
+    private void beginStream()
+    {
+        writeHeadRow();
+        streamRowNum = rownum + 1;
+        streamSheetRows = 0;
+        streamSheetIndex = 0;
+        if (getParallelism() > 1 && isParallelSupported())
+        {
+            // 查询线程只收集记录，按块交给转换线程池，转换结果按顺序写入
+            resolveTargetPaths();
+            streamBlock = new ArrayList<T>(PARALLEL_BLOCK_SIZE);
+            streamPending = new ArrayDeque<ConvertTask>();
+            streamDictMap = new ConcurrentHashMap<String, String>(sysDictMap);
+        }
+    }
+
+    /**
+     * 追加一条记录，达到sheetSize时切换到新的工作表
+     * 
+     * @param vo 实体对象
+     */
+    private void appendRow(T vo)
+    {
+        if (streamBlock != null)
+        {
+            streamBlock.add(vo);
+            if (streamBlock.size() >= PARALLEL_BLOCK_SIZE)
+            {
+                submitStreamBlock();
+            }
+            return;
+        }
+        nextStreamSheet();
+        streamRowNum += fillExcelRow(vo, streamRowNum);
+        streamSheetRows++;
+    }
+
+    /**
+     * 当前工作表已写满sheetSize条记录时切换到新的工作表
+     */
+    private void nextStreamSheet()
+    {
+        if (streamSheetRows >= sheetSize)
+        {
+            addStatisticsRow();
+            streamSheetIndex++;
+            createSheet(streamSheetIndex + 1, streamSheetIndex);
+            writeHeadRow();
+            streamRowNum = rownum + 1;
+            streamSheetRows = 0;
+        }
+    }
+
+    /**
+     * 提交当前记录块转换，同时转换的块超过 threads * 2 个时先写入最早的块
+     */
+    private void submitStreamBlock()
+    {
+        ConvertTask task = new ConvertTask(streamBlock, new CellRow[streamBlock.size()], 0, 0, streamBlock.size(), streamDictMap);
+        getConvertPool().execute(task);
+        streamPending.add(task);
+        streamBlock = new ArrayList<T>(PARALLEL_BLOCK_SIZE);
+        while (streamPending.size() > getParallelism() * 2)
+        {
+            writeStreamBlock(streamPending.poll());
+        }
+    }
+
+    /**
+     * 等待记录块转换完成并按顺序写入
+     */
+    private void writeStreamBlock(ConvertTask task)
+    {
+        task.join();
+        for (CellRow cellRow : task.rows)
+        {
+            nextStreamSheet();
+            writeCellRow(cellRow, streamRowNum++);
+            streamSheetRows++;
+        }
+    }
+
+    /**
+     * 结束流式写入
+     */
+    private void endStream()
+    {
+        if (streamBlock != null)
+        {
+            if (!streamBlock.isEmpty())
+            {
+                submitStreamBlock();
+            }
+            while (!streamPending.isEmpty())
+            {
+                writeStreamBlock(streamPending.poll());
+            }
+        }
+        addStatisticsRow();
+    }
+
+    /**
+     * 取消尚未写入的转换任务（导出异常时）
+     */
+    private void cancelPending(Deque<ConvertTask> pending)
+    {
+        if (pending != null)
+        {
+            for (ConvertTask task : pending)
+            {
+                task.cancel(false);
+            }
+            pending.clear();
+        }
+    }
+
+    /**
+     * 对list数据源将其里面的数据导入到excel表单
+     * 
+     * @param sheetName 工作表的名称
+     * @return 结果
+     */
+    public AjaxResult importTemplateExcel(String sheetName)
+    {
+        return importTemplateExcel(sheetName, StringUtils.EMPTY);
+    }
+
+    /**
+     * 对list数据源将其里面的数据导入到excel表单
+     * 
+     * @param sheetName 工作表的名称
+     * @param title 标题
+     * @return 结果
+     */
+    public AjaxResult importTemplateExcel(String sheetName, String title)
+    {
+        this.init(null, sheetName, title, Type.IMPORT);
+        return exportExcel();
+    }
+
+    /**
+     * 对list数据源将其里面的数据导入到excel表单
+     * 
+     * @param sheetName 工作表的名称
+     * @return 结果
+     */
+    public void importTemplateExcel(HttpServletResponse response, String sheetName)
+    {
+        importTemplateExcel(response, sheetName, StringUtils.EMPTY);
+    }
+
+    /**
+     * 对list数据源将其里面的数据导入到excel表单
+     * 
+     * @param sheetName 工作表的名称
+     * @param title 标题
+     * @return 结果
+     */
+    public void importTemplateExcel(HttpServletResponse response, String sheetName, String title)
+    {
+        response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+        response.setCharacterEncoding("utf-8");
+        this.init(null, sheetName, title, Type.IMPORT);
+        exportExcel(response);
+    }
+
+    /**
+     * 对list数据源将其里面的数据导入到excel表单
+     * 
+     * @return 结果
+     */
+    public void exportExcel(HttpServletResponse response)
+    {
+        try
+        {
+            writeSheet();
+            wb.write(response.getOutputStream());
+        }
+        catch (Exception e)
+        {
+            log.error("导出Excel异常{}", e.getMessage());
+        }
+        finally
+        {
+            closeWorkbook();
+        }
+    }
+
+    /**
+     * 对list数据源将其里面的数据导入到excel表单
+     * 
+     * @return 结果
+     */
+    public AjaxResult exportExcel()
+    {
+        OutputStream out = null;
+        try
+        {
+            writeSheet();
+            String filename = encodingFilename(sheetName);
+            out = new FileOutputStream(getAbsoluteFile(filename));
+            wb.write(out);
+            return AjaxResult.success(filename);
+        }
+        catch (Exception e)
+        {
+            log.error("导出Excel异常{}", e.getMessage());
+            throw new UtilException("导出Excel失败，请联系网站管理员！");
+        }
+        finally
+        {
+            closeWorkbook();
+            IOUtils.closeQuietly(out);
+        }
+    }
+
+    /**
+     * 关闭工作簿并删除SXSSF产生的临时文件，取消流式导出未完成的转换任务
+     */
+    private void closeWorkbook()
+    {
+        cancelPending(streamPending);
+        IOUtils.closeQuietly(wb);
+        if (wb instanceof SXSSFWorkbook)
+        {
+            ((SXSSFWorkbook) wb).dispose();
+        }
+    }
+
+    /**
+     * 创建写入数据到Sheet
+     */
+    public void writeSheet()
+    {
+        if (Type.EXPORT.equals(type) && list.size() > sheetSize && getParallelism() > 1 && isParallelSupported())
+        {
+            writeSheetParallel();
+            return;
+        }
+        // 取出一共有多少个sheet.
+        int sheetNo = Math.max(1, (int) Math.ceil(list.size() * 1.0 / sheetSize));
+        for (int index = 0; index < sheetNo; index++)
+        {
+            createSheet(sheetNo, index);
+            writeHeadRow();
+            if (Type.EXPORT.equals(type))
+            {
+                fillExcelData(index);
+                addStatisticsRow();
+            }
+        }
+    }
+
+    /**
+     * 写入各个字段的列头名称
+     */
+    public void writeHeadRow()
+    {
+        // 产生一行
+        Row row = sheet.createRow(rownum);
+        int column = 0;
+        for (Object[] os : fields)
+        {
+            Field field = (Field) os[0];
+            Excel excel = (Excel) os[1];
+            if (Collection.class.isAssignableFrom(field.getType()))
+            {
+                List<Field> currentSubFields = subFieldsMap.get(field.getName());
+                for (Field subField : currentSubFields)
+                {
+                    Excel subExcel = subField.getAnnotation(Excel.class);
+                    this.createHeadCell(subExcel, row, column++);
+                }
+            }
+            else
+            {
+                this.createHeadCell(excel, row, column++);
+            }
+        }
+    }
+
+    /**
+     * 填充excel数据
+     * 
+     * @param index 序号
+     */
+    public void fillExcelData(int index)
+    {
+        int startNo = index * sheetSize;
+        int endNo = Math.min(startNo + sheetSize, list.size());
+        int currentRowNum = rownum + 1; // 从标题行后开始
+
+        for (int i = startNo; i < endNo; i++)
+        {
+            currentRowNum += fillExcelRow(list.get(i), currentRowNum);
+        }
+    }
+
+    /**
+     * 填充一条记录
+     * 
+     * @param vo 实体对象
+     * @param currentRowNum 起始行号
+     * @return 占用的行数
+     */
+    @SuppressWarnings("unchecked")
+    public int fillExcelRow(T vo, int currentRowNum)
+    {
+        Row row = sheet.createRow(currentRowNum);
+        int column = 0;
+        int maxSubListSize = getCurrentMaxSubListSize(vo);
+        for (Object[] os : fields)
+        {
+            Field field = (Field) os[0];
+            Excel excel = (Excel) os[1];
+            if (Collection.class.isAssignableFrom(field.getType()))
+            {
+                try
+                {
+                    Collection<?> subList = (Collection<?>) getTargetValue(vo, field, excel);
+                    List<Field> currentSubFields = subFieldsMap.get(field.getName());
+                    if (subList != null && !subList.isEmpty())
+                    {
+                        int subIndex = 0;
+                        for (Object subVo : subList)
+                        {
+                            Row subRow = sheet.getRow(currentRowNum + subIndex);
+                            if (subRow == null)
+                            {
+                                subRow = sheet.createRow(currentRowNum + subIndex);
+                            }
+
+                            int subColumn = column;
+                            for (Field subField : currentSubFields)
+                            {
+                                Excel subExcel = subField.getAnnotation(Excel.class);
+                                addCell(subExcel, subRow, (T) subVo, subField, subColumn++);
+                            }
+                            subIndex++;
+                        }
+                    }
+                    column += currentSubFields.size();
+                }
+                catch (Exception e)
+                {
+                    log.error("填充集合数据失败", e);
+                }
+            }
+            else
+            {
+                // 创建单元格并设置值
+                addCell(excel, row, vo, field, column);
+                if (maxSubListSize > 1 && excel.needMerge())
+                {
+                    sheet.addMergedRegion(new CellRangeAddress(currentRowNum, currentRowNum + maxSubListSize - 1, column, column));
+                }
+                column++;
+            }
+        }
+        return maxSubListSize;
+    }
+
+    /**
+     * 并行写入数据，多个线程按行区间转换单元格值，当前线程按顺序写入工作簿
+     */
+    private void writeSheetParallel()
+    {
+        int threads = getParallelism();
+        int sheetNo = (int) Math.ceil(list.size() * 1.0 / sheetSize);
+        int blockNo = (list.size() + PARALLEL_BLOCK_SIZE - 1) / PARALLEL_BLOCK_SIZE;
+        resolveTargetPaths();
+        Map<String, String> dictMap = new ConcurrentHashMap<String, String>(sysDictMap);
+        ForkJoinPool pool = getConvertPool();
+        // 最多同时转换 threads * 2 个块，避免写入较慢时转换结果堆积
+        Deque<ConvertTask> pending = new ArrayDeque<ConvertTask>();
+        try
+        {
+            int submitted = 0;
+            int rowIndex = 0;
+            int currentRowNum = 0;
+            for (int block = 0; block < blockNo; block++)
+            {
+                while (submitted < blockNo && submitted < block + threads * 2)
+                {
+                    int start = submitted * PARALLEL_BLOCK_SIZE;
+                    int end = Math.min(start + PARALLEL_BLOCK_SIZE, list.size());
+                    ConvertTask task = new ConvertTask(list, new CellRow[end - start], start, start, end, dictMap);
+                    pool.execute(task);
+                    pending.add(task);
+                    submitted++;
+                }
+                ConvertTask task = pending.poll();
+                task.join();
+                for (CellRow cellRow : task.rows)
+                {
+                    if (rowIndex % sheetSize == 0)
+                    {
+                        int index = rowIndex / sheetSize;
+                        if (index > 0)
+                        {
+                            addStatisticsRow();
+                        }
+                        createSheet(sheetNo, index);
+                        writeHeadRow();
+                        currentRowNum = rownum + 1;
+                    }
+                    writeCellRow(cellRow, currentRowNum++);
+                    rowIndex++;
+                }
+            }
+            addStatisticsRow();
+        }
+        finally
+        {
+            cancelPending(pending);
+        }
+    }
+
+    /**
+     * 预先解析关联属性路径，转换线程只读取缓存
+     */
+    private void resolveTargetPaths()
+    {
+        for (Object[] os : fields)
+        {
+            Excel attr = (Excel) os[1];
+            if (StringUtils.isNotEmpty(attr.targetAttr()))
+            {
+                getTargetPaths(attr);
+            }
+        }
     }
 
     /**
-     * 对list数据源将其里面的数据导入到excel表单
-     * 
-     * @param sheetName 工作表的名称
-     * @return 结果
+     * 获取并行导出的线程数
      */
-    public void importTemplateExcel(HttpServletResponse response, String sheetName)
+    private int getParallelism()
     {
-        importTemplateExcel(response, sheetName, StringUtils.EMPTY);
+        return parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
     }
 
     /**
-     * 对list数据源将其里面的数据导入到excel表单
-     * 
-     * @param sheetName 工作表的名称
-     * @param title 标题
-     * @return 结果
+     * 获取所有导出共用的转换线程池
      */
-    public void importTemplateExcel(HttpServletResponse response, String sheetName, String title)
+    private static ForkJoinPool getConvertPool()
     {
-        response.setContentType("application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
-        response.setCharacterEncoding("utf-8");
-        this.init(null, sheetName, title, Type.IMPORT);
-        exportExcel(response);
+        return ConvertPoolHolder.POOL;
     }
 
     /**
-     * 对list数据源将其里面的数据导入到excel表单
-     * 
-     * @return 结果
+     * 转换线程池，首次并行导出时按配置的线程数创建，并发导出时共用，线程数有上限
      */
-    public void exportExcel(HttpServletResponse response)
+    private static class ConvertPoolHolder
     {
-        try
-        {
-            writeSheet();
-            wb.write(response.getOutputStream());
-        }
-        catch (Exception e)
-        {
-            log.error("导出Excel异常{}", e.getMessage());
-        }
-        finally
-        {
-            IOUtils.closeQuietly(wb);
-        }
+        static final ForkJoinPool POOL = new ForkJoinPool(JFConfig.getExcelParallelism() > 0 ? JFConfig.getExcelParallelism()
+                : Runtime.getRuntime().availableProcessors());
     }
 
     /**
-     * 对list数据源将其里面的数据导入到excel表单
-     * 
-     * @return 结果
+     * 是否可以并行转换，图片列和自定义数据处理器需要访问工作簿，子列表需要合并单元格，均只能顺序写入
      */
-    public AjaxResult exportExcel()
+    private boolean isParallelSupported()
     {
-        OutputStream out = null;
-        try
-        {
-            writeSheet();
-            String filename = encodingFilename(sheetName);
-            out = new FileOutputStream(getAbsoluteFile(filename));
-            wb.write(out);
-            return AjaxResult.success(filename);
-        }
-        catch (Exception e)
+        if (isSubList())
         {
-            log.error("导出Excel异常{}", e.getMessage());
-            throw new UtilException("导出Excel失败，请联系网站管理员！");
+            return false;
         }
-        finally
+        for (Object[] os : fields)
         {
-            IOUtils.closeQuietly(wb);
-            IOUtils.closeQuietly(out);
+            Excel attr = (Excel) os[1];
+            if (ColumnType.IMAGE == attr.cellType() || !attr.handler().equals(ExcelHandlerAdapter.class))
+            {
+                return false;
+            }
         }
+        return true;
     }
 
     /**
-     * 创建写入数据到Sheet
+     * 将一条记录转换为单元格值，不访问工作簿，可在转换线程中执行
+     * 
+     * @param vo 实体对象
+     * @param dictMap 字典标签缓存
+     * @return 单元格值
      */
-    public void writeSheet()
+    private CellRow convertRow(T vo, Map<String, String> dictMap)
     {
-        // 取出一共有多少个sheet.
-        int sheetNo = Math.max(1, (int) Math.ceil(list.size() * 1.0 / sheetSize));
-        for (int index = 0; index < sheetNo; index++)
+        int size = fields.size();
+        CellRow cellRow = new CellRow(size);
+        for (int column = 0; column < size; column++)
         {
-            createSheet(sheetNo, index);
-
-            // 产生一行
-            Row row = sheet.createRow(rownum);
-            int column = 0;
-            // 写入各个字段的列头名称
-            for (Object[] os : fields)
+            Field field = (Field) fields.get(column)[0];
+            Excel attr = (Excel) fields.get(column)[1];
+            if (!attr.isExport())
             {
-                Field field = (Field) os[0];
-                Excel excel = (Excel) os[1];
-                if (Collection.class.isAssignableFrom(field.getType()))
+                cellRow.values[column] = SKIP_CELL;
+                continue;
+            }
+            try
+            {
+                Object value = getTargetValue(vo, field, attr);
+                String dateFormat = attr.dateFormat();
+                String readConverterExp = attr.readConverterExp();
+                String separator = attr.separator();
+                String dictType = attr.dictType();
+                if (StringUtils.isNotEmpty(dateFormat) && StringUtils.isNotNull(value))
                 {
-                    List<Field> currentSubFields = subFieldsMap.get(field.getName());
-                    for (Field subField : currentSubFields)
+                    cellRow.dates[column] = true;
+                    cellRow.values[column] = parseDateToStr(dateFormat, value);
+                }
+                else if (StringUtils.isNotEmpty(readConverterExp) && StringUtils.isNotNull(value))
+                {
+                    cellRow.values[column] = convertByExp(Convert.toStr(value), readConverterExp, separator);
+                }
+                else if (StringUtils.isNotEmpty(dictType) && StringUtils.isNotNull(value))
+                {
+                    String label = dictMap.get(dictType + value);
+                    if (label == null)
                     {
-                        Excel subExcel = subField.getAnnotation(Excel.class);
-                        this.createHeadCell(subExcel, row, column++);
+                        label = StringUtils.nvl(convertDictByExp(Convert.toStr(value), dictType, separator), StringUtils.EMPTY);
+                        dictMap.put(dictType + value, label);
                     }
+                    cellRow.values[column] = label;
                 }
-                else
+                else if (value instanceof BigDecimal && -1 != attr.scale())
+                {
+                    cellRow.values[column] = (((BigDecimal) value).setScale(attr.scale(), attr.roundingMode())).doubleValue();
+                }
+                else if (ColumnType.STRING == attr.cellType() || ColumnType.TEXT == attr.cellType())
+                {
+                    cellRow.values[column] = getCellText(value, attr);
+                }
+                else if (ColumnType.NUMERIC == attr.cellType() && StringUtils.isNotNull(value))
+                {
+                    cellRow.values[column] = StringUtils.contains(Convert.toStr(value), ".") ? Convert.toDouble(value) : Convert.toInt(value);
+                }
+                if (attr.isStatistics())
                 {
-                    this.createHeadCell(excel, row, column++);
+                    cellRow.texts[column] = StringUtils.nvl(Convert.toStr(value), StringUtils.EMPTY);
                 }
             }
-            if (Type.EXPORT.equals(type))
+            catch (Exception e)
             {
-                fillExcelData(index);
-                addStatisticsRow();
+                log.error("导出Excel失败{}", e);
             }
         }
+        return cellRow;
     }
 
     /**
-     * 填充excel数据
+     * 将转换好的单元格值写入一行
      * 
-     * @param index 序号
+     * @param cellRow 单元格值
+     * @param rowNum 行号
      */
-    @SuppressWarnings("unchecked")
-    public void fillExcelData(int index)
+    private void writeCellRow(CellRow cellRow, int rowNum)
     {
-        int startNo = index * sheetSize;
-        int endNo = Math.min(startNo + sheetSize, list.size());
-        int currentRowNum = rownum + 1; // 从标题行后开始
+        Row row = sheet.createRow(rowNum);
+        row.setHeight(maxHeight);
+        for (int column = 0; column < cellRow.values.length; column++)
+        {
+            Object value = cellRow.values[column];
+            if (value == SKIP_CELL)
+            {
+                continue;
+            }
+            Excel attr = (Excel) fields.get(column)[1];
+            Cell cell = row.createCell(column);
+            cell.setCellStyle(cellRow.dates[column] ? getDateStyle(attr) : getDataStyle(attr));
+            if (value instanceof String)
+            {
+                cell.setCellValue((String) value);
+            }
+            else if (value instanceof Number)
+            {
+                cell.setCellValue(((Number) value).doubleValue());
+            }
+            if (cellRow.texts[column] != null)
+            {
+                addStatisticsData(column, cellRow.texts[column], attr);
+            }
+        }
+    }
 
-        for (int i = startNo; i < endNo; i++)
+    /**
+     * 一行记录转换后的单元格值
+     */
+    private static class CellRow
+    {
+        /** 单元格值，String、Number、null（空单元格）或SKIP_CELL（不创建单元格） */
+        final Object[] values;
+
+        /** 是否使用日期样式 */
+        final boolean[] dates;
+
+        /** 合计列的原始值 */
+        final String[] texts;
+
+        CellRow(int size)
         {
-            Row row = sheet.createRow(currentRowNum);
-            T vo = (T) list.get(i);
-            int column = 0;
-            int maxSubListSize = getCurrentMaxSubListSize(vo);
-            for (Object[] os : fields)
+            this.values = new Object[size];
+            this.dates = new boolean[size];
+            this.texts = new String[size];
+        }
+    }
+
+    /**
+     * 按行区间拆分的转换任务
+     */
+    private class ConvertTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final List<T> source;
+
+        private final CellRow[] rows;
+
+        private final int offset;
+
+        private final int start;
+
+        private final int end;
+
+        private final Map<String, String> dictMap;
+
+        ConvertTask(List<T> source, CellRow[] rows, int offset, int start, int end, Map<String, String> dictMap)
+        {
+            this.source = source;
+            this.rows = rows;
+            this.offset = offset;
+            this.start = start;
+            this.end = end;
+            this.dictMap = dictMap;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (end - start <= PARALLEL_SPLIT_THRESHOLD)
             {
-                Field field = (Field) os[0];
-                Excel excel = (Excel) os[1];
-                if (Collection.class.isAssignableFrom(field.getType()))
+                for (int i = start; i < end; i++)
                 {
-                    try
-                    {
-                        Collection<?> subList = (Collection<?>) getTargetValue(vo, field, excel);
-                        List<Field> currentSubFields = subFieldsMap.get(field.getName());
-                        if (subList != null && !subList.isEmpty())
-                        {
-                            int subIndex = 0;
-                            for (Object subVo : subList)
-                            {
-                                Row subRow = sheet.getRow(currentRowNum + subIndex);
-                                if (subRow == null)
-                                {
-                                    subRow = sheet.createRow(currentRowNum + subIndex);
-                                }
-
-                                int subColumn = column;
-                                for (Field subField : currentSubFields)
-                                {
-                                    Excel subExcel = subField.getAnnotation(Excel.class);
-                                    addCell(subExcel, subRow, (T) subVo, subField, subColumn++);
-                                }
-                                subIndex++;
-                            }
-                        }
-                        column += currentSubFields.size();
-                    }
-                    catch (Exception e)
-                    {
-                        log.error("填充集合数据失败", e);
-                    }
-                }
-                else
-                {
-                    // 创建单元格并设置值
-                    addCell(excel, row, vo, field, column);
-                    if (maxSubListSize > 1 && excel.needMerge())
-                    {
-                        sheet.addMergedRegion(new CellRangeAddress(currentRowNum, currentRowNum + maxSubListSize - 1, column, column));
-                    }
-                    column++;
+                    rows[i - offset] = convertRow(source.get(i), dictMap);
                 }
+                return;
             }
-            currentRowNum += maxSubListSize;
+            int middle = (start + end) >>> 1;
+            invokeAll(new ConvertTask(source, rows, offset, start, middle, dictMap), new ConvertTask(source, rows, offset, middle, end, dictMap));
         }
     }
 
@@ -952,7 +1893,7 @@ public class ExcelUtil<T>
      */
     public void annotationDataStyles(Map<String, CellStyle> styles, Field field, Excel excel)
     {
-        String key = StringUtils.format("data_{}_{}_{}_{}_{}", excel.align(), excel.color(), excel.backgroundColor(), excel.cellType(), excel.wrapText());
+        String key = getDataStyleKey(excel);
         if (!styles.containsKey(key))
         {
             CellStyle style = wb.createCellStyle();
@@ -983,6 +1924,70 @@ public class ExcelUtil<T>
         }
     }
 
+    /**
+     * 获取数据样式键
+     * 
+     * @param excel 注解信息
+     * @return 样式键
+     */
+    private String getDataStyleKey(Excel excel)
+    {
+        return StringUtils.format("data_{}_{}_{}_{}_{}", excel.align(), excel.color(), excel.backgroundColor(), excel.cellType(), excel.wrapText());
+    }
+
+    /**
+     * 获取列数据样式，每列只解析一次
+     * 
+     * @param excel 注解信息
+     * @return 单元格样式
+     */
+    private CellStyle getDataStyle(Excel excel)
+    {
+        CellStyle style = columnStyles.get(excel);
+        if (style == null)
+        {
+            style = styles.get(getDataStyleKey(excel));
+            columnStyles.put(excel, style);
+        }
+        return style;
+    }
+
+    /**
+     * 获取日期列数据样式，在数据样式基础上设置日期格式，每列只创建一次
+     * 
+     * @param excel 注解信息
+     * @return 单元格样式
+     */
+    private CellStyle getDateStyle(Excel excel)
+    {
+        CellStyle style = dateStyles.get(excel);
+        if (style == null)
+        {
+            style = wb.createCellStyle();
+            style.cloneStyleFrom(getDataStyle(excel));
+            style.setDataFormat(getDataFormat(excel.dateFormat()));
+            dateStyles.put(excel, style);
+        }
+        return style;
+    }
+
+    /**
+     * 获取数据格式索引
+     * 
+     * @param format 格式
+     * @return 格式索引
+     */
+    private short getDataFormat(String format)
+    {
+        Short index = dataFormats.get(format);
+        if (index == null)
+        {
+            index = wb.createDataFormat().getFormat(format);
+            dataFormats.put(format, index);
+        }
+        return index;
+    }
+
     /**
      * 创建单元格
      */
@@ -997,7 +2002,7 @@ public class ExcelUtil<T>
         if (isSubList())
         {
             // 填充默认样式，防止合并单元格样式失效
-            sheet.setDefaultColumnStyle(column, styles.get(StringUtils.format("data_{}_{}_{}_{}_{}", attr.align(), attr.color(), attr.backgroundColor(), attr.cellType(), attr.wrapText())));
+            sheet.setDefaultColumnStyle(column, getDataStyle(attr));
             if (attr.needMerge())
             {
                 sheet.addMergedRegion(new CellRangeAddress(rownum - 1, rownum, column, column));
@@ -1017,17 +2022,7 @@ public class ExcelUtil<T>
     {
         if (ColumnType.STRING == attr.cellType() || ColumnType.TEXT == attr.cellType())
         {
-            String cellValue = Convert.toStr(value);
-            // 对于任何以表达式触发字符 =-+@开头的单元格，直接使用tab字符作为前缀，防止CSV注入。
-            if (StringUtils.startsWithAny(cellValue, FORMULA_STR))
-            {
-                cellValue = RegExUtils.replaceFirst(cellValue, FORMULA_REGEX_STR, "\t$0");
-            }
-            if (value instanceof Collection && StringUtils.equals("[]", cellValue))
-            {
-                cellValue = StringUtils.EMPTY;
-            }
-            cell.setCellValue(StringUtils.isNull(cellValue) ? attr.defaultValue() : cellValue + attr.suffix());
+            cell.setCellValue(getCellText(value, attr));
         }
         else if (ColumnType.NUMERIC == attr.cellType())
         {
@@ -1052,6 +2047,28 @@ public class ExcelUtil<T>
         }
     }
 
+    /**
+     * 获取文本单元格的值
+     * 
+     * @param value 单元格值
+     * @param attr 注解相关
+     * @return 文本
+     */
+    private String getCellText(Object value, Excel attr)
+    {
+        String cellValue = Convert.toStr(value);
+        // 对于任何以表达式触发字符 =-+@开头的单元格，直接使用tab字符作为前缀，防止CSV注入。
+        if (StringUtils.startsWithAny(cellValue, FORMULA_STR))
+        {
+            cellValue = RegExUtils.replaceFirst(cellValue, FORMULA_REGEX_STR, "\t$0");
+        }
+        if (value instanceof Collection && StringUtils.equals("[]", cellValue))
+        {
+            cellValue = StringUtils.EMPTY;
+        }
+        return StringUtils.isNull(cellValue) ? attr.defaultValue() : cellValue + attr.suffix();
+    }
+
     /**
      * 获取画布
      */
@@ -1144,7 +2161,7 @@ public class ExcelUtil<T>
                         sheet.addMergedRegion(new CellRangeAddress(subMergedFirstRowNum, subMergedLastRowNum, column, column));
                     }
                 }
-                cell.setCellStyle(styles.get(StringUtils.format("data_{}_{}_{}_{}_{}", attr.align(), attr.color(), attr.backgroundColor(), attr.cellType(), attr.wrapText())));
+                cell.setCellStyle(getDataStyle(attr));
 
                 // 用于读取对象中的属性
                 Object value = getTargetValue(vo, field, attr);
@@ -1154,7 +2171,7 @@ public class ExcelUtil<T>
                 String dictType = attr.dictType();
                 if (StringUtils.isNotEmpty(dateFormat) && StringUtils.isNotNull(value))
                 {
-                    cell.getCellStyle().setDataFormat(this.wb.getCreationHelper().createDataFormat().getFormat(dateFormat));
+                    cell.setCellStyle(getDateStyle(attr));
                     cell.setCellValue(parseDateToStr(dateFormat, value));
                 }
                 else if (StringUtils.isNotEmpty(readConverterExp) && StringUtils.isNotNull(value))
@@ -1411,9 +2428,21 @@ public class ExcelUtil<T>
     {
         try
         {
-            Object instance = excel.handler().getDeclaredConstructor().newInstance();
-            Method formatMethod = excel.handler().getMethod("format", new Class[] { Object.class, String[].class, Cell.class, Workbook.class });
-            value = formatMethod.invoke(instance, value, excel.args(), cell, this.wb);
+            Object instance = handlers.get(excel.handler());
+            if (instance == null)
+            {
+                instance = excel.handler().getDeclaredConstructor().newInstance();
+                handlers.put(excel.handler(), instance);
+            }
+            if (instance instanceof ExcelHandlerAdapter)
+            {
+                value = ((ExcelHandlerAdapter) instance).format(value, excel.args(), cell, this.wb);
+            }
+            else
+            {
+                Method formatMethod = excel.handler().getMethod("format", new Class[] { Object.class, String[].class, Cell.class, Workbook.class });
+                value = formatMethod.invoke(instance, value, excel.args(), cell, this.wb);
+            }
         }
         catch (Exception e)
         {
@@ -1503,27 +2532,35 @@ public class ExcelUtil<T>
      */
     private Object getTargetValue(T vo, Field field, Excel excel) throws Exception
     {
-        field.setAccessible(true);
-        Object o = field.get(vo);
+        Object o = getFieldValue(getFieldGetter(field.getDeclaringClass(), field.getName()), vo);
         if (StringUtils.isNotEmpty(excel.targetAttr()))
         {
-            String target = excel.targetAttr();
-            if (target.contains("."))
-            {
-                String[] targets = target.split("[.]");
-                for (String name : targets)
-                {
-                    o = getValue(o, name);
-                }
-            }
-            else
+            for (String name : getTargetPaths(excel))
             {
-                o = getValue(o, target);
+                o = getValue(o, name);
             }
         }
         return o;
     }
 
+    /**
+     * 获取关联属性的访问路径，首次访问时解析并缓存
+     * 
+     * @param excel 注解
+     * @return 属性名数组
+     */
+    private String[] getTargetPaths(Excel excel)
+    {
+        String[] targets = targetPaths.get(excel);
+        if (targets == null)
+        {
+            String target = excel.targetAttr();
+            targets = target.contains(".") ? target.split("[.]") : new String[] { target };
+            targetPaths.put(excel, targets);
+        }
+        return targets;
+    }
+
     /**
      * 以类的属性的get方法方法形式获取值
      * 
@@ -1536,12 +2573,65 @@ public class ExcelUtil<T>
     {
         if (StringUtils.isNotNull(o) && StringUtils.isNotEmpty(name))
         {
-            Class<?> clazz = o.getClass();
+            o = getFieldValue(getFieldGetter(o.getClass(), name), o);
+        }
+        return o;
+    }
+
+    /**
+     * 获取字段读取句柄，首次访问时解析并缓存
+     * 
+     * @param clazz 声明字段的类
+     * @param name 字段名称
+     * @return 读取句柄，签名为(Object)Object
+     */
+    private static MethodHandle getFieldGetter(Class<?> clazz, String name) throws NoSuchFieldException
+    {
+        Map<String, MethodHandle> getters = FIELD_GETTERS.get(clazz);
+        MethodHandle getter = getters.get(name);
+        if (getter == null)
+        {
             Field field = clazz.getDeclaredField(name);
             field.setAccessible(true);
-            o = field.get(o);
+            try
+            {
+                getter = MethodHandles.lookup().unreflectGetter(field);
+            }
+            catch (IllegalAccessException e)
+            {
+                throw new UtilException(e);
+            }
+            if (Modifier.isStatic(field.getModifiers()))
+            {
+                getter = MethodHandles.dropArguments(getter, 0, Object.class);
+            }
+            getter = getter.asType(MethodType.methodType(Object.class, Object.class));
+            getters.put(name, getter);
+        }
+        return getter;
+    }
+
+    /**
+     * 通过读取句柄获取字段值
+     * 
+     * @param getter 读取句柄
+     * @param o 对象
+     * @return 字段值
+     */
+    private static Object getFieldValue(MethodHandle getter, Object o) throws Exception
+    {
+        try
+        {
+            return (Object) getter.invokeExact(o);
+        }
+        catch (Exception | Error e)
+        {
+            throw e;
+        }
+        catch (Throwable e)
+        {
+            throw new UtilException(e);
         }
-        return o;
     }
 
     /**
@@ -1668,6 +2758,9 @@ public class ExcelUtil<T>
         this.sheet = wb.createSheet();
         wb.setSheetName(0, sheetName);
         this.styles = createStyles(wb);
+        this.columnStyles.clear();
+        this.dateStyles.clear();
+        this.dataFormats.clear();
     }
 
     /**
@@ -0,0 +1,124 @@
+package com.jf.common.core.cache;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import java.net.URI;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.jf.common.core.domain.entity.SysDept;
+import com.jf.common.core.domain.entity.SysUser;
+
+/**
+ * MyBatis二级缓存测试，未启动容器时Redis不可用，只验证本地缓存的读写、反序列化白名单和清空时机
+ *
+ * @author jf
+ */
+public class MybatisCacheTest
+{
+    private static int sequence;
+
+    private MybatisCache cache;
+
+    @BeforeEach
+    public void setUp()
+    {
+        cache = new MybatisCache("com.jf.test.Mapper" + (++sequence));
+        cache.initialize();
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        if (TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    public void entityIsReturnedAsCopy()
+    {
+        SysDept dept = new SysDept();
+        dept.setDeptName("研发部门");
+        SysUser user = new SysUser();
+        user.setUserId(1L);
+        user.setUserName("admin");
+        user.setLoginDate(new Date());
+        user.setDept(dept);
+        List<SysUser> list = new ArrayList<SysUser>();
+        list.add(user);
+        cache.putObject("selectUserList", list);
+
+        @SuppressWarnings("unchecked")
+        List<SysUser> cached = (List<SysUser>) cache.getObject("selectUserList");
+        assertEquals(1, cached.size());
+        assertNotSame(user, cached.get(0));
+        assertEquals("admin", cached.get(0).getUserName());
+        assertEquals("研发部门", cached.get(0).getDept().getDeptName());
+
+        cached.get(0).setUserName("changed");
+        @SuppressWarnings("unchecked")
+        List<SysUser> again = (List<SysUser>) cache.getObject("selectUserList");
+        assertEquals("admin", again.get(0).getUserName());
+    }
+
+    @Test
+    public void classOutsideWhitelistIsTreatedAsMiss()
+    {
+        cache.putObject("uri", URI.create("http://localhost/"));
+        assertNull(cache.getObject("uri"));
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    public void nestedClassOutsideWhitelistIsTreatedAsMiss()
+    {
+        List<Object> list = new ArrayList<Object>();
+        list.add("text");
+        list.add(URI.create("http://localhost/"));
+        cache.putObject("list", list);
+        assertNull(cache.getObject("list"));
+    }
+
+    @Test
+    public void clearOutsideTransactionEmptiesCache()
+    {
+        cache.putObject("key", "value");
+        assertEquals("value", cache.getObject("key"));
+        cache.clear();
+        assertNull(cache.getObject("key"));
+    }
+
+    @Test
+    public void clearInsideTransactionEmptiesCacheAgainAfterCommit()
+    {
+        TransactionSynchronizationManager.initSynchronization();
+        cache.putObject("key", "value");
+        cache.clear();
+        assertNull(cache.getObject("key"));
+
+        // 提交前并发读取的旧数据被重新放入缓存
+        cache.putObject("key", "stale");
+        assertEquals("stale", cache.getObject("key"));
+
+        List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+        assertEquals(1, synchronizations.size());
+        synchronizations.get(0).afterCommit();
+        assertNull(cache.getObject("key"));
+    }
+
+    @Test
+    public void clearLocalOnlyEmptiesLocalCache()
+    {
+        cache.putObject("key", "value");
+        MybatisCache.getCache(cache.getId()).clearLocal();
+        assertNull(cache.getObject("key"));
+    }
+}
@@ -0,0 +1,97 @@
+package com.jf.common.core.mybatis;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import javax.sql.DataSource;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mybatis.spring.SqlSessionFactoryBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * 批量写入测试，使用H2内存库
+ *
+ * @author jf
+ */
+public class SqlBatchTemplateTest
+{
+    private static int sequence;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private TransactionTemplate transactionTemplate;
+
+    private SqlBatchTemplate sqlBatchTemplate;
+
+    public interface ItemMapper
+    {
+        @Insert("insert into sys_batch_test (id) values (#{id})")
+        int insertItem(Long id);
+    }
+
+    @BeforeEach
+    public void setUp() throws Exception
+    {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:batch" + (++sequence) + ";DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table sys_batch_test (id bigint primary key)");
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+
+        Configuration configuration = new Configuration();
+        configuration.addMapper(ItemMapper.class);
+        SqlSessionFactoryBean factoryBean = new SqlSessionFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setConfiguration(configuration);
+
+        sqlBatchTemplate = new SqlBatchTemplate();
+        ReflectionTestUtils.setField(sqlBatchTemplate, "sqlSessionFactory", factoryBean.getObject());
+        ReflectionTestUtils.setField(sqlBatchTemplate, "batchSize", 2);
+    }
+
+    @Test
+    public void executeFlushesEveryBatchAndCountsRows()
+    {
+        List<Long> ids = Arrays.asList(1L, 2L, 3L, 4L, 5L);
+        assertEquals(5, sqlBatchTemplate.execute(ItemMapper.class, ids, ItemMapper::insertItem));
+        assertEquals(5, count());
+    }
+
+    @Test
+    public void executeEmptyListDoesNothing()
+    {
+        assertEquals(0, sqlBatchTemplate.execute(ItemMapper.class, Collections.<Long> emptyList(), ItemMapper::insertItem));
+        assertEquals(0, count());
+    }
+
+    @Test
+    public void executeJoinsCurrentTransaction()
+    {
+        transactionTemplate.executeWithoutResult(status -> {
+            sqlBatchTemplate.execute(ItemMapper.class, Arrays.asList(1L, 2L, 3L), ItemMapper::insertItem);
+            status.setRollbackOnly();
+        });
+        assertEquals(0, count());
+    }
+
+    @Test
+    public void partitionSplitsByBatchSize()
+    {
+        List<List<Long>> parts = new ArrayList<List<Long>>();
+        sqlBatchTemplate.partition(Arrays.asList(1L, 2L, 3L, 4L, 5L), part -> parts.add(new ArrayList<Long>(part)));
+        assertEquals(Arrays.asList(Arrays.asList(1L, 2L), Arrays.asList(3L, 4L), Arrays.asList(5L)), parts);
+    }
+
+    private int count()
+    {
+        return jdbcTemplate.queryForObject("select count(*) from sys_batch_test", Integer.class);
+    }
+}
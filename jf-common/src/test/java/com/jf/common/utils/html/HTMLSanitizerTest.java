@@ -0,0 +1,78 @@
+package com.jf.common.utils.html;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+/**
+ * HTMLSanitizer 与 HTMLFilter 的差异对比测试
+ *
+ * @author jf
+ */
+public class HTMLSanitizerTest
+{
+    /**
+     * 随机拼接用的片段，覆盖标签、属性、协议、实体、注释和游离尖括号
+     */
+    private static final String[] FRAGMENTS = { "<", ">", "a", "b", " ", "\n", "=", "/>", "\"", "'", "\\\"", "text",
+            "<b>", "</b>", "<b ", "<i>", "</i>", "<em>", "<em/>", "</em>", "<strong>", "</strong>", "<div>", "</div>",
+            "<script>", "</script>", "<a href=\"http://x\">", "<a href='http://y'>", "<a href=\"javascript:alert(1)\">",
+            "</a>", "<img src=\"x\"/>", "<img src=x onerror=alert(1)>", "<IMG SRC=http://z>", "href=",
+            "&amp;", "&lt;", "&#60;", "&#x3c;", "&foo;", "%3c", "<!--", "-->" };
+
+    private static final String[] VECTORS = { "", "plain text", "<script>alert(1)</script>",
+            "<img src=x onerror=alert(1)>", "<a href=\"javascript:alert(1)\">x</a>", "<a href=\"http://jf.vip\">jf</a>",
+            "<b>bold<i>nested</b>", "<<b>>", "a < b > c", ">x>y", "<!-- comment --><b>x</b>", "<b></b><em />",
+            "<IMG SRC=\"jav&#x09;ascript:alert('XSS');\">", "<a href=\"&#106;avascript:alert(1)\">x</a>",
+            "<svg onload=alert(1)>", "<iframe src=http://evil></iframe>", "{\"name\":\"<b>x</b>\"}", "&amp;&nbsp;&#39;" };
+
+    @Test
+    public void cleanMatchesHtmlFilterForKnownVectors()
+    {
+        for (String input : VECTORS)
+        {
+            assertEquals(new HTMLFilter().filter(input), HTMLSanitizer.clean(input), input);
+        }
+    }
+
+    @Test
+    public void cleanMatchesHtmlFilterForRandomInputs()
+    {
+        Random random = new Random(20250522L);
+        for (int n = 0; n < 50000; n++)
+        {
+            StringBuilder sb = new StringBuilder();
+            int count = 1 + random.nextInt(12);
+            for (int i = 0; i < count; i++)
+            {
+                sb.append(FRAGMENTS[random.nextInt(FRAGMENTS.length)]);
+            }
+            String input = sb.toString();
+            assertEquals(new HTMLFilter().filter(input), HTMLSanitizer.clean(input), input);
+        }
+    }
+
+    @Test
+    public void cleanJsonReturnsSameArrayWithoutMarkup()
+    {
+        byte[] json = "{\"name\":\"jf\",\"list\":[1,2,\"a\"]}".getBytes(StandardCharsets.UTF_8);
+        assertSame(json, HTMLSanitizer.cleanJson(json));
+    }
+
+    @Test
+    public void cleanJsonFiltersValuesOnly()
+    {
+        assertJson("{\"name\":\"alert(1)\",\"<b>\":1}", "{\"name\":\"<script>alert(1)</script>\",\"<b>\":1}");
+        assertJson("{\"a\":\"<a href=\\\"#x\\\">hi</a>\"}", "{\"a\":\"<a href=\\\"javascript:x\\\">hi</a>\"}");
+        assertJson("[\"<b>x</b>\",\"\"]", "[\"<b>x\",\"\\u003cscript\\u003e\"]");
+        assertJson("{\"a\":\"<img src=\\\"http://x/y.png\\\" />\"}", "{\"a\":\"<img src=\\\"http://x/y.png\\\">\"}");
+    }
+
+    private static void assertJson(String expected, String input)
+    {
+        byte[] clean = HTMLSanitizer.cleanJson(input.getBytes(StandardCharsets.UTF_8));
+        assertEquals(expected, new String(clean, StandardCharsets.UTF_8));
+    }
+}
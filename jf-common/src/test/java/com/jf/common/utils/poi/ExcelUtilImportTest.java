@@ -0,0 +1,135 @@
+package com.jf.common.utils.poi;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import com.jf.common.core.domain.entity.SysUser;
+
+/**
+ * Excel流式导入测试，结果需与整表导入一致
+ *
+ * @author jf
+ */
+public class ExcelUtilImportTest
+{
+    private static final String[] HEADERS = { "部门编号", "登录名称", "用户名称", "用户邮箱", "手机号码", "用户性别", "账号状态" };
+
+    @Test
+    public void streamMatchesWorkbookImport() throws Exception
+    {
+        byte[] file = createFile(new XSSFWorkbook(), 0, 5);
+
+        List<SysUser> expected = new ExcelUtil<SysUser>(SysUser.class).importExcel(new ByteArrayInputStream(file));
+        List<SysUser> actual = new ArrayList<SysUser>();
+        ExcelUtil<SysUser> util = new ExcelUtil<SysUser>(SysUser.class);
+        util.importStream(new ByteArrayInputStream(file), 0, 100, actual::addAll);
+
+        assertEquals(5, expected.size());
+        assertUsersEqual(expected, actual);
+        assertTrue(util.getImportErrors().isEmpty());
+        SysUser first = actual.get(0);
+        assertEquals(Long.valueOf(100), first.getDeptId());
+        assertEquals("user0", first.getUserName());
+        assertEquals("13800000000", first.getPhonenumber());
+        assertEquals("0", first.getSex());
+        assertEquals("0", first.getStatus());
+    }
+
+    @Test
+    public void streamDeliversBatches() throws Exception
+    {
+        byte[] file = createFile(new XSSFWorkbook(), 0, 5);
+        List<Integer> sizes = new ArrayList<Integer>();
+        new ExcelUtil<SysUser>(SysUser.class).importStream(new ByteArrayInputStream(file), 0, 2, batch -> sizes.add(batch.size()));
+        assertEquals(List.of(2, 2, 1), sizes);
+    }
+
+    @Test
+    public void streamSkipsTitleAndBlankRows() throws Exception
+    {
+        XSSFWorkbook wb = new XSSFWorkbook();
+        byte[] file = createFile(wb, 1, 3);
+        List<SysUser> actual = new ArrayList<SysUser>();
+        new ExcelUtil<SysUser>(SysUser.class).importStream(new ByteArrayInputStream(file), 1, 100, actual::addAll);
+        assertEquals(3, actual.size());
+        assertEquals("user2", actual.get(2).getUserName());
+    }
+
+    @Test
+    public void xlsFallsBackToWorkbookImport() throws Exception
+    {
+        byte[] file = createFile(new HSSFWorkbook(), 0, 3);
+        List<Integer> sizes = new ArrayList<Integer>();
+        List<SysUser> actual = new ArrayList<SysUser>();
+        new ExcelUtil<SysUser>(SysUser.class).importStream(new ByteArrayInputStream(file), 0, 2, batch -> {
+            sizes.add(batch.size());
+            actual.addAll(batch);
+        });
+        assertEquals(List.of(2, 1), sizes);
+        assertUsersEqual(new ExcelUtil<SysUser>(SysUser.class).importExcel(new ByteArrayInputStream(file)), actual);
+    }
+
+    /**
+     * 生成导入文件，titleNum大于0时在表头前加标题行，数据行之间插入一个空行
+     */
+    private static byte[] createFile(Workbook wb, int titleNum, int rows) throws Exception
+    {
+        try (Workbook workbook = wb; ByteArrayOutputStream out = new ByteArrayOutputStream())
+        {
+            Sheet sheet = workbook.createSheet("用户数据");
+            int rowNum = 0;
+            if (titleNum > 0)
+            {
+                sheet.createRow(rowNum++).createCell(0).setCellValue("用户数据");
+            }
+            Row head = sheet.createRow(rowNum++);
+            for (int i = 0; i < HEADERS.length; i++)
+            {
+                head.createCell(i).setCellValue(HEADERS[i]);
+            }
+            for (int i = 0; i < rows; i++)
+            {
+                if (i == 1)
+                {
+                    sheet.createRow(rowNum++);
+                }
+                Row row = sheet.createRow(rowNum++);
+                row.createCell(0).setCellValue(100 + i);
+                row.createCell(1).setCellValue("user" + i);
+                row.createCell(2).setCellValue("用户" + i);
+                row.createCell(3).setCellValue("user" + i + "@jf.com");
+                row.createCell(4).setCellValue("1380000000" + i);
+                row.createCell(5).setCellValue(i % 2 == 0 ? "男" : "女");
+                row.createCell(6).setCellValue("正常");
+            }
+            workbook.write(out);
+            return out.toByteArray();
+        }
+    }
+
+    private static void assertUsersEqual(List<SysUser> expected, List<SysUser> actual)
+    {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++)
+        {
+            SysUser e = expected.get(i);
+            SysUser a = actual.get(i);
+            assertEquals(e.getDeptId(), a.getDeptId());
+            assertEquals(e.getUserName(), a.getUserName());
+            assertEquals(e.getNickName(), a.getNickName());
+            assertEquals(e.getEmail(), a.getEmail());
+            assertEquals(e.getPhonenumber(), a.getPhonenumber());
+            assertEquals(e.getSex(), a.getSex());
+            assertEquals(e.getStatus(), a.getStatus());
+        }
+    }
+}
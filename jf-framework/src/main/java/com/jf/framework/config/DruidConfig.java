@@ -3,21 +3,28 @@ package com.jf.framework.config;
 import java.io.IOException;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
 import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 import com.alibaba.druid.pool.DruidDataSource;
 import com.alibaba.druid.spring.boot3.autoconfigure.DruidDataSourceBuilder;
 import com.alibaba.druid.spring.boot3.autoconfigure.properties.DruidStatProperties;
 import com.alibaba.druid.util.Utils;
 import com.jf.common.enums.DataSourceType;
 import com.jf.common.utils.spring.SpringUtils;
+import com.jf.common.utils.StringUtils;
 import com.jf.framework.config.properties.DruidProperties;
+import com.jf.framework.config.properties.ReadWriteProperties;
 import com.jf.framework.datasource.DynamicDataSource;
+import com.jf.framework.datasource.ReadWriteRouter;
 import jakarta.servlet.Filter;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
@@ -49,14 +56,51 @@ public class DruidConfig
         return druidProperties.dataSource(dataSource);
     }
 
+    @Bean(destroyMethod = "close")
+    @ConditionalOnProperty(prefix = "spring.datasource.druid.read-write", name = "enabled", havingValue = "true")
+    public ReadWriteRouter readWriteRouter(ReadWriteProperties readWriteProperties, DruidProperties druidProperties,
+            @Qualifier("scheduledExecutorService") ScheduledExecutorService scheduledExecutorService)
+    {
+        ReadWriteRouter router = new ReadWriteRouter(readWriteProperties.getMaxLag());
+        try
+        {
+            // 开启的从库数据源同样参与读路由
+            router.addReplica(SpringUtils.getBean("slaveDataSource"), 1, false);
+        }
+        catch (Exception e)
+        {
+        }
+        for (ReadWriteProperties.Replica replica : readWriteProperties.getReplicas())
+        {
+            if (StringUtils.isEmpty(replica.getUrl()))
+            {
+                continue;
+            }
+            DruidDataSource dataSource = druidProperties.dataSource(DruidDataSourceBuilder.create().build());
+            dataSource.setUrl(replica.getUrl());
+            dataSource.setUsername(replica.getUsername());
+            dataSource.setPassword(replica.getPassword());
+            router.addReplica(dataSource, replica.getWeight(), true);
+        }
+        router.start(scheduledExecutorService, readWriteProperties.getCheckInterval());
+        return router;
+    }
+
     @Bean(name = "dynamicDataSource")
     @Primary
-    public DynamicDataSource dataSource(DataSource masterDataSource)
+    public DataSource dataSource(DataSource masterDataSource, ObjectProvider<ReadWriteRouter> readWriteRouter)
     {
         Map<Object, Object> targetDataSources = new HashMap<>();
         targetDataSources.put(DataSourceType.MASTER.name(), masterDataSource);
         setDataSource(targetDataSources, DataSourceType.SLAVE.name(), "slaveDataSource");
-        return new DynamicDataSource(masterDataSource, targetDataSources);
+        ReadWriteRouter router = readWriteRouter.getIfAvailable();
+        if (router == null)
+        {
+            return new DynamicDataSource(masterDataSource, targetDataSources);
+        }
+        targetDataSources.putAll(router.getTargetDataSources());
+        // 延迟到执行第一条语句时获取连接，此时事务的只读属性已确定
+        return new LazyConnectionDataSourceProxy(new DynamicDataSource(masterDataSource, targetDataSources, router));
     }
     
     /**
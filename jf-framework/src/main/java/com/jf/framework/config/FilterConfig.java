@@ -31,6 +31,12 @@ public class FilterConfig
     @Value("${referer.allowed-domains}")
     private String allowedDomains;
 
+    @Value("${repeatable.maxBodySize:1048576}")
+    private String maxBodySize;
+
+    @Value("${repeatable.excludes:}")
+    private String repeatableExcludes;
+
     @SuppressWarnings({ "rawtypes", "unchecked" })
     @Bean
     @ConditionalOnProperty(value = "xss.enabled", havingValue = "true")
@@ -74,6 +80,10 @@ public class FilterConfig
         registration.addUrlPatterns("/*");
         registration.setName("repeatableFilter");
         registration.setOrder(FilterRegistrationBean.LOWEST_PRECEDENCE);
+        Map<String, String> initParameters = new HashMap<String, String>();
+        initParameters.put("maxBodySize", maxBodySize);
+        initParameters.put("excludes", repeatableExcludes);
+        registration.setInitParameters(initParameters);
         return registration;
     }
 
@@ -23,6 +23,10 @@ import org.springframework.core.type.classreading.MetadataReader;
 import org.springframework.core.type.classreading.MetadataReaderFactory;
 import org.springframework.util.ClassUtils;
 import com.jf.common.utils.StringUtils;
+import com.jf.framework.datasource.ReadWriteInterceptor;
+import com.jf.framework.interceptor.PageCountInterceptor;
+import com.jf.framework.interceptor.StatementCaptureInterceptor;
+import com.jf.framework.metrics.PerfMapperInterceptor;
 
 /**
  * Mybatis支持*匹配扫描包
@@ -35,6 +39,9 @@ public class MyBatisConfig
     @Autowired
     private Environment env;
 
+    @Autowired
+    private PageCountInterceptor pageCountInterceptor;
+
     static final String DEFAULT_RESOURCE_PATTERN = "**/*.class";
 
     public static String setTypeAliasesPackage(String typeAliasesPackage)
@@ -127,6 +134,7 @@ public class MyBatisConfig
         sessionFactory.setTypeAliasesPackage(typeAliasesPackage);
         sessionFactory.setMapperLocations(resolveMapperLocations(StringUtils.split(mapperLocations, ",")));
         sessionFactory.setConfigLocation(new DefaultResourceLoader().getResource(configLocation));
+        sessionFactory.setPlugins(pageCountInterceptor, new PerfMapperInterceptor(), new ReadWriteInterceptor(), new StatementCaptureInterceptor());
         return sessionFactory.getObject();
     }
 }
\ No newline at end of file
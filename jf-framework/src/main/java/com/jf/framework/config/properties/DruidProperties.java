@@ -51,6 +51,12 @@ public class DruidProperties
     @Value("${spring.datasource.druid.testOnReturn}")
     private boolean testOnReturn;
 
+    @Value("${spring.datasource.druid.poolPreparedStatements:false}")
+    private boolean poolPreparedStatements;
+
+    @Value("${spring.datasource.druid.maxPoolPreparedStatementPerConnectionSize:20}")
+    private int maxPoolPreparedStatementPerConnectionSize;
+
     public DruidDataSource dataSource(DruidDataSource datasource)
     {
         /** 配置初始化大小、最小、最大 */
@@ -84,6 +90,10 @@ public class DruidProperties
         datasource.setTestOnBorrow(testOnBorrow);
         /** 归还连接时执行validationQuery检测连接是否有效，做了这个配置会降低性能。 */
         datasource.setTestOnReturn(testOnReturn);
+
+        /** 缓存预编译语句，配合useServerPrepStmts避免每次执行都在数据库端重新预编译 */
+        datasource.setPoolPreparedStatements(poolPreparedStatements);
+        datasource.setMaxPoolPreparedStatementPerConnectionSize(maxPoolPreparedStatementPerConnectionSize);
         return datasource;
     }
 }
@@ -0,0 +1,123 @@
+package com.jf.framework.config.properties;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 读写分离配置属性
+ *
+ * @author jf
+ */
+@Configuration
+@ConfigurationProperties(prefix = "spring.datasource.druid.read-write")
+public class ReadWriteProperties
+{
+    /** 读写分离开关 */
+    private boolean enabled;
+
+    /** 从库复制延迟上限（秒），超过时不参与路由 */
+    private int maxLag = 5;
+
+    /** 复制延迟检测间隔（秒） */
+    private int checkInterval = 5;
+
+    /** 从库列表 */
+    private List<Replica> replicas = new ArrayList<Replica>();
+
+    public boolean isEnabled()
+    {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled)
+    {
+        this.enabled = enabled;
+    }
+
+    public int getMaxLag()
+    {
+        return maxLag;
+    }
+
+    public void setMaxLag(int maxLag)
+    {
+        this.maxLag = maxLag;
+    }
+
+    public int getCheckInterval()
+    {
+        return checkInterval;
+    }
+
+    public void setCheckInterval(int checkInterval)
+    {
+        this.checkInterval = checkInterval;
+    }
+
+    public List<Replica> getReplicas()
+    {
+        return replicas;
+    }
+
+    public void setReplicas(List<Replica> replicas)
+    {
+        this.replicas = replicas;
+    }
+
+    /**
+     * 从库连接配置
+     */
+    public static class Replica
+    {
+        private String url;
+
+        private String username;
+
+        private String password;
+
+        /** 负载权重 */
+        private int weight = 1;
+
+        public String getUrl()
+        {
+            return url;
+        }
+
+        public void setUrl(String url)
+        {
+            this.url = url;
+        }
+
+        public String getUsername()
+        {
+            return username;
+        }
+
+        public void setUsername(String username)
+        {
+            this.username = username;
+        }
+
+        public String getPassword()
+        {
+            return password;
+        }
+
+        public void setPassword(String password)
+        {
+            this.password = password;
+        }
+
+        public int getWeight()
+        {
+            return weight;
+        }
+
+        public void setWeight(int weight)
+        {
+            this.weight = weight;
+        }
+    }
+}
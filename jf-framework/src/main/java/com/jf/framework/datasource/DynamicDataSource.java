@@ -3,6 +3,7 @@ package com.jf.framework.datasource;
 import java.util.Map;
 import javax.sql.DataSource;
 import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 /**
  * 动态数据源
@@ -11,8 +12,17 @@ import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
  */
 public class DynamicDataSource extends AbstractRoutingDataSource
 {
+    /** 读写分离路由，未开启时为null */
+    private final ReadWriteRouter readWriteRouter;
+
     public DynamicDataSource(DataSource defaultTargetDataSource, Map<Object, Object> targetDataSources)
     {
+        this(defaultTargetDataSource, targetDataSources, null);
+    }
+
+    public DynamicDataSource(DataSource defaultTargetDataSource, Map<Object, Object> targetDataSources, ReadWriteRouter readWriteRouter)
+    {
+        this.readWriteRouter = readWriteRouter;
         super.setDefaultTargetDataSource(defaultTargetDataSource);
         super.setTargetDataSources(targetDataSources);
         super.afterPropertiesSet();
@@ -21,6 +31,27 @@ public class DynamicDataSource extends AbstractRoutingDataSource
     @Override
     protected Object determineCurrentLookupKey()
     {
-        return DynamicDataSourceContextHolder.getDataSourceType();
+        String dataSourceType = DynamicDataSourceContextHolder.getDataSourceType();
+        if (dataSourceType != null || readWriteRouter == null || !isReadOnly())
+        {
+            return dataSourceType;
+        }
+        return readWriteRouter.choose();
+    }
+
+    /**
+     * 只读事务或事务外的查询语句可以读从库，请求内发生过写操作后留在主库
+     */
+    private boolean isReadOnly()
+    {
+        if (DynamicDataSourceContextHolder.isWritten())
+        {
+            return false;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive())
+        {
+            return TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        }
+        return DynamicDataSourceContextHolder.isRead();
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,8 @@ package com.jf.framework.datasource;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
 
 /**
  * 数据源切换处理
@@ -18,6 +20,16 @@ public class DynamicDataSourceContextHolder
      */
     private static final ThreadLocal<String> CONTEXT_HOLDER = new ThreadLocal<>();
 
+    /**
+     * 当前执行的语句是否可以读从库
+     */
+    private static final ThreadLocal<Boolean> READ_HOLDER = new ThreadLocal<>();
+
+    /**
+     * 请求内已发生写操作的标记
+     */
+    private static final String WRITTEN_ATTRIBUTE = DynamicDataSourceContextHolder.class.getName() + ".WRITTEN";
+
     /**
      * 设置数据源的变量
      */
@@ -42,4 +54,61 @@ public class DynamicDataSourceContextHolder
     {
         CONTEXT_HOLDER.remove();
     }
+
+    /**
+     * 设置当前语句是否可以读从库
+     *
+     * @param read 是否可以读从库
+     * @return 原来的设置，执行完成后通过restoreRead恢复
+     */
+    public static Boolean setRead(boolean read)
+    {
+        Boolean previous = READ_HOLDER.get();
+        READ_HOLDER.set(read);
+        return previous;
+    }
+
+    /**
+     * 恢复是否可以读从库的设置
+     */
+    public static void restoreRead(Boolean previous)
+    {
+        if (previous == null)
+        {
+            READ_HOLDER.remove();
+        }
+        else
+        {
+            READ_HOLDER.set(previous);
+        }
+    }
+
+    /**
+     * 当前语句是否可以读从库
+     */
+    public static boolean isRead()
+    {
+        return Boolean.TRUE.equals(READ_HOLDER.get());
+    }
+
+    /**
+     * 标记当前请求已发生写操作，之后的读操作留在主库
+     */
+    public static void markWritten()
+    {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null)
+        {
+            attributes.setAttribute(WRITTEN_ATTRIBUTE, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    /**
+     * 当前请求是否已发生写操作
+     */
+    public static boolean isWritten()
+    {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null && attributes.getAttribute(WRITTEN_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST) != null;
+    }
 }
@@ -0,0 +1,61 @@
+package com.jf.framework.datasource;
+
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+
+/**
+ * 读写分离语句标记，select开头的查询方法可以读从库，写操作后当前请求留在主库
+ *
+ * @author jf
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "query", args = { MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class }),
+        @Signature(type = Executor.class, method = "query", args = { MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class }),
+        @Signature(type = Executor.class, method = "update", args = { MappedStatement.class, Object.class }) })
+public class ReadWriteInterceptor implements Interceptor
+{
+    /** 可以读从库的方法名前缀 */
+    private static final String READ_PREFIX = "select";
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable
+    {
+        MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+        if (!"query".equals(invocation.getMethod().getName()))
+        {
+            DynamicDataSourceContextHolder.markWritten();
+            return invocation.proceed();
+        }
+        Boolean previous = DynamicDataSourceContextHolder.setRead(isReadStatement(ms));
+        try
+        {
+            return invocation.proceed();
+        }
+        finally
+        {
+            DynamicDataSourceContextHolder.restoreRead(previous);
+        }
+    }
+
+    /**
+     * 是否为可以读从库的查询，check等写前校验的查询仍走主库
+     */
+    private boolean isReadStatement(MappedStatement ms)
+    {
+        if (ms.getSqlCommandType() != SqlCommandType.SELECT)
+        {
+            return false;
+        }
+        String id = ms.getId();
+        return id.startsWith(READ_PREFIX, id.lastIndexOf('.') + 1);
+    }
+}
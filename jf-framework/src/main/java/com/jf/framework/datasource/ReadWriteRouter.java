@@ -0,0 +1,271 @@
+package com.jf.framework.datasource;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import com.alibaba.druid.pool.DruidDataSource;
+import com.jf.common.utils.StringUtils;
+
+/**
+ * 读写分离从库路由，按权重随机选择复制延迟未超限的从库
+ *
+ * @author jf
+ */
+public class ReadWriteRouter
+{
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRouter.class);
+
+    /** 从库数据源键前缀 */
+    public static final String REPLICA_KEY_PREFIX = "REPLICA_";
+
+    /** 复制状态查询语句及延迟列名（MySQL 8.0.22+ 与早期版本） */
+    private static final String[][] LAG_QUERIES = { { "SHOW REPLICA STATUS", "Seconds_Behind_Source" },
+            { "SHOW SLAVE STATUS", "Seconds_Behind_Master" } };
+
+    /** 连接校验超时（秒） */
+    private static final int VALID_TIMEOUT = 3;
+
+    /** 复制延迟上限（秒） */
+    private final int maxLag;
+
+    private final List<Replica> replicas = new ArrayList<Replica>();
+
+    /** 当前可用的从库及累计权重 */
+    private volatile Pool pool = new Pool(new ArrayList<Replica>());
+
+    private ScheduledFuture<?> future;
+
+    public ReadWriteRouter(int maxLag)
+    {
+        this.maxLag = maxLag;
+    }
+
+    /**
+     * 添加从库
+     *
+     * @param dataSource 数据源
+     * @param weight 负载权重，小于等于0时不参与路由
+     * @param owned 是否由路由器负责关闭
+     */
+    public void addReplica(DataSource dataSource, int weight, boolean owned)
+    {
+        replicas.add(new Replica(REPLICA_KEY_PREFIX + replicas.size(), dataSource, weight, owned));
+    }
+
+    /**
+     * 从库数据源，供动态数据源注册
+     */
+    public Map<Object, Object> getTargetDataSources()
+    {
+        Map<Object, Object> targetDataSources = new HashMap<>();
+        for (Replica replica : replicas)
+        {
+            targetDataSources.put(replica.key, replica.dataSource);
+        }
+        return targetDataSources;
+    }
+
+    /**
+     * 启动复制延迟检测，首次检测完成前读请求仍走主库
+     *
+     * @param executor 调度线程池
+     * @param interval 检测间隔（秒）
+     */
+    public void start(ScheduledExecutorService executor, int interval)
+    {
+        future = executor.scheduleWithFixedDelay(this::check, 0, Math.max(interval, 1), TimeUnit.SECONDS);
+    }
+
+    /**
+     * 选择从库
+     *
+     * @return 从库数据源键，没有可用从库时返回null
+     */
+    public String choose()
+    {
+        Pool current = pool;
+        if (current.total <= 0)
+        {
+            return null;
+        }
+        int random = ThreadLocalRandom.current().nextInt(current.total);
+        for (int i = 0; i < current.weights.length; i++)
+        {
+            if (random < current.weights[i])
+            {
+                return current.keys[i];
+            }
+        }
+        return current.keys[current.keys.length - 1];
+    }
+
+    /**
+     * 检测各从库的可用性与复制延迟，刷新可用从库
+     */
+    public void check()
+    {
+        List<Replica> available = new ArrayList<Replica>();
+        for (Replica replica : replicas)
+        {
+            boolean ok;
+            try
+            {
+                long lag = queryLag(replica);
+                ok = lag >= 0 && lag <= maxLag;
+                if (!ok && (replica.available || !replica.checked))
+                {
+                    log.warn("从库{}复制延迟{}秒，暂停读路由", replica.key, lag < 0 ? "未知" : lag);
+                }
+            }
+            catch (Exception e)
+            {
+                ok = false;
+                if (replica.available || !replica.checked)
+                {
+                    log.warn("从库{}不可用，暂停读路由：{}", replica.key, e.getMessage());
+                }
+            }
+            if (ok && replica.checked && !replica.available)
+            {
+                log.info("从库{}恢复读路由", replica.key);
+            }
+            replica.available = ok;
+            replica.checked = true;
+            if (ok && replica.weight > 0)
+            {
+                available.add(replica);
+            }
+        }
+        pool = new Pool(available);
+    }
+
+    /**
+     * 查询复制延迟
+     *
+     * @return 延迟秒数，复制中断时返回-1
+     */
+    private long queryLag(Replica replica) throws SQLException
+    {
+        try (Connection conn = replica.dataSource.getConnection())
+        {
+            if (replica.lagSupported)
+            {
+                for (String[] query : LAG_QUERIES)
+                {
+                    try (Statement stmt = conn.createStatement(); ResultSet rs = stmt.executeQuery(query[0]))
+                    {
+                        if (!rs.next())
+                        {
+                            // 未配置复制的实例视为无延迟
+                            return 0;
+                        }
+                        String value = rs.getString(query[1]);
+                        return StringUtils.isEmpty(value) ? -1 : Long.parseLong(value);
+                    }
+                    catch (SQLException e)
+                    {
+                        log.debug("从库{}执行{}失败：{}", replica.key, query[0], e.getMessage());
+                    }
+                }
+                if (!conn.isValid(VALID_TIMEOUT))
+                {
+                    throw new SQLException("连接校验失败");
+                }
+                // 非MySQL从库无法获取复制延迟，仅校验连接可用
+                replica.lagSupported = false;
+                log.warn("从库{}不支持复制状态查询，仅检测连接可用性", replica.key);
+                return 0;
+            }
+            if (!conn.isValid(VALID_TIMEOUT))
+            {
+                throw new SQLException("连接校验失败");
+            }
+            return 0;
+        }
+    }
+
+    /**
+     * 停止检测并关闭由路由器创建的从库连接池
+     */
+    public void close()
+    {
+        if (future != null)
+        {
+            future.cancel(false);
+        }
+        for (Replica replica : replicas)
+        {
+            if (replica.owned && replica.dataSource instanceof DruidDataSource)
+            {
+                ((DruidDataSource) replica.dataSource).close();
+            }
+        }
+    }
+
+    /**
+     * 从库
+     */
+    private static class Replica
+    {
+        final String key;
+
+        final DataSource dataSource;
+
+        final int weight;
+
+        final boolean owned;
+
+        volatile boolean available;
+
+        /** 是否已完成首次检测 */
+        volatile boolean checked;
+
+        volatile boolean lagSupported = true;
+
+        Replica(String key, DataSource dataSource, int weight, boolean owned)
+        {
+            this.key = key;
+            this.dataSource = dataSource;
+            this.weight = weight;
+            this.owned = owned;
+        }
+    }
+
+    /**
+     * 可用从库快照，weights为累计权重
+     */
+    private static class Pool
+    {
+        final String[] keys;
+
+        final int[] weights;
+
+        final int total;
+
+        Pool(List<Replica> available)
+        {
+            keys = new String[available.size()];
+            weights = new int[available.size()];
+            int sum = 0;
+            for (int i = 0; i < keys.length; i++)
+            {
+                sum += available.get(i).weight;
+                keys[i] = available.get(i).key;
+                weights[i] = sum;
+            }
+            total = sum;
+        }
+    }
+}
@@ -0,0 +1,292 @@
+package com.jf.framework.interceptor;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import com.jf.common.constant.CacheConstants;
+import com.jf.common.core.redis.RedisCache;
+import com.jf.common.utils.sign.Md5Utils;
+
+/**
+ * 分页总数缓存，拦截PageHelper生成的count查询
+ *
+ * 缓存键由count语句、SQL（含数据权限条件）及参数组成，并带上所涉及表的版本号，
+ * 表发生增删改后版本号递增，原有缓存随之失效；无条件的单表count超过阈值时使用information_schema估算行数
+ *
+ * @author jf
+ */
+@Component
+@Intercepts({
+        @Signature(type = Executor.class, method = "query", args = { MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class }),
+        @Signature(type = Executor.class, method = "update", args = { MappedStatement.class, Object.class }) })
+public class PageCountInterceptor implements Interceptor
+{
+    private static final Logger log = LoggerFactory.getLogger(PageCountInterceptor.class);
+
+    /** PageHelper count语句后缀 */
+    private static final String COUNT_SUFFIX = "_COUNT";
+
+    /** 事务内待递增版本号的表 */
+    private static final Object PENDING_TABLES = new Object();
+
+    /** SQL中引用的表 */
+    private static final Pattern TABLE_PATTERN = Pattern.compile("(?i)\\b(?:from|join|into|update|table)\\s+`?(\\w+)`?");
+
+    /** 无条件的单表count */
+    private static final Pattern SIMPLE_COUNT_PATTERN = Pattern.compile("(?is)^\\s*select\\s+count\\(\\s*(?:0|1|\\*)\\s*\\)\\s+from\\s+`?(\\w+)`?(?:\\s+(?:as\\s+)?\\w+)?\\s*$");
+
+    private static final String ESTIMATE_SQL = "select table_rows from information_schema.tables where table_schema = database() and table_name = ?";
+
+    /** 缓存开关 */
+    @Value("${pageCount.enabled:true}")
+    private boolean enabled;
+
+    /** 缓存时间（秒） */
+    @Value("${pageCount.expireTime:60}")
+    private int expireTime;
+
+    /** 估算阈值，无条件单表count的估算行数超过该值时直接使用估算值，0表示不估算 */
+    @Value("${pageCount.estimateThreshold:0}")
+    private long estimateThreshold;
+
+    @Autowired
+    private RedisCache redisCache;
+
+    /** 缓存解析结果的最大SQL数 */
+    private static final int MAX_CACHED_SQL = 2000;
+
+    /** 各SQL引用的表，按实际执行的SQL缓存（动态SQL、数据权限条件、${}表名会产生不同的SQL） */
+    private final ConcurrentMap<String, List<String>> sqlTables = new ConcurrentHashMap<String, List<String>>();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable
+    {
+        Object[] args = invocation.getArgs();
+        MappedStatement ms = (MappedStatement) args[0];
+        if (!enabled)
+        {
+            return invocation.proceed();
+        }
+        if (args.length == 2)
+        {
+            Object result = invocation.proceed();
+            changed(getTables(ms.getBoundSql(args[1]).getSql()));
+            return result;
+        }
+        if (!ms.getId().endsWith(COUNT_SUFFIX))
+        {
+            return invocation.proceed();
+        }
+
+        BoundSql boundSql = (BoundSql) args[5];
+        List<String> tables = getTables(boundSql.getSql());
+        String key = null;
+        try
+        {
+            key = getCountKey((CacheKey) args[4], tables);
+            Number cached = redisCache.getCacheObject(key);
+            if (cached != null)
+            {
+                return Collections.singletonList(cached.longValue());
+            }
+        }
+        catch (Exception e)
+        {
+            log.warn("读取分页总数缓存失败：{}", e.getMessage());
+        }
+
+        Long count = estimate((Executor) invocation.getTarget(), boundSql.getSql());
+        List<Object> result;
+        if (count != null)
+        {
+            result = Collections.singletonList(count);
+        }
+        else
+        {
+            @SuppressWarnings("unchecked")
+            List<Object> list = (List<Object>) invocation.proceed();
+            result = list;
+            if (list.size() == 1 && list.get(0) instanceof Number)
+            {
+                count = ((Number) list.get(0)).longValue();
+            }
+        }
+        if (key != null && count != null)
+        {
+            try
+            {
+                redisCache.setCacheObject(key, count, expireTime, TimeUnit.SECONDS);
+            }
+            catch (Exception e)
+            {
+                log.warn("写入分页总数缓存失败：{}", e.getMessage());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 缓存键：count语句的CacheKey（语句、SQL、参数）加上各表版本号
+     */
+    private String getCountKey(CacheKey cacheKey, List<String> tables)
+    {
+        StringBuilder sb = new StringBuilder(cacheKey.toString());
+        if (!tables.isEmpty())
+        {
+            List<Object> keys = new ArrayList<Object>(tables.size());
+            for (String table : tables)
+            {
+                keys.add(CacheConstants.PAGE_COUNT_VERSION_KEY + table);
+            }
+            List<Object> versions = redisCache.redisTemplate.opsForValue().multiGet(keys);
+            sb.append(':').append(versions);
+        }
+        return CacheConstants.PAGE_COUNT_KEY + Md5Utils.hash(sb.toString());
+    }
+
+    /**
+     * 表数据变化，递增版本号；事务中延迟到提交后执行
+     */
+    @SuppressWarnings("unchecked")
+    private void changed(List<String> tables)
+    {
+        if (tables.isEmpty())
+        {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isSynchronizationActive())
+        {
+            increment(tables);
+            return;
+        }
+        Set<String> pending = (Set<String>) TransactionSynchronizationManager.getResource(PENDING_TABLES);
+        if (pending == null)
+        {
+            Set<String> created = new LinkedHashSet<String>();
+            pending = created;
+            TransactionSynchronizationManager.bindResource(PENDING_TABLES, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization()
+            {
+                @Override
+                public void afterCommit()
+                {
+                    increment(created);
+                }
+
+                @Override
+                public void afterCompletion(int status)
+                {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(PENDING_TABLES);
+                }
+            });
+        }
+        pending.addAll(tables);
+    }
+
+    private void increment(Iterable<String> tables)
+    {
+        try
+        {
+            for (String table : tables)
+            {
+                redisCache.redisTemplate.opsForValue().increment(CacheConstants.PAGE_COUNT_VERSION_KEY + table);
+            }
+        }
+        catch (Exception e)
+        {
+            log.warn("更新分页总数缓存版本失败：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 无条件的单表count，估算行数超过阈值时返回估算值
+     */
+    private Long estimate(Executor executor, String sql)
+    {
+        if (estimateThreshold <= 0)
+        {
+            return null;
+        }
+        Matcher matcher = SIMPLE_COUNT_PATTERN.matcher(sql);
+        if (!matcher.matches())
+        {
+            return null;
+        }
+        try
+        {
+            Connection conn = executor.getTransaction().getConnection();
+            try (PreparedStatement ps = conn.prepareStatement(ESTIMATE_SQL))
+            {
+                ps.setString(1, matcher.group(1));
+                try (ResultSet rs = ps.executeQuery())
+                {
+                    if (rs.next())
+                    {
+                        long rows = rs.getLong(1);
+                        return rows >= estimateThreshold ? rows : null;
+                    }
+                }
+            }
+        }
+        catch (Exception e)
+        {
+            log.warn("估算表{}行数失败：{}", matcher.group(1), e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * SQL引用的表，按SQL文本缓存
+     */
+    private List<String> getTables(String sql)
+    {
+        List<String> cached = sqlTables.get(sql);
+        if (cached != null)
+        {
+            return cached;
+        }
+        Set<String> tables = new LinkedHashSet<String>();
+        Matcher matcher = TABLE_PATTERN.matcher(sql);
+        while (matcher.find())
+        {
+            String table = matcher.group(1).toLowerCase();
+            if (!"select".equals(table) && !"dual".equals(table))
+            {
+                tables.add(table);
+            }
+        }
+        List<String> result = new ArrayList<String>(tables);
+        if (sqlTables.size() < MAX_CACHED_SQL)
+        {
+            sqlTables.put(sql, result);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,41 @@
+package com.jf.framework.interceptor;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import com.jf.framework.metrics.PerfMetrics;
+
+/**
+ * 接口耗时统计拦截器，按 Controller类名.方法名 记录
+ *
+ * @author jf
+ */
+@Component
+public class PerfInterceptor implements HandlerInterceptor
+{
+    private static final String START_TIME = PerfInterceptor.class.getName() + ".START_TIME";
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws Exception
+    {
+        if (handler instanceof HandlerMethod)
+        {
+            request.setAttribute(START_TIME, System.nanoTime());
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) throws Exception
+    {
+        Object start = request.getAttribute(START_TIME);
+        if (start instanceof Long && handler instanceof HandlerMethod)
+        {
+            HandlerMethod handlerMethod = (HandlerMethod) handler;
+            String name = handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+            PerfMetrics.record(PerfMetrics.HTTP, name, System.nanoTime() - (Long) start);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.jf.framework.interceptor;
+
+import java.sql.Statement;
+import java.util.function.Consumer;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.ResultHandler;
+
+/**
+ * 获取当前线程正在执行的查询语句，用于从其他线程取消流式查询
+ * 
+ * MySQL流式结果集关闭时会读完剩余数据，取消导出时需要Statement.cancel()让服务端终止查询
+ *
+ * @author jf
+ */
+@Intercepts({ @Signature(type = StatementHandler.class, method = "query", args = { Statement.class, ResultHandler.class }) })
+public class StatementCaptureInterceptor implements Interceptor
+{
+    private static final ThreadLocal<Consumer<Statement>> LISTENER = new ThreadLocal<Consumer<Statement>>();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable
+    {
+        Consumer<Statement> listener = LISTENER.get();
+        if (listener == null)
+        {
+            return invocation.proceed();
+        }
+        listener.accept((Statement) invocation.getArgs()[0]);
+        try
+        {
+            return invocation.proceed();
+        }
+        finally
+        {
+            listener.accept(null);
+        }
+    }
+
+    /**
+     * 执行操作，期间每条查询开始时以语句、结束时以null通知listener
+     * 
+     * @param listener 语句监听
+     * @param action 操作
+     */
+    public static void capture(Consumer<Statement> listener, Runnable action)
+    {
+        LISTENER.set(listener);
+        try
+        {
+            action.run();
+        }
+        finally
+        {
+            LISTENER.remove();
+        }
+    }
+}
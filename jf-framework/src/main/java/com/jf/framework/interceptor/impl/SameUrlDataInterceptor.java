@@ -1,7 +1,9 @@
 package com.jf.framework.interceptor.impl;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 import java.util.concurrent.TimeUnit;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,23 +13,24 @@ import com.alibaba.fastjson2.JSON;
 import com.jf.common.annotation.RepeatSubmit;
 import com.jf.common.constant.CacheConstants;
 import com.jf.common.core.redis.RedisCache;
+import com.jf.common.exception.UtilException;
 import com.jf.common.filter.RepeatedlyRequestWrapper;
 import com.jf.common.utils.StringUtils;
-import com.jf.common.utils.http.HttpHelper;
 import com.jf.framework.interceptor.RepeatSubmitInterceptor;
 
 /**
  * 判断请求url和数据是否和上一次相同，
  * 如果和上次相同，则是重复提交表单。 有效时间为10秒内。
  * 
+ * 缓存中只保存 (url, 令牌, 请求参数) 的128位摘要，通过 SET NX PX 一次往返完成判断和写入。
+ * 
  * @author jf
  */
 @Component
 public class SameUrlDataInterceptor extends RepeatSubmitInterceptor
 {
-    public final String REPEAT_PARAMS = "repeatParams";
-
-    public final String REPEAT_TIME = "repeatTime";
+    /** 摘要字段分隔符 */
+    private static final byte SEPARATOR = 0;
 
     // 令牌自定义标识
     @Value("${token.header}")
@@ -36,75 +39,52 @@ public class SameUrlDataInterceptor extends RepeatSubmitInterceptor
     @Autowired
     private RedisCache redisCache;
 
-    @SuppressWarnings("unchecked")
     @Override
     public boolean isRepeatSubmit(HttpServletRequest request, RepeatSubmit annotation)
     {
-        String nowParams = "";
-        if (request instanceof RepeatedlyRequestWrapper)
+        // 请求体超出缓存长度（如未声明长度的分块请求）时摘要只含前缀，不同请求会被误判为重复，不做校验
+        if (request instanceof RepeatedlyRequestWrapper && !((RepeatedlyRequestWrapper) request).isCached())
         {
-            RepeatedlyRequestWrapper repeatedlyRequest = (RepeatedlyRequestWrapper) request;
-            nowParams = HttpHelper.getBodyString(repeatedlyRequest);
+            return false;
         }
 
-        // body参数为空，获取Parameter的数据
-        if (StringUtils.isEmpty(nowParams))
-        {
-            nowParams = JSON.toJSONString(request.getParameterMap());
-        }
-        Map<String, Object> nowDataMap = new HashMap<String, Object>();
-        nowDataMap.put(REPEAT_PARAMS, nowParams);
-        nowDataMap.put(REPEAT_TIME, System.currentTimeMillis());
-
-        // 请求地址（作为存放cache的key值）
+        // 请求地址
         String url = request.getRequestURI();
 
         // 唯一值（没有消息头则使用请求地址）
         String submitKey = StringUtils.trimToEmpty(request.getHeader(header));
 
-        // 唯一标识（指定key + url + 消息头）
-        String cacheRepeatKey = CacheConstants.REPEAT_SUBMIT_KEY + url + submitKey;
-
-        Object sessionObj = redisCache.getCacheObject(cacheRepeatKey);
-        if (sessionObj != null)
+        MessageDigest digest = newDigest();
+        digest.update(url.getBytes(StandardCharsets.UTF_8));
+        digest.update(SEPARATOR);
+        digest.update(submitKey.getBytes(StandardCharsets.UTF_8));
+        digest.update(SEPARATOR);
+        if (request instanceof RepeatedlyRequestWrapper && !((RepeatedlyRequestWrapper) request).isEmptyBody())
         {
-            Map<String, Object> sessionMap = (Map<String, Object>) sessionObj;
-            if (sessionMap.containsKey(url))
-            {
-                Map<String, Object> preDataMap = (Map<String, Object>) sessionMap.get(url);
-                if (compareParams(nowDataMap, preDataMap) && compareTime(nowDataMap, preDataMap, annotation.interval()))
-                {
-                    return true;
-                }
-            }
+            ((RepeatedlyRequestWrapper) request).updateDigest(digest);
+        }
+        else
+        {
+            // body参数为空，获取Parameter的数据
+            digest.update(JSON.toJSONString(request.getParameterMap()).getBytes(StandardCharsets.UTF_8));
         }
-        Map<String, Object> cacheMap = new HashMap<String, Object>();
-        cacheMap.put(url, nowDataMap);
-        redisCache.setCacheObject(cacheRepeatKey, cacheMap, annotation.interval(), TimeUnit.MILLISECONDS);
-        return false;
-    }
 
-    /**
-     * 判断参数是否相同
-     */
-    private boolean compareParams(Map<String, Object> nowMap, Map<String, Object> preMap)
-    {
-        String nowParams = (String) nowMap.get(REPEAT_PARAMS);
-        String preParams = (String) preMap.get(REPEAT_PARAMS);
-        return nowParams.equals(preParams);
+        // 唯一标识（指定key + 请求摘要）
+        String cacheRepeatKey = CacheConstants.REPEAT_SUBMIT_KEY + HexFormat.of().formatHex(digest.digest());
+
+        // 键已存在说明间隔时间内提交过相同数据
+        return !redisCache.setCacheObjectIfAbsent(cacheRepeatKey, System.currentTimeMillis(), annotation.interval(), TimeUnit.MILLISECONDS);
     }
 
-    /**
-     * 判断两次间隔时间
-     */
-    private boolean compareTime(Map<String, Object> nowMap, Map<String, Object> preMap, int interval)
+    private static MessageDigest newDigest()
     {
-        long time1 = (Long) nowMap.get(REPEAT_TIME);
-        long time2 = (Long) preMap.get(REPEAT_TIME);
-        if ((time1 - time2) < interval)
+        try
+        {
+            return MessageDigest.getInstance("MD5");
+        }
+        catch (NoSuchAlgorithmException e)
         {
-            return true;
+            throw new UtilException(e);
         }
-        return false;
     }
 }
@@ -0,0 +1,233 @@
+package com.jf.framework.manager;
+
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.imageio.ImageIO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.annotation.Resource;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.FastByteArrayOutputStream;
+import com.google.code.kaptcha.Producer;
+import com.jf.common.config.JFConfig;
+import com.jf.common.exception.ServiceException;
+import com.jf.common.utils.sign.Base64;
+import com.jf.framework.metrics.PerfMetrics;
+
+/**
+ * 验证码池
+ * 
+ * 后台线程预先生成验证码图片（已转为Base64）和答案，请求时无锁取出，每个只发放一次；
+ * 剩余数量低于lowWatermark时补充到size，池为空时当场生成
+ * 
+ * @author jf
+ */
+@Component
+public class CaptchaPool
+{
+    private static final Logger log = LoggerFactory.getLogger(CaptchaPool.class);
+
+    /** 池容量，0表示不预先生成 */
+    @Value("${captchaPool.size:200}")
+    private int size;
+
+    /** 补充水位，剩余数量低于该值时开始补充 */
+    @Value("${captchaPool.lowWatermark:50}")
+    private int lowWatermark;
+
+    @Resource(name = "captchaProducer")
+    private Producer captchaProducer;
+
+    @Resource(name = "captchaProducerMath")
+    private Producer captchaProducerMath;
+
+    private final ConcurrentLinkedQueue<Captcha> pool = new ConcurrentLinkedQueue<Captcha>();
+
+    /** 池中剩余数量，ConcurrentLinkedQueue.size()需要遍历，单独计数 */
+    private final AtomicInteger depth = new AtomicInteger();
+
+    private final AtomicBoolean refilling = new AtomicBoolean();
+
+    /** 累计生成数 */
+    private final AtomicLong rendered = new AtomicLong();
+
+    /** 池为空时当场生成的次数 */
+    private final AtomicLong misses = new AtomicLong();
+
+    private ExecutorService refiller;
+
+    @PostConstruct
+    public void init()
+    {
+        // 图片在内存中编码，不使用ImageIO的磁盘缓存
+        ImageIO.setUseCache(false);
+        if (size > 0)
+        {
+            refiller = Executors.newSingleThreadExecutor(new BasicThreadFactory.Builder().namingPattern("captcha-pool-%d").daemon(true).build());
+            refill();
+        }
+    }
+
+    /**
+     * 取出一个验证码
+     * 
+     * @return 验证码
+     */
+    public Captcha take()
+    {
+        Captcha captcha = pool.poll();
+        if (captcha != null)
+        {
+            depth.decrementAndGet();
+        }
+        else
+        {
+            misses.incrementAndGet();
+            captcha = render();
+        }
+        if (depth.get() < lowWatermark)
+        {
+            refill();
+        }
+        return captcha;
+    }
+
+    /**
+     * 后台补充到池容量，同一时间只有一个补充任务
+     */
+    private void refill()
+    {
+        if (refiller == null || !refilling.compareAndSet(false, true))
+        {
+            return;
+        }
+        try
+        {
+            refiller.execute(() -> {
+                try
+                {
+                    while (depth.get() < size)
+                    {
+                        pool.offer(render());
+                        depth.incrementAndGet();
+                    }
+                }
+                catch (Exception e)
+                {
+                    log.warn("补充验证码池失败：{}", e.getMessage());
+                }
+                finally
+                {
+                    refilling.set(false);
+                }
+            });
+        }
+        catch (RejectedExecutionException e)
+        {
+            refilling.set(false);
+        }
+    }
+
+    /**
+     * 按配置的验证码类型生成
+     */
+    private Captcha render()
+    {
+        long start = System.nanoTime();
+        String capStr, code;
+        BufferedImage image;
+        if ("math".equals(JFConfig.getCaptchaType()))
+        {
+            String capText = captchaProducerMath.createText();
+            capStr = capText.substring(0, capText.lastIndexOf("@"));
+            code = capText.substring(capText.lastIndexOf("@") + 1);
+            image = captchaProducerMath.createImage(capStr);
+        }
+        else
+        {
+            capStr = code = captchaProducer.createText();
+            image = captchaProducer.createImage(capStr);
+        }
+        FastByteArrayOutputStream os = new FastByteArrayOutputStream();
+        try
+        {
+            ImageIO.write(image, "jpg", os);
+        }
+        catch (IOException e)
+        {
+            throw new ServiceException(e.getMessage());
+        }
+        Captcha captcha = new Captcha(code, Base64.encode(os.toByteArray()));
+        rendered.incrementAndGet();
+        PerfMetrics.record(PerfMetrics.CAPTCHA, "render", System.nanoTime() - start);
+        return captcha;
+    }
+
+    public int getSize()
+    {
+        return size;
+    }
+
+    public int getDepth()
+    {
+        return depth.get();
+    }
+
+    public long getRendered()
+    {
+        return rendered.get();
+    }
+
+    public long getMisses()
+    {
+        return misses.get();
+    }
+
+    @PreDestroy
+    public void destroy()
+    {
+        if (refiller != null)
+        {
+            refiller.shutdownNow();
+        }
+    }
+
+    /**
+     * 预先生成的验证码
+     */
+    public static class Captcha
+    {
+        /** 答案 */
+        private final String code;
+
+        /** Base64编码的jpg图片 */
+        private final String img;
+
+        public Captcha(String code, String img)
+        {
+            this.code = code;
+            this.img = img;
+        }
+
+        public String getCode()
+        {
+            return code;
+        }
+
+        public String getImg()
+        {
+            return img;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.jf.framework.manager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.jf.system.domain.SysLogininfor;
+import com.jf.system.domain.SysOperLog;
+import com.jf.system.service.ISysLogininforService;
+import com.jf.system.service.ISysOperLogService;
+
+/**
+ * 日志批量写入
+ * 
+ * 操作日志和登录日志先进入内存队列，按flushInterval定时批量写入数据库；
+ * 队列已满或已关闭时直接逐条写入，应用退出时写完队列中剩余的日志
+ * 
+ * @author jf
+ */
+@Component
+public class LogBatchWriter
+{
+    private static final Logger log = LoggerFactory.getLogger(LogBatchWriter.class);
+
+    /** 队列容量 */
+    @Value("${logBatch.capacity:10000}")
+    private int capacity;
+
+    /** 每次写入的最大条数 */
+    @Value("${logBatch.batchSize:500}")
+    private int batchSize;
+
+    /** 写入间隔（毫秒） */
+    @Value("${logBatch.flushInterval:500}")
+    private long flushInterval;
+
+    @Autowired
+    private ISysOperLogService operLogService;
+
+    @Autowired
+    private ISysLogininforService logininforService;
+
+    @Autowired
+    @Qualifier("scheduledExecutorService")
+    private ScheduledExecutorService scheduledExecutorService;
+
+    private BlockingQueue<SysOperLog> operLogs;
+
+    private BlockingQueue<SysLogininfor> logininfors;
+
+    private ScheduledFuture<?> future;
+
+    private volatile boolean closed;
+
+    @PostConstruct
+    public void init()
+    {
+        operLogs = new LinkedBlockingQueue<SysOperLog>(capacity);
+        logininfors = new LinkedBlockingQueue<SysLogininfor>(capacity);
+        future = scheduledExecutorService.scheduleWithFixedDelay(this::flush, flushInterval, flushInterval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 添加操作日志
+     * 
+     * @param operLog 操作日志
+     */
+    public void add(SysOperLog operLog)
+    {
+        if (closed || !operLogs.offer(operLog))
+        {
+            operLogService.insertOperlog(operLog);
+        }
+    }
+
+    /**
+     * 添加登录日志
+     * 
+     * @param logininfor 登录日志
+     */
+    public void add(SysLogininfor logininfor)
+    {
+        if (closed || !logininfors.offer(logininfor))
+        {
+            logininforService.insertLogininfor(logininfor);
+        }
+    }
+
+    /**
+     * 停止定时写入并写完队列中剩余的日志（正在执行的定时写入结束后再执行）
+     */
+    public void close()
+    {
+        closed = true;
+        future.cancel(false);
+        flush();
+    }
+
+    private synchronized void flush()
+    {
+        drain(operLogs, operLogService::insertOperlogs, operLogService::insertOperlog);
+        drain(logininfors, logininforService::insertLogininfors, logininforService::insertLogininfor);
+    }
+
+    /**
+     * 按批次取出并写入，批量写入失败时改为逐条写入，避免一条错误数据导致整批丢失
+     */
+    private <T> void drain(BlockingQueue<T> queue, Consumer<List<T>> batch, Consumer<T> single)
+    {
+        List<T> list = new ArrayList<T>(batchSize);
+        while (queue.drainTo(list, batchSize) > 0)
+        {
+            try
+            {
+                batch.accept(list);
+            }
+            catch (Exception e)
+            {
+                log.warn("批量写入日志失败，改为逐条写入：{}", e.getMessage());
+                for (T item : list)
+                {
+                    try
+                    {
+                        single.accept(item);
+                    }
+                    catch (Exception ex)
+                    {
+                        log.error("写入日志失败", ex);
+                    }
+                }
+            }
+            list.clear();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.jf.framework.manager;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.jf.common.exception.ServiceException;
+import com.jf.common.utils.SecurityUtils;
+import com.jf.framework.metrics.PerfMetrics;
+
+/**
+ * 密码校验线程池
+ * 
+ * BCrypt计算占满CPU，放在与CPU核数相同的专用线程池中执行，避免登录高峰时占用全部请求线程；
+ * 队列有界，排队已满或等待超时时直接提示登录繁忙，排队时间和计算时间记入login类指标
+ * 
+ * @author jf
+ */
+@Component
+public class PasswordHashExecutor
+{
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashExecutor.class);
+
+    /** 线程数，0表示CPU核数 */
+    @Value("${user.password.hashThreads:0}")
+    private int threads;
+
+    /** 排队的最大任务数 */
+    @Value("${user.password.hashQueueSize:200}")
+    private int queueSize;
+
+    /** 等待校验结果的超时时间（毫秒） */
+    @Value("${user.password.hashTimeout:5000}")
+    private long timeout;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init()
+    {
+        int size = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        executor = new ThreadPoolExecutor(size, size, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<Runnable>(queueSize),
+                new BasicThreadFactory.Builder().namingPattern("password-hash-%d").daemon(true).build(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 判断密码是否相同
+     * 
+     * @param rawPassword 真实密码
+     * @param encodedPassword 加密后字符
+     * @return 结果
+     */
+    public boolean matches(String rawPassword, String encodedPassword)
+    {
+        long submitted = System.nanoTime();
+        Future<Boolean> future;
+        try
+        {
+            future = executor.submit(() -> {
+                long start = System.nanoTime();
+                PerfMetrics.record(PerfMetrics.LOGIN, "queue", start - submitted);
+                try
+                {
+                    return SecurityUtils.matchesPassword(rawPassword, encodedPassword);
+                }
+                finally
+                {
+                    PerfMetrics.record(PerfMetrics.LOGIN, "hash", System.nanoTime() - start);
+                }
+            });
+        }
+        catch (RejectedExecutionException e)
+        {
+            PerfMetrics.record(PerfMetrics.LOGIN, "rejected", 0L);
+            log.warn("密码校验排队已满，拒绝登录请求");
+            throw new ServiceException("登录繁忙，请稍后再试");
+        }
+        try
+        {
+            return future.get(timeout, TimeUnit.MILLISECONDS);
+        }
+        catch (TimeoutException e)
+        {
+            future.cancel(true);
+            PerfMetrics.record(PerfMetrics.LOGIN, "timeout", System.nanoTime() - submitted);
+            log.warn("密码校验等待超过{}毫秒", timeout);
+            throw new ServiceException("登录繁忙，请稍后再试");
+        }
+        catch (InterruptedException e)
+        {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceException("登录请求已中断");
+        }
+        catch (ExecutionException e)
+        {
+            throw new ServiceException("密码校验失败：" + e.getCause().getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void destroy()
+    {
+        executor.shutdownNow();
+    }
+}
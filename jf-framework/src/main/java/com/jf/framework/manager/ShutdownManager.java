@@ -2,6 +2,7 @@ package com.jf.framework.manager;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 import jakarta.annotation.PreDestroy;
 
@@ -15,10 +16,14 @@ public class ShutdownManager
 {
     private static final Logger logger = LoggerFactory.getLogger("sys-user");
 
+    @Autowired
+    private LogBatchWriter logBatchWriter;
+
     @PreDestroy
     public void destroy()
     {
         shutdownAsyncManager();
+        closeLogBatchWriter();
     }
 
     /**
@@ -36,4 +41,20 @@ public class ShutdownManager
             logger.error(e.getMessage(), e);
         }
     }
+
+    /**
+     * 写完队列中的日志，需在异步任务线程池停止后执行
+     */
+    private void closeLogBatchWriter()
+    {
+        try
+        {
+            logger.info("====写入剩余日志====");
+            logBatchWriter.close();
+        }
+        catch (Exception e)
+        {
+            logger.error(e.getMessage(), e);
+        }
+    }
 }
@@ -1,9 +1,11 @@
 package com.jf.framework.manager.factory;
 
+import java.util.Date;
 import java.util.TimerTask;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.jf.common.constant.Constants;
+import com.jf.common.utils.DateUtils;
 import com.jf.common.utils.LogUtils;
 import com.jf.common.utils.ServletUtils;
 import com.jf.common.utils.StringUtils;
@@ -11,10 +13,9 @@ import com.jf.common.utils.http.UserAgentUtils;
 import com.jf.common.utils.ip.AddressUtils;
 import com.jf.common.utils.ip.IpUtils;
 import com.jf.common.utils.spring.SpringUtils;
+import com.jf.framework.manager.LogBatchWriter;
 import com.jf.system.domain.SysLogininfor;
 import com.jf.system.domain.SysOperLog;
-import com.jf.system.service.ISysLogininforService;
-import com.jf.system.service.ISysOperLogService;
 
 /**
  * 异步工厂（产生任务用）
@@ -39,6 +40,7 @@ public class AsyncFactory
     {
         final String userAgent = ServletUtils.getRequest().getHeader("User-Agent");
         final String ip = IpUtils.getIpAddr();
+        final Date loginTime = DateUtils.getNowDate();
         return new TimerTask()
         {
             @Override
@@ -65,6 +67,7 @@ public class AsyncFactory
                 logininfor.setBrowser(browser);
                 logininfor.setOs(os);
                 logininfor.setMsg(message);
+                logininfor.setLoginTime(loginTime);
                 // 日志状态
                 if (StringUtils.equalsAny(status, Constants.LOGIN_SUCCESS, Constants.LOGOUT, Constants.REGISTER))
                 {
@@ -75,7 +78,7 @@ public class AsyncFactory
                     logininfor.setStatus(Constants.FAIL);
                 }
                 // 插入数据
-                SpringUtils.getBean(ISysLogininforService.class).insertLogininfor(logininfor);
+                SpringUtils.getBean(LogBatchWriter.class).add(logininfor);
             }
         };
     }
@@ -88,6 +91,10 @@ public class AsyncFactory
      */
     public static TimerTask recordOper(final SysOperLog operLog)
     {
+        if (operLog.getOperTime() == null)
+        {
+            operLog.setOperTime(DateUtils.getNowDate());
+        }
         return new TimerTask()
         {
             @Override
@@ -95,7 +102,7 @@ public class AsyncFactory
             {
                 // 远程查询操作地点
                 operLog.setOperLocation(AddressUtils.getRealAddressByIP(operLog.getOperIp()));
-                SpringUtils.getBean(ISysOperLogService.class).insertOperlog(operLog);
+                SpringUtils.getBean(LogBatchWriter.class).add(operLog);
             }
         };
     }
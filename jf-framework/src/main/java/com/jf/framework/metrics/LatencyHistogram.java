@@ -0,0 +1,164 @@
+package com.jf.framework.metrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 无锁延迟直方图（微秒），按2的幂分段、每段16个子桶，相对误差约6%
+ *
+ * @author jf
+ */
+public class LatencyHistogram
+{
+    /** 每段子桶位数 */
+    private static final int SUB_BITS = 4;
+
+    private static final int SUB_COUNT = 1 << SUB_BITS;
+
+    /** 可记录的最大值（微秒），约12.7天 */
+    private static final long MAX_VALUE = (1L << 40) - 1;
+
+    private static final int BUCKET_COUNT = index(MAX_VALUE) + 1;
+
+    private final AtomicLongArray buckets = new AtomicLongArray(BUCKET_COUNT);
+
+    private final LongAdder sum = new LongAdder();
+
+    private final AtomicLong max = new AtomicLong();
+
+    /**
+     * 记录一次耗时
+     *
+     * @param nanos 耗时（纳秒）
+     */
+    public void recordNanos(long nanos)
+    {
+        long micros = Math.min(Math.max(nanos / 1000, 0), MAX_VALUE);
+        buckets.incrementAndGet(index(micros));
+        sum.add(micros);
+        long current = max.get();
+        while (micros > current && !max.compareAndSet(current, micros))
+        {
+            current = max.get();
+        }
+    }
+
+    /**
+     * 生成快照
+     *
+     * @return 计数、合计及分位值（微秒）
+     */
+    public Snapshot snapshot()
+    {
+        long[] counts = new long[BUCKET_COUNT];
+        long total = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++)
+        {
+            counts[i] = buckets.get(i);
+            total += counts[i];
+        }
+        long maxValue = max.get();
+        return new Snapshot(total, sum.sum(), maxValue, percentile(counts, total, 50, maxValue),
+                percentile(counts, total, 95, maxValue), percentile(counts, total, 99, maxValue));
+    }
+
+    private static long percentile(long[] counts, long total, double percent, long maxValue)
+    {
+        if (total == 0)
+        {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(total * percent / 100));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++)
+        {
+            seen += counts[i];
+            if (seen >= target)
+            {
+                return Math.min(highestEquivalentValue(i), maxValue);
+            }
+        }
+        return maxValue;
+    }
+
+    private static int index(long value)
+    {
+        if (value < SUB_COUNT)
+        {
+            return (int) value;
+        }
+        int exp = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exp - SUB_BITS)) & (SUB_COUNT - 1);
+        return (exp - SUB_BITS + 1) * SUB_COUNT + sub;
+    }
+
+    private static long highestEquivalentValue(int index)
+    {
+        if (index < SUB_COUNT)
+        {
+            return index;
+        }
+        int exp = index / SUB_COUNT + SUB_BITS - 1;
+        int sub = index % SUB_COUNT;
+        return ((long) (SUB_COUNT + sub + 1) << (exp - SUB_BITS)) - 1;
+    }
+
+    /**
+     * 直方图快照
+     */
+    public static class Snapshot
+    {
+        private final long count;
+
+        private final long sum;
+
+        private final long max;
+
+        private final long p50;
+
+        private final long p95;
+
+        private final long p99;
+
+        Snapshot(long count, long sum, long max, long p50, long p95, long p99)
+        {
+            this.count = count;
+            this.sum = sum;
+            this.max = max;
+            this.p50 = p50;
+            this.p95 = p95;
+            this.p99 = p99;
+        }
+
+        public long getCount()
+        {
+            return count;
+        }
+
+        public long getSum()
+        {
+            return sum;
+        }
+
+        public long getMax()
+        {
+            return max;
+        }
+
+        public long getP50()
+        {
+            return p50;
+        }
+
+        public long getP95()
+        {
+            return p95;
+        }
+
+        public long getP99()
+        {
+            return p99;
+        }
+    }
+}
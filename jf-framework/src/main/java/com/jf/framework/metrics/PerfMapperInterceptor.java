@@ -0,0 +1,70 @@
+package com.jf.framework.metrics;
+
+import java.sql.Connection;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.executor.statement.StatementHandler;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.reflection.MetaObject;
+import org.apache.ibatis.reflection.SystemMetaObject;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import com.jf.common.utils.StringUtils;
+
+/**
+ * Mapper语句耗时统计，按 Mapper类名.方法名 记录；预编译耗时单独记录，用于观察语句缓存的效果
+ *
+ * @author jf
+ */
+@Intercepts({
+        @Signature(type = Executor.class, method = "query", args = { MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class }),
+        @Signature(type = Executor.class, method = "query", args = { MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class }),
+        @Signature(type = Executor.class, method = "update", args = { MappedStatement.class, Object.class }),
+        @Signature(type = StatementHandler.class, method = "prepare", args = { Connection.class, Integer.class }) })
+public class PerfMapperInterceptor implements Interceptor
+{
+    /** RoutingStatementHandler中的语句 */
+    private static final String MAPPED_STATEMENT = "delegate.mappedStatement";
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable
+    {
+        long start = System.nanoTime();
+        try
+        {
+            return invocation.proceed();
+        }
+        finally
+        {
+            if (invocation.getTarget() instanceof StatementHandler)
+            {
+                MetaObject handler = SystemMetaObject.forObject(invocation.getTarget());
+                if (handler.hasGetter(MAPPED_STATEMENT))
+                {
+                    MappedStatement ms = (MappedStatement) handler.getValue(MAPPED_STATEMENT);
+                    PerfMetrics.record(PerfMetrics.PREPARE, getName(ms.getId()), System.nanoTime() - start);
+                }
+            }
+            else
+            {
+                MappedStatement ms = (MappedStatement) invocation.getArgs()[0];
+                PerfMetrics.record(PerfMetrics.MAPPER, getName(ms.getId()), System.nanoTime() - start);
+            }
+        }
+    }
+
+    /**
+     * 去掉包名，保留 Mapper类名.方法名
+     */
+    private String getName(String id)
+    {
+        int method = id.lastIndexOf('.');
+        int type = method > 0 ? id.lastIndexOf('.', method - 1) : -1;
+        return type >= 0 ? StringUtils.substring(id, type + 1) : id;
+    }
+}
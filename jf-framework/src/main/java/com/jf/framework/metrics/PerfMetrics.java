@@ -0,0 +1,161 @@
+package com.jf.framework.metrics;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * 性能指标登记，按类别和名称保存延迟直方图
+ *
+ * @author jf
+ */
+public class PerfMetrics
+{
+    /** 接口处理方法 */
+    public static final String HTTP = "http";
+
+    /** 令牌解析 */
+    public static final String TOKEN = "token";
+
+    /** Redis命令 */
+    public static final String REDIS = "redis";
+
+    /** Mapper语句 */
+    public static final String MAPPER = "mapper";
+
+    /** 语句预编译 */
+    public static final String PREPARE = "prepare";
+
+    /** 登录密码校验 */
+    public static final String LOGIN = "login";
+
+    /** 验证码生成 */
+    public static final String CAPTCHA = "captcha";
+
+    /** 单个类别的最大指标数，防止名称失控导致内存增长 */
+    private static final int MAX_METRICS = 2000;
+
+    private static final ConcurrentMap<String, ConcurrentMap<String, LatencyHistogram>> METRICS = new ConcurrentHashMap<>();
+
+    /**
+     * 记录一次耗时
+     *
+     * @param category 类别
+     * @param name 名称
+     * @param nanos 耗时（纳秒）
+     */
+    public static void record(String category, String name, long nanos)
+    {
+        ConcurrentMap<String, LatencyHistogram> histograms = METRICS.computeIfAbsent(category, k -> new ConcurrentHashMap<>());
+        LatencyHistogram histogram = histograms.get(name);
+        if (histogram == null)
+        {
+            if (histograms.size() >= MAX_METRICS)
+            {
+                return;
+            }
+            histogram = histograms.computeIfAbsent(name, k -> new LatencyHistogram());
+        }
+        histogram.recordNanos(nanos);
+    }
+
+    /**
+     * 获取全部指标的快照
+     *
+     * @return 指标列表
+     */
+    public static List<Metric> snapshot()
+    {
+        List<Metric> metrics = new ArrayList<Metric>();
+        for (Map.Entry<String, ConcurrentMap<String, LatencyHistogram>> category : METRICS.entrySet())
+        {
+            for (Map.Entry<String, LatencyHistogram> entry : category.getValue().entrySet())
+            {
+                metrics.add(new Metric(category.getKey(), entry.getKey(), entry.getValue().snapshot()));
+            }
+        }
+        return metrics;
+    }
+
+    /**
+     * 清空全部指标
+     */
+    public static void reset()
+    {
+        METRICS.clear();
+    }
+
+    /**
+     * 单个指标
+     */
+    public static class Metric
+    {
+        private final String category;
+
+        private final String name;
+
+        private final LatencyHistogram.Snapshot snapshot;
+
+        Metric(String category, String name, LatencyHistogram.Snapshot snapshot)
+        {
+            this.category = category;
+            this.name = name;
+            this.snapshot = snapshot;
+        }
+
+        public String getCategory()
+        {
+            return category;
+        }
+
+        public String getName()
+        {
+            return name;
+        }
+
+        /** 调用次数 */
+        public long getCount()
+        {
+            return snapshot.getCount();
+        }
+
+        /** 平均耗时（毫秒） */
+        public double getAvg()
+        {
+            return snapshot.getCount() == 0 ? 0 : toMillis(snapshot.getSum() / (double) snapshot.getCount());
+        }
+
+        public double getP50()
+        {
+            return toMillis(snapshot.getP50());
+        }
+
+        public double getP95()
+        {
+            return toMillis(snapshot.getP95());
+        }
+
+        public double getP99()
+        {
+            return toMillis(snapshot.getP99());
+        }
+
+        public double getMax()
+        {
+            return toMillis(snapshot.getMax());
+        }
+
+        /** 合计耗时（毫秒） */
+        public double getSum()
+        {
+            return toMillis(snapshot.getSum());
+        }
+
+        private static double toMillis(double micros)
+        {
+            return Math.round(micros / 10) / 100.0;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.jf.framework.metrics;
+
+import java.util.List;
+import java.util.function.Supplier;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+/**
+ * 统计命令耗时的RedisTemplate，opsForXxx等操作最终都经由execute执行；
+ * 管道操作整体记为一次pipeline，其中的execute不再单独记录
+ *
+ * @author jf
+ */
+public class PerfRedisTemplate<K, V> extends RedisTemplate<K, V>
+{
+    /** 当前线程是否在管道操作中 */
+    private static final ThreadLocal<Boolean> PIPELINE = new ThreadLocal<Boolean>();
+
+    @Override
+    public <T> T execute(RedisCallback<T> action, boolean exposeConnection, boolean pipeline)
+    {
+        if (PIPELINE.get() != null)
+        {
+            return super.execute(action, exposeConnection, pipeline);
+        }
+        long start = System.nanoTime();
+        try
+        {
+            return super.execute(action, exposeConnection, pipeline);
+        }
+        finally
+        {
+            PerfMetrics.record(PerfMetrics.REDIS, "command", System.nanoTime() - start);
+        }
+    }
+
+    @Override
+    public List<Object> executePipelined(SessionCallback<?> session, RedisSerializer<?> resultSerializer)
+    {
+        return pipelined(() -> super.executePipelined(session, resultSerializer));
+    }
+
+    @Override
+    public List<Object> executePipelined(RedisCallback<?> action, RedisSerializer<?> resultSerializer)
+    {
+        return pipelined(() -> super.executePipelined(action, resultSerializer));
+    }
+
+    private List<Object> pipelined(Supplier<List<Object>> action)
+    {
+        if (PIPELINE.get() != null)
+        {
+            return action.get();
+        }
+        PIPELINE.set(Boolean.TRUE);
+        long start = System.nanoTime();
+        try
+        {
+            return action.get();
+        }
+        finally
+        {
+            PIPELINE.remove();
+            PerfMetrics.record(PerfMetrics.REDIS, "pipeline", System.nanoTime() - start);
+        }
+    }
+}
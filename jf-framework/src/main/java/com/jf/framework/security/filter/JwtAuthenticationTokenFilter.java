@@ -14,6 +14,7 @@ import org.springframework.web.filter.OncePerRequestFilter;
 import com.jf.common.core.domain.model.LoginUser;
 import com.jf.common.utils.SecurityUtils;
 import com.jf.common.utils.StringUtils;
+import com.jf.framework.metrics.PerfMetrics;
 import com.jf.framework.web.service.TokenService;
 
 /**
@@ -31,7 +32,9 @@ public class JwtAuthenticationTokenFilter extends OncePerRequestFilter
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
             throws ServletException, IOException
     {
+        long start = System.nanoTime();
         LoginUser loginUser = tokenService.getLoginUser(request);
+        PerfMetrics.record(PerfMetrics.TOKEN, "getLoginUser", System.nanoTime() - start);
         if (StringUtils.isNotNull(loginUser) && StringUtils.isNull(SecurityUtils.getAuthentication()))
         {
             tokenService.verifyToken(loginUser);
@@ -108,28 +108,39 @@ public class Server
     public void copyTo() throws Exception
     {
         SystemInfo si = new SystemInfo();
-        HardwareAbstractionLayer hal = si.getHardware();
+        CentralProcessor processor = si.getHardware().getProcessor();
+        long[] prevTicks = processor.getSystemCpuLoadTicks();
+        Util.sleep(OSHI_WAIT_SECOND);
 
-        setCpuInfo(hal.getProcessor());
+        copyTo(si.getHardware(), prevTicks, processor.getSystemCpuLoadTicks());
+
+        setSysFiles(si.getOperatingSystem());
+    }
+
+    /**
+     * 根据两次采样的CPU时钟计数填充信息，不等待、不读取磁盘
+     * 
+     * @param hal 硬件信息
+     * @param prevTicks 上次采样的CPU时钟计数
+     * @param ticks 本次采样的CPU时钟计数
+     */
+    public void copyTo(HardwareAbstractionLayer hal, long[] prevTicks, long[] ticks) throws Exception
+    {
+        setCpuInfo(hal.getProcessor(), prevTicks, ticks);
 
         setMemInfo(hal.getMemory());
 
         setSysInfo();
 
         setJvmInfo();
-
-        setSysFiles(si.getOperatingSystem());
     }
 
     /**
      * 设置CPU信息
      */
-    private void setCpuInfo(CentralProcessor processor)
+    private void setCpuInfo(CentralProcessor processor, long[] prevTicks, long[] ticks)
     {
         // CPU信息
-        long[] prevTicks = processor.getSystemCpuLoadTicks();
-        Util.sleep(OSHI_WAIT_SECOND);
-        long[] ticks = processor.getSystemCpuLoadTicks();
         long nice = ticks[TickType.NICE.getIndex()] - prevTicks[TickType.NICE.getIndex()];
         long irq = ticks[TickType.IRQ.getIndex()] - prevTicks[TickType.IRQ.getIndex()];
         long softirq = ticks[TickType.SOFTIRQ.getIndex()] - prevTicks[TickType.SOFTIRQ.getIndex()];
@@ -186,7 +197,7 @@ public class Server
     /**
      * 设置磁盘信息
      */
-    private void setSysFiles(OperatingSystem os)
+    public void setSysFiles(OperatingSystem os)
     {
         FileSystem fileSystem = os.getFileSystem();
         List<OSFileStore> fsArray = fileSystem.getFileStores();
@@ -0,0 +1,129 @@
+package com.jf.framework.web.domain.server;
+
+/**
+ * 服务器指标采样点
+ *
+ * @author jf
+ */
+public class Sample
+{
+    /**
+     * 采样时间（毫秒）
+     */
+    private long time;
+
+    /**
+     * CPU使用率
+     */
+    private double cpuUsage;
+
+    /**
+     * 内存使用率
+     */
+    private double memUsage;
+
+    /**
+     * JVM已用内存（M）
+     */
+    private double jvmUsed;
+
+    /**
+     * JVM内存使用率
+     */
+    private double jvmUsage;
+
+    /**
+     * 采样间隔内的GC次数
+     */
+    private long gcCount;
+
+    /**
+     * 采样间隔内的GC耗时（毫秒）
+     */
+    private long gcTime;
+
+    /**
+     * 磁盘最大使用率
+     */
+    private double diskUsage;
+
+    public long getTime()
+    {
+        return time;
+    }
+
+    public void setTime(long time)
+    {
+        this.time = time;
+    }
+
+    public double getCpuUsage()
+    {
+        return cpuUsage;
+    }
+
+    public void setCpuUsage(double cpuUsage)
+    {
+        this.cpuUsage = cpuUsage;
+    }
+
+    public double getMemUsage()
+    {
+        return memUsage;
+    }
+
+    public void setMemUsage(double memUsage)
+    {
+        this.memUsage = memUsage;
+    }
+
+    public double getJvmUsed()
+    {
+        return jvmUsed;
+    }
+
+    public void setJvmUsed(double jvmUsed)
+    {
+        this.jvmUsed = jvmUsed;
+    }
+
+    public double getJvmUsage()
+    {
+        return jvmUsage;
+    }
+
+    public void setJvmUsage(double jvmUsage)
+    {
+        this.jvmUsage = jvmUsage;
+    }
+
+    public long getGcCount()
+    {
+        return gcCount;
+    }
+
+    public void setGcCount(long gcCount)
+    {
+        this.gcCount = gcCount;
+    }
+
+    public long getGcTime()
+    {
+        return gcTime;
+    }
+
+    public void setGcTime(long gcTime)
+    {
+        this.gcTime = gcTime;
+    }
+
+    public double getDiskUsage()
+    {
+        return diskUsage;
+    }
+
+    public void setDiskUsage(double diskUsage)
+    {
+        this.diskUsage = diskUsage;
+    }
+}
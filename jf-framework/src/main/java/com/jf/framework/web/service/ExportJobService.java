@@ -0,0 +1,430 @@
+package com.jf.framework.web.service;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.OutputStream;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.lang3.concurrent.BasicThreadFactory;
+import org.apache.ibatis.session.ResultHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.stereotype.Component;
+import com.jf.common.constant.CacheConstants;
+import com.jf.common.core.redis.RedisCache;
+import com.jf.common.exception.ServiceException;
+import com.jf.common.utils.DateUtils;
+import com.jf.common.utils.SecurityUtils;
+import com.jf.common.utils.StringUtils;
+import com.jf.common.utils.file.FileUtils;
+import com.jf.common.utils.poi.ExcelUtil;
+import com.jf.common.utils.uuid.IdUtils;
+import com.jf.framework.interceptor.StatementCaptureInterceptor;
+
+/**
+ * 异步导出任务处理
+ *
+ * @author jf
+ */
+@Component
+public class ExportJobService
+{
+    private static final Logger log = LoggerFactory.getLogger(ExportJobService.class);
+
+    /** 等待中 */
+    public static final String STATUS_WAITING = "0";
+
+    /** 导出中 */
+    public static final String STATUS_RUNNING = "1";
+
+    /** 已完成 */
+    public static final String STATUS_SUCCESS = "2";
+
+    /** 失败 */
+    public static final String STATUS_FAILED = "3";
+
+    /** 已取消 */
+    public static final String STATUS_CANCELLED = "4";
+
+    /** 每写入多少行刷新一次进度 */
+    private static final int PROGRESS_STEP = 1000;
+
+    /** 状态为预期值时才更新，避免终态被覆盖 */
+    private static final RedisScript<Long> STATUS_CAS_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('hget', KEYS[1], 'status') == ARGV[1] then\n" +
+            "    redis.call('hset', KEYS[1], 'status', ARGV[2])\n" +
+            "    return 1\n" +
+            "end\n" +
+            "return 0", Long.class);
+
+    /** 占用用户名额，超出上限时回退 */
+    private static final RedisScript<Long> ACQUIRE_SLOT_SCRIPT = new DefaultRedisScript<>(
+            "local current = redis.call('incr', KEYS[1])\n" +
+            "if current > tonumber(ARGV[1]) then\n" +
+            "    redis.call('decr', KEYS[1])\n" +
+            "    return 0\n" +
+            "end\n" +
+            "redis.call('expire', KEYS[1], tonumber(ARGV[2]))\n" +
+            "return 1", Long.class);
+
+    /** 释放用户名额，计数归零时删除键 */
+    private static final RedisScript<Long> RELEASE_SLOT_SCRIPT = new DefaultRedisScript<>(
+            "local current = tonumber(redis.call('get', KEYS[1]) or '0')\n" +
+            "if current > 1 then\n" +
+            "    return redis.call('decr', KEYS[1])\n" +
+            "end\n" +
+            "redis.call('del', KEYS[1])\n" +
+            "return 0", Long.class);
+
+    /** 同时执行的导出任务数 */
+    @Value("${export.maxConcurrent:2}")
+    private int maxConcurrent;
+
+    /** 等待执行的任务队列长度 */
+    @Value("${export.queueCapacity:20}")
+    private int queueCapacity;
+
+    /** 单个用户未完成的任务上限 */
+    @Value("${export.userLimit:2}")
+    private int userLimit;
+
+    /** 任务占用用户名额的最长时间（分钟） */
+    @Value("${export.slotTimeout:120}")
+    private int slotTimeout;
+
+    /** 任务结果保留时间（分钟） */
+    @Value("${export.expireTime:1440}")
+    private int expireTime;
+
+    @Autowired
+    private RedisCache redisCache;
+
+    @Autowired
+    @Qualifier("scheduledExecutorService")
+    private ScheduledExecutorService scheduledExecutorService;
+
+    private ThreadPoolExecutor executor;
+
+    /** 本节点未完成的任务 */
+    private final ConcurrentMap<String, FutureTask<?>> jobs = new ConcurrentHashMap<String, FutureTask<?>>();
+
+    /** 本节点执行中任务的查询语句，取消时终止查询 */
+    private final ConcurrentMap<String, Statement> statements = new ConcurrentHashMap<String, Statement>();
+
+    @PostConstruct
+    public void init()
+    {
+        executor = new ThreadPoolExecutor(maxConcurrent, maxConcurrent, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(queueCapacity),
+                new BasicThreadFactory.Builder().namingPattern("export-pool-%d").daemon(true).build(),
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void destroy()
+    {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 提交导出任务，查询在后台线程中以当前用户身份执行（数据权限同样生效）
+     *
+     * @param clazz 实体类型
+     * @param sheetName 工作表的名称
+     * @param query 查询回调，通过ResultHandler逐行推送数据
+     * @return 任务编号
+     */
+    public <T> String submit(Class<T> clazz, String sheetName, Consumer<ResultHandler<T>> query)
+    {
+        String userName = SecurityUtils.getUsername();
+        if (!executeScript(ACQUIRE_SLOT_SCRIPT, getUserKey(userName), userLimit, (int) TimeUnit.MINUTES.toSeconds(slotTimeout)))
+        {
+            throw new ServiceException(StringUtils.format("最多同时进行{}个导出任务，请稍后再试", userLimit));
+        }
+
+        String jobId = IdUtils.fastSimpleUUID();
+        String key = getJobKey(jobId);
+        Map<String, Object> job = new HashMap<String, Object>();
+        job.put("jobId", jobId);
+        job.put("userName", userName);
+        job.put("sheetName", sheetName);
+        job.put("status", STATUS_WAITING);
+        job.put("rows", 0L);
+        job.put("createTime", DateUtils.getTime());
+        redisCache.setCacheMap(key, job);
+        redisCache.expire(key, expireTime, TimeUnit.MINUTES);
+
+        FutureTask<?> task = new FutureTask<Object>(new DelegatingSecurityContextRunnable(() -> runJob(jobId, userName, clazz, sheetName, query)), null);
+        jobs.put(jobId, task);
+        try
+        {
+            executor.execute(task);
+        }
+        catch (RejectedExecutionException e)
+        {
+            release(jobId, userName);
+            redisCache.deleteObject(key);
+            throw new ServiceException("导出任务繁忙，请稍后再试");
+        }
+        return jobId;
+    }
+
+    /**
+     * 查询导出任务
+     *
+     * @param jobId 任务编号
+     * @return 任务信息
+     */
+    public Map<String, Object> getJob(String jobId)
+    {
+        Map<String, Object> job = redisCache.getCacheMap(getJobKey(jobId));
+        if (StringUtils.isEmpty(job))
+        {
+            throw new ServiceException("导出任务不存在或已过期");
+        }
+        checkOwner((String) job.get("userName"));
+        return job;
+    }
+
+    /**
+     * 校验导出文件的下载权限，异步导出的文件只允许任务创建者或管理员下载
+     *
+     * @param fileName 文件名称
+     */
+    public void checkFileAccess(String fileName)
+    {
+        String owner = redisCache.getCacheObject(getFileKey(fileName));
+        if (owner != null)
+        {
+            checkOwner(owner);
+        }
+    }
+
+    private void checkOwner(String owner)
+    {
+        if (!StringUtils.equals(SecurityUtils.getUsername(), owner) && !SecurityUtils.isAdmin())
+        {
+            throw new ServiceException("没有权限访问该导出任务");
+        }
+    }
+
+    /**
+     * 取消导出任务，等待中的任务直接移出队列；执行中的任务在本节点时立即终止查询，
+     * 在其他节点时由该节点在下一次刷新进度时终止
+     *
+     * @param jobId 任务编号
+     */
+    public void cancel(String jobId)
+    {
+        Map<String, Object> job = getJob(jobId);
+        String key = getJobKey(jobId);
+        if (!compareAndSetStatus(key, STATUS_RUNNING, STATUS_CANCELLED) && !compareAndSetStatus(key, STATUS_WAITING, STATUS_CANCELLED))
+        {
+            throw new ServiceException("导出任务已结束，无法取消");
+        }
+        FutureTask<?> task = jobs.get(jobId);
+        if (task != null && executor.remove(task))
+        {
+            release(jobId, (String) job.get("userName"));
+        }
+        cancelStatement(jobId);
+    }
+
+    /**
+     * 终止任务正在执行的查询，流式结果集无需读完剩余数据即可关闭
+     */
+    private void cancelStatement(String jobId)
+    {
+        Statement statement = statements.get(jobId);
+        if (statement == null)
+        {
+            return;
+        }
+        try
+        {
+            statement.cancel();
+        }
+        catch (SQLException e)
+        {
+            log.warn("终止导出任务{}的查询失败：{}", jobId, e.getMessage());
+        }
+    }
+
+    /**
+     * 执行导出任务
+     */
+    private <T> void runJob(String jobId, String userName, Class<T> clazz, String sheetName, Consumer<ResultHandler<T>> query)
+    {
+        String key = getJobKey(jobId);
+        File file = null;
+        try
+        {
+            if (!compareAndSetStatus(key, STATUS_WAITING, STATUS_RUNNING))
+            {
+                return;
+            }
+            ExcelUtil<T> util = new ExcelUtil<T>(clazz);
+            String fileName = util.encodingFilename(sheetName);
+            file = new File(util.getAbsoluteFile(fileName));
+            long[] rows = { 0 };
+            boolean[] cancelled = { false };
+            try (OutputStream out = new BufferedOutputStream(new FileOutputStream(file)))
+            {
+                util.exportStream(out, handler -> StatementCaptureInterceptor.capture(statement -> {
+                    if (statement == null)
+                    {
+                        statements.remove(jobId);
+                    }
+                    else
+                    {
+                        statements.put(jobId, statement);
+                    }
+                }, () -> query.accept(context -> {
+                    if (cancelled[0])
+                    {
+                        context.stop();
+                        return;
+                    }
+                    handler.handleResult(context);
+                    if (++rows[0] % PROGRESS_STEP == 0)
+                    {
+                        redisCache.setCacheMapValue(key, "rows", rows[0]);
+                        cancelled[0] = isCancelled(key);
+                        if (cancelled[0])
+                        {
+                            cancelStatement(jobId);
+                            context.stop();
+                        }
+                    }
+                })), sheetName, StringUtils.EMPTY);
+            }
+            // 最后一次检查进度之后仍可能被取消，只有状态仍为导出中时才发布文件
+            if (cancelled[0] || !compareAndSetStatus(key, STATUS_RUNNING, STATUS_SUCCESS))
+            {
+                FileUtils.deleteFile(file.getPath());
+                return;
+            }
+            Map<String, Object> result = new HashMap<String, Object>();
+            result.put("rows", rows[0]);
+            result.put("fileName", fileName);
+            result.put("finishTime", DateUtils.getTime());
+            redisCache.setCacheMap(key, result);
+            redisCache.expire(key, expireTime, TimeUnit.MINUTES);
+            redisCache.setCacheObject(getFileKey(fileName), userName, expireTime, TimeUnit.MINUTES);
+            String filePath = file.getPath();
+            scheduledExecutorService.schedule(() -> FileUtils.deleteFile(filePath), expireTime, TimeUnit.MINUTES);
+        }
+        catch (Exception e)
+        {
+            if (file != null)
+            {
+                FileUtils.deleteFile(file.getPath());
+            }
+            if (!compareAndSetStatus(key, STATUS_RUNNING, STATUS_FAILED))
+            {
+                // 已取消（终止查询产生的异常）或未开始执行
+                return;
+            }
+            log.error("导出任务{}执行失败", jobId, e);
+            Map<String, Object> result = new HashMap<String, Object>();
+            result.put("message", e.getMessage());
+            result.put("finishTime", DateUtils.getTime());
+            redisCache.setCacheMap(key, result);
+        }
+        finally
+        {
+            statements.remove(jobId);
+            release(jobId, userName);
+        }
+    }
+
+    /**
+     * 任务是否已被取消
+     */
+    private boolean isCancelled(String key)
+    {
+        return STATUS_CANCELLED.equals(redisCache.getCacheMapValue(key, "status"));
+    }
+
+    /**
+     * 状态为预期值时更新为新状态
+     *
+     * @return 是否更新成功
+     */
+    private boolean compareAndSetStatus(String key, String expect, String update)
+    {
+        return executeScript(STATUS_CAS_SCRIPT, key, expect, update);
+    }
+
+    @SuppressWarnings("unchecked")
+    private boolean executeScript(RedisScript<Long> script, String key, Object... args)
+    {
+        Long result = (Long) redisCache.redisTemplate.execute(script, Collections.singletonList(key), args);
+        return result != null && result == 1L;
+    }
+
+    /**
+     * 释放任务占用的并发名额，同一任务只释放一次
+     */
+    private void release(String jobId, String userName)
+    {
+        if (jobs.remove(jobId) != null)
+        {
+            redisCache.redisTemplate.execute(RELEASE_SLOT_SCRIPT, Collections.singletonList(getUserKey(userName)));
+        }
+    }
+
+    /**
+     * 获取导出任务缓存键
+     *
+     * @param jobId 任务编号
+     * @return 缓存键key
+     */
+    private String getJobKey(String jobId)
+    {
+        return CacheConstants.EXPORT_JOB_KEY + jobId;
+    }
+
+    /**
+     * 获取用户未完成任务数的缓存键
+     *
+     * @param userName 用户名
+     * @return 缓存键key
+     */
+    private String getUserKey(String userName)
+    {
+        return CacheConstants.EXPORT_USER_KEY + userName;
+    }
+
+    /**
+     * 获取导出文件所属用户的缓存键
+     *
+     * @param fileName 文件名称
+     * @return 缓存键key
+     */
+    private String getFileKey(String fileName)
+    {
+        return CacheConstants.EXPORT_FILE_KEY + fileName;
+    }
+}
@@ -0,0 +1,318 @@
+package com.jf.framework.web.service;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import com.jf.common.utils.StringUtils;
+import com.jf.common.utils.file.FileUtils;
+
+/**
+ * 文件下载处理，支持断点续传、条件请求及零拷贝传输
+ *
+ * @author jf
+ */
+@Component
+public class FileDownloadService
+{
+    /** Tomcat sendfile支持标识 */
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    /** 缓存在内存中的单个文件上限 */
+    private static final int CACHE_FILE_SIZE = 64 * 1024;
+
+    /** 内存缓存总大小上限 */
+    private static final long CACHE_TOTAL_SIZE = 16 * 1024 * 1024;
+
+    /** 小文件内存缓存，按最近访问淘汰 */
+    private final LinkedHashMap<String, CachedFile> cache = new LinkedHashMap<String, CachedFile>(16, 0.75f, true);
+
+    /** 已缓存的字节数 */
+    private long cacheSize;
+
+    /**
+     * 下载文件，下载后文件仍需保留
+     *
+     * @param file 文件
+     * @param downloadName 下载名称
+     * @param request 请求
+     * @param response 响应
+     */
+    public void download(File file, String downloadName, HttpServletRequest request, HttpServletResponse response) throws IOException
+    {
+        download(file, downloadName, false, request, response);
+    }
+
+    /**
+     * 下载文件
+     *
+     * @param file 文件
+     * @param downloadName 下载名称
+     * @param delete 下载后是否删除（删除的文件不使用sendfile和内存缓存）
+     * @param request 请求
+     * @param response 响应
+     */
+    public void download(File file, String downloadName, boolean delete, HttpServletRequest request, HttpServletResponse response) throws IOException
+    {
+        if (!file.isFile())
+        {
+            throw new FileNotFoundException(file.getPath());
+        }
+        long length = file.length();
+        long lastModified = file.lastModified() / 1000 * 1000;
+        String etag = "\"" + Long.toHexString(length) + "-" + Long.toHexString(lastModified) + "\"";
+
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setDateHeader(HttpHeaders.LAST_MODIFIED, lastModified);
+        if (isNotModified(request, etag, lastModified))
+        {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        if (StringUtils.isNotEmpty(range) && isRangeApplicable(request, etag, lastModified))
+        {
+            long[] bounds = parseRange(range, length);
+            if (bounds == null)
+            {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (bounds.length == 2)
+            {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+        long count = end - start + 1;
+        FileUtils.setAttachmentResponseHeader(response, downloadName);
+        response.setContentLengthLong(count);
+        if (count <= 0)
+        {
+            return;
+        }
+
+        if (!delete && length <= CACHE_FILE_SIZE)
+        {
+            byte[] data = getCachedBytes(file, length, lastModified);
+            if (data.length == length)
+            {
+                response.getOutputStream().write(data, (int) start, (int) count);
+                return;
+            }
+        }
+        if (!delete && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT)))
+        {
+            // 由容器在请求结束后直接从文件描述符发送
+            request.setAttribute(SENDFILE_FILENAME, file.getAbsolutePath());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+        transfer(file, start, count, response.getOutputStream());
+    }
+
+    /**
+     * 通过FileChannel.transferTo写出文件区间
+     */
+    private void transfer(File file, long start, long count, OutputStream os) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ))
+        {
+            WritableByteChannel target = Channels.newChannel(os);
+            long position = start;
+            long remaining = count;
+            while (remaining > 0)
+            {
+                long n = channel.transferTo(position, remaining, target);
+                if (n <= 0)
+                {
+                    break;
+                }
+                position += n;
+                remaining -= n;
+            }
+        }
+        os.flush();
+    }
+
+    /**
+     * 条件请求是否命中（If-None-Match优先于If-Modified-Since）
+     */
+    private boolean isNotModified(HttpServletRequest request, String etag, long lastModified)
+    {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch != null)
+        {
+            return matchesEtag(ifNoneMatch, etag);
+        }
+        long ifModifiedSince = getDateHeader(request, HttpHeaders.IF_MODIFIED_SINCE);
+        return ifModifiedSince != -1 && lastModified <= ifModifiedSince;
+    }
+
+    /**
+     * If-Range校验，资源已变化时忽略Range返回完整文件
+     */
+    private boolean isRangeApplicable(HttpServletRequest request, String etag, long lastModified)
+    {
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (StringUtils.isEmpty(ifRange))
+        {
+            return true;
+        }
+        if (ifRange.startsWith("\"") || ifRange.startsWith("W/"))
+        {
+            return etag.equals(ifRange.trim());
+        }
+        long date = getDateHeader(request, HttpHeaders.IF_RANGE);
+        return date != -1 && lastModified <= date;
+    }
+
+    private boolean matchesEtag(String header, String etag)
+    {
+        for (String tag : header.split(","))
+        {
+            String value = tag.trim();
+            if ("*".equals(value) || etag.equals(value) || etag.equals(StringUtils.removeStart(value, "W/")))
+            {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private long getDateHeader(HttpServletRequest request, String name)
+    {
+        try
+        {
+            return request.getDateHeader(name);
+        }
+        catch (IllegalArgumentException e)
+        {
+            return -1;
+        }
+    }
+
+    /**
+     * 解析单个字节区间，多区间请求按完整文件返回
+     *
+     * @param range Range请求头
+     * @param length 文件长度
+     * @return 区间[start, end]；空数组表示返回完整文件；null表示区间无法满足
+     */
+    private long[] parseRange(String range, long length)
+    {
+        if (!range.startsWith("bytes=") || range.indexOf(',') != -1)
+        {
+            return new long[0];
+        }
+        String spec = range.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash == -1)
+        {
+            return new long[0];
+        }
+        try
+        {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty())
+            {
+                // 后缀区间：最后N个字节
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0)
+                {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            }
+            else
+            {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            }
+            if (start >= length || start > end)
+            {
+                return null;
+            }
+            return new long[] { start, end };
+        }
+        catch (NumberFormatException e)
+        {
+            return new long[0];
+        }
+    }
+
+    /**
+     * 获取小文件内容，文件长度或修改时间变化后重新读取
+     */
+    private byte[] getCachedBytes(File file, long length, long lastModified) throws IOException
+    {
+        String key = file.getAbsolutePath();
+        synchronized (cache)
+        {
+            CachedFile cached = cache.get(key);
+            if (cached != null && cached.lastModified == lastModified && cached.data.length == length)
+            {
+                return cached.data;
+            }
+        }
+        byte[] data = Files.readAllBytes(file.toPath());
+        synchronized (cache)
+        {
+            CachedFile old = cache.put(key, new CachedFile(data, lastModified));
+            cacheSize += data.length - (old != null ? old.data.length : 0);
+            Iterator<Map.Entry<String, CachedFile>> it = cache.entrySet().iterator();
+            while (cacheSize > CACHE_TOTAL_SIZE && it.hasNext())
+            {
+                cacheSize -= it.next().getValue().data.length;
+                it.remove();
+            }
+        }
+        return data;
+    }
+
+    /**
+     * 缓存的文件内容
+     */
+    private static class CachedFile
+    {
+        final byte[] data;
+
+        final long lastModified;
+
+        CachedFile(byte[] data, long lastModified)
+        {
+            this.data = data;
+            this.lastModified = lastModified;
+        }
+    }
+}
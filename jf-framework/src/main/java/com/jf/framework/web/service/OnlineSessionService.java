@@ -0,0 +1,218 @@
+package com.jf.framework.web.service;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.stereotype.Component;
+import com.github.pagehelper.Page;
+import com.jf.common.constant.CacheConstants;
+import com.jf.common.core.domain.model.LoginUser;
+import com.jf.common.core.redis.RedisCache;
+import com.jf.common.utils.StringUtils;
+import com.jf.system.domain.SysUserOnline;
+import com.jf.system.service.ISysUserOnlineService;
+
+/**
+ * 在线会话索引，令牌创建、刷新、删除时维护，在线用户列表无需遍历全部令牌
+ *
+ * @author jf
+ */
+@Component
+public class OnlineSessionService
+{
+    /** 每次清理的过期会话数量上限 */
+    private static final int CLEAN_BATCH_SIZE = 1000;
+
+    // 令牌有效期（默认30分钟）
+    @Value("${token.expireTime}")
+    private int expireTime;
+
+    @Autowired
+    private RedisCache redisCache;
+
+    @Autowired
+    private RedisTemplate<Object, Object> redisTemplate;
+
+    @Autowired
+    private ISysUserOnlineService userOnlineService;
+
+    /**
+     * 登记或刷新会话
+     *
+     * @param loginUser 登录信息
+     */
+    public void register(LoginUser loginUser)
+    {
+        SysUserOnline online = userOnlineService.loginUserToUserOnline(loginUser);
+        if (StringUtils.isNull(online))
+        {
+            return;
+        }
+        String token = loginUser.getToken();
+        long expire = loginUser.getExpireTime();
+        redisTemplate.opsForZSet().add(CacheConstants.ONLINE_SESSION_KEY, token, expire);
+        redisCache.setCacheMapValue(CacheConstants.ONLINE_SESSION_INFO_KEY, token, online);
+        addIndex(CacheConstants.ONLINE_USER_INDEX_KEY + online.getUserName(), token, expire);
+        addIndex(CacheConstants.ONLINE_IP_INDEX_KEY + online.getIpaddr(), token, expire);
+    }
+
+    /**
+     * 移除会话
+     *
+     * @param token 令牌
+     */
+    public void unregister(String token)
+    {
+        SysUserOnline online = redisCache.getCacheMapValue(CacheConstants.ONLINE_SESSION_INFO_KEY, token);
+        if (StringUtils.isNotNull(online))
+        {
+            removeIndex(online, token);
+        }
+        redisCache.deleteCacheMapValue(CacheConstants.ONLINE_SESSION_INFO_KEY, token);
+        redisTemplate.opsForZSet().remove(CacheConstants.ONLINE_SESSION_KEY, token);
+    }
+
+    /**
+     * 分页查询在线会话，按最近活跃排序
+     *
+     * @param ipaddr 登录地址
+     * @param userName 用户名称
+     * @param pageNum 页码
+     * @param pageSize 每页数量
+     * @return 在线用户分页数据
+     */
+    public Page<SysUserOnline> selectOnlineList(String ipaddr, String userName, int pageNum, int pageSize)
+    {
+        cleanExpired();
+        pageNum = Math.max(pageNum, 1);
+        pageSize = Math.max(pageSize, 1);
+        long offset = (long) (pageNum - 1) * pageSize;
+        Page<SysUserOnline> page = new Page<SysUserOnline>(pageNum, pageSize);
+        List<String> tokens;
+        if (StringUtils.isEmpty(ipaddr) && StringUtils.isEmpty(userName))
+        {
+            ZSetOperations<Object, Object> zset = redisTemplate.opsForZSet();
+            Long total = zset.zCard(CacheConstants.ONLINE_SESSION_KEY);
+            page.setTotal(total == null ? 0 : total);
+            Set<Object> members = zset.reverseRange(CacheConstants.ONLINE_SESSION_KEY, offset, offset + pageSize - 1);
+            tokens = members == null ? new ArrayList<String>() : members.stream().map(String::valueOf).collect(Collectors.toList());
+        }
+        else
+        {
+            List<Map.Entry<String, Long>> matched = findByIndex(ipaddr, userName);
+            page.setTotal(matched.size());
+            tokens = matched.stream().skip(offset).limit(pageSize).map(Map.Entry::getKey).collect(Collectors.toList());
+        }
+        if (!tokens.isEmpty())
+        {
+            List<SysUserOnline> rows = redisCache.getMultiCacheMapValue(CacheConstants.ONLINE_SESSION_INFO_KEY, new ArrayList<Object>(tokens));
+            rows.stream().filter(StringUtils::isNotNull).forEach(page::add);
+        }
+        return page;
+    }
+
+    /**
+     * 通过二级索引查找会话，同时指定用户名称和登录地址时取交集
+     */
+    private List<Map.Entry<String, Long>> findByIndex(String ipaddr, String userName)
+    {
+        Map<String, Long> matched = null;
+        if (StringUtils.isNotEmpty(userName))
+        {
+            matched = getIndex(CacheConstants.ONLINE_USER_INDEX_KEY + userName);
+        }
+        if (StringUtils.isNotEmpty(ipaddr))
+        {
+            Map<String, Long> byIp = getIndex(CacheConstants.ONLINE_IP_INDEX_KEY + ipaddr);
+            if (matched == null)
+            {
+                matched = byIp;
+            }
+            else
+            {
+                matched.keySet().retainAll(byIp.keySet());
+            }
+        }
+        return matched.entrySet().stream().sorted(Map.Entry.<String, Long> comparingByValue(Comparator.reverseOrder())).collect(Collectors.toList());
+    }
+
+    /**
+     * 读取索引中未过期的会话，顺带删除已过期的条目
+     */
+    private Map<String, Long> getIndex(String key)
+    {
+        long now = System.currentTimeMillis();
+        Map<String, Object> entries = redisCache.getCacheMap(key);
+        Map<String, Long> result = new HashMap<String, Long>();
+        for (Map.Entry<String, Object> entry : entries.entrySet())
+        {
+            long expire = Long.parseLong(String.valueOf(entry.getValue()));
+            if (expire > now)
+            {
+                result.put(entry.getKey(), expire);
+            }
+            else
+            {
+                redisCache.deleteCacheMapValue(key, entry.getKey());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 惰性清理已过期的会话，令牌仍存在（期间被刷新）的会话保留
+     */
+    private void cleanExpired()
+    {
+        Set<Object> expired = redisTemplate.opsForZSet().rangeByScore(CacheConstants.ONLINE_SESSION_KEY, 0, System.currentTimeMillis(), 0, CLEAN_BATCH_SIZE);
+        if (StringUtils.isEmpty(expired))
+        {
+            return;
+        }
+        List<Object> tokens = new ArrayList<Object>();
+        for (Object member : expired)
+        {
+            String token = String.valueOf(member);
+            if (!Boolean.TRUE.equals(redisCache.hasKey(CacheConstants.LOGIN_TOKEN_KEY + token)))
+            {
+                tokens.add(token);
+            }
+        }
+        if (tokens.isEmpty())
+        {
+            return;
+        }
+        List<SysUserOnline> sessions = redisCache.getMultiCacheMapValue(CacheConstants.ONLINE_SESSION_INFO_KEY, tokens);
+        for (int i = 0; i < tokens.size(); i++)
+        {
+            SysUserOnline online = sessions.get(i);
+            if (StringUtils.isNotNull(online))
+            {
+                removeIndex(online, (String) tokens.get(i));
+            }
+        }
+        redisTemplate.opsForHash().delete(CacheConstants.ONLINE_SESSION_INFO_KEY, tokens.toArray());
+        redisTemplate.opsForZSet().remove(CacheConstants.ONLINE_SESSION_KEY, tokens.toArray());
+    }
+
+    private void addIndex(String key, String token, long expire)
+    {
+        redisCache.setCacheMapValue(key, token, expire);
+        redisCache.expire(key, expireTime, TimeUnit.MINUTES);
+    }
+
+    private void removeIndex(SysUserOnline online, String token)
+    {
+        redisCache.deleteCacheMapValue(CacheConstants.ONLINE_USER_INDEX_KEY + online.getUserName(), token);
+        redisCache.deleteCacheMapValue(CacheConstants.ONLINE_IP_INDEX_KEY + online.getIpaddr(), token);
+    }
+}
@@ -0,0 +1,194 @@
+package com.jf.framework.web.service;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import com.jf.framework.web.domain.Server;
+import com.jf.framework.web.domain.server.Sample;
+import com.jf.framework.web.domain.server.SysFile;
+import oshi.SystemInfo;
+import oshi.hardware.HardwareAbstractionLayer;
+
+/**
+ * 服务器指标后台采样，接口直接返回最近一次快照
+ *
+ * @author jf
+ */
+@Component
+public class ServerMonitorService
+{
+    private static final Logger log = LoggerFactory.getLogger(ServerMonitorService.class);
+
+    /** 采样间隔（秒） */
+    @Value("${monitor.sampleInterval:5}")
+    private int sampleInterval;
+
+    /** 保留的采样点数 */
+    @Value("${monitor.historySize:120}")
+    private int historySize;
+
+    /** 磁盘信息刷新间隔（秒） */
+    @Value("${monitor.diskInterval:60}")
+    private int diskInterval;
+
+    @Autowired
+    @Qualifier("scheduledExecutorService")
+    private ScheduledExecutorService scheduledExecutorService;
+
+    private final SystemInfo systemInfo = new SystemInfo();
+
+    private ScheduledFuture<?> future;
+
+    /** 上次采样的CPU时钟计数 */
+    private long[] prevTicks;
+
+    /** 上次采样的GC累计次数与耗时 */
+    private long prevGcCount;
+
+    private long prevGcTime;
+
+    /** 磁盘信息及其刷新时间 */
+    private List<SysFile> sysFiles = new ArrayList<SysFile>();
+
+    private long diskTime;
+
+    /** 最近一次快照 */
+    private volatile Server latest;
+
+    /** 采样点环形缓冲 */
+    private Sample[] samples;
+
+    private int sampleIndex;
+
+    private int sampleCount;
+
+    @PostConstruct
+    public void init()
+    {
+        samples = new Sample[Math.max(historySize, 1)];
+        prevTicks = systemInfo.getHardware().getProcessor().getSystemCpuLoadTicks();
+        long[] gc = getGcTotals();
+        prevGcCount = gc[0];
+        prevGcTime = gc[1];
+        future = scheduledExecutorService.scheduleWithFixedDelay(this::sample, sampleInterval, sampleInterval, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void destroy()
+    {
+        if (future != null)
+        {
+            future.cancel(false);
+        }
+    }
+
+    /**
+     * 获取最近一次快照，尚未采样时同步采集一次
+     *
+     * @return 服务器信息
+     */
+    public Server getServer() throws Exception
+    {
+        Server server = latest;
+        if (server == null)
+        {
+            server = new Server();
+            server.copyTo();
+        }
+        return server;
+    }
+
+    /**
+     * 获取最近的采样点，按时间从早到晚排列
+     *
+     * @return 采样点列表
+     */
+    public synchronized List<Sample> getHistory()
+    {
+        List<Sample> history = new ArrayList<Sample>(sampleCount);
+        int start = (sampleIndex - sampleCount + samples.length) % samples.length;
+        for (int i = 0; i < sampleCount; i++)
+        {
+            history.add(samples[(start + i) % samples.length]);
+        }
+        return history;
+    }
+
+    /**
+     * 采集一次指标，异常时记录日志并等待下次采样
+     */
+    private void sample()
+    {
+        try
+        {
+            long now = System.currentTimeMillis();
+            HardwareAbstractionLayer hal = systemInfo.getHardware();
+            long[] ticks = hal.getProcessor().getSystemCpuLoadTicks();
+            Server server = new Server();
+            server.copyTo(hal, prevTicks, ticks);
+            prevTicks = ticks;
+
+            if (now - diskTime >= diskInterval * 1000L)
+            {
+                Server disk = new Server();
+                disk.setSysFiles(systemInfo.getOperatingSystem());
+                sysFiles = disk.getSysFiles();
+                diskTime = now;
+            }
+            server.setSysFiles(sysFiles);
+            latest = server;
+
+            long[] gc = getGcTotals();
+            Sample sample = new Sample();
+            sample.setTime(now);
+            sample.setCpuUsage(server.getCpu().getUsed() + server.getCpu().getSys());
+            sample.setMemUsage(server.getMem().getUsage());
+            sample.setJvmUsed(server.getJvm().getUsed());
+            sample.setJvmUsage(server.getJvm().getUsage());
+            sample.setGcCount(gc[0] - prevGcCount);
+            sample.setGcTime(gc[1] - prevGcTime);
+            sample.setDiskUsage(sysFiles.stream().mapToDouble(SysFile::getUsage).max().orElse(0));
+            prevGcCount = gc[0];
+            prevGcTime = gc[1];
+            addSample(sample);
+        }
+        catch (Exception e)
+        {
+            log.error("服务器指标采样失败", e);
+        }
+    }
+
+    private synchronized void addSample(Sample sample)
+    {
+        samples[sampleIndex] = sample;
+        sampleIndex = (sampleIndex + 1) % samples.length;
+        sampleCount = Math.min(sampleCount + 1, samples.length);
+    }
+
+    /**
+     * 所有垃圾收集器的累计次数与耗时
+     */
+    private long[] getGcTotals()
+    {
+        long count = 0;
+        long time = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans())
+        {
+            count += Math.max(gc.getCollectionCount(), 0);
+            time += Math.max(gc.getCollectionTime(), 0);
+        }
+        return new long[] { count, time };
+    }
+}
@@ -1,7 +1,10 @@
 package com.jf.framework.web.service;
 
+import java.util.List;
 import jakarta.annotation.Resource;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
@@ -18,6 +21,7 @@ import com.jf.common.exception.user.CaptchaException;
 import com.jf.common.exception.user.CaptchaExpireException;
 import com.jf.common.exception.user.UserNotExistsException;
 import com.jf.common.exception.user.UserPasswordNotMatchException;
+import com.jf.common.exception.user.UserPasswordRetryLimitExceedException;
 import com.jf.common.utils.DateUtils;
 import com.jf.common.utils.MessageUtils;
 import com.jf.common.utils.StringUtils;
@@ -51,6 +55,9 @@ public class SysLoginService
     @Autowired
     private ISysConfigService configService;
 
+    @Autowired
+    private SysPasswordService passwordService;
+
     /**
      * 登录验证
      * 
@@ -62,10 +69,26 @@ public class SysLoginService
      */
     public String login(String username, String password, String code, String uuid)
     {
+        boolean captchaEnabled = configService.selectCaptchaEnabled();
+        String verifyKey = CacheConstants.CAPTCHA_CODE_KEY + StringUtils.nvl(uuid, "");
+        List<Object> cached = loadLoginCache(captchaEnabled, verifyKey, passwordService.getCacheKey(username));
         // 验证码校验
-        validateCaptcha(username, code, uuid);
+        if (captchaEnabled)
+        {
+            checkCaptcha(username, code, (String) cached.get(0));
+        }
         // 登录前置校验
         loginPreCheck(username, password);
+        // 密码错误次数校验
+        try
+        {
+            passwordService.checkRetryLimit((Number) cached.get(cached.size() - 1));
+        }
+        catch (UserPasswordRetryLimitExceedException e)
+        {
+            AsyncManager.me().execute(AsyncFactory.recordLogininfor(username, Constants.LOGIN_FAIL, e.getMessage()));
+            throw new ServiceException(e.getMessage());
+        }
         // 用户验证
         Authentication authentication = null;
         try
@@ -99,6 +122,34 @@ public class SysLoginService
         return tokenService.createToken(loginUser);
     }
 
+    /**
+     * 一次往返读取验证码和密码错误次数，验证码读取后即删除
+     * 
+     * @param captchaEnabled 是否开启验证码
+     * @param verifyKey 验证码缓存键
+     * @param retryKey 密码错误次数缓存键
+     * @return 开启验证码时为[验证码, 删除数, 错误次数]，否则为[错误次数]
+     */
+    @SuppressWarnings("unchecked")
+    private List<Object> loadLoginCache(boolean captchaEnabled, String verifyKey, String retryKey)
+    {
+        return redisCache.redisTemplate.executePipelined(new SessionCallback<Object>()
+        {
+            @Override
+            public <K, V> Object execute(RedisOperations<K, V> operations)
+            {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                if (captchaEnabled)
+                {
+                    ops.opsForValue().get(verifyKey);
+                    ops.delete(verifyKey);
+                }
+                ops.opsForValue().get(retryKey);
+                return null;
+            }
+        });
+    }
+
     /**
      * 校验验证码
      * 
@@ -114,17 +165,32 @@ public class SysLoginService
         {
             String verifyKey = CacheConstants.CAPTCHA_CODE_KEY + StringUtils.nvl(uuid, "");
             String captcha = redisCache.getCacheObject(verifyKey);
-            if (captcha == null)
-            {
-                AsyncManager.me().execute(AsyncFactory.recordLogininfor(username, Constants.LOGIN_FAIL, MessageUtils.message("user.jcaptcha.expire")));
-                throw new CaptchaExpireException();
-            }
-            redisCache.deleteObject(verifyKey);
-            if (!code.equalsIgnoreCase(captcha))
+            if (captcha != null)
             {
-                AsyncManager.me().execute(AsyncFactory.recordLogininfor(username, Constants.LOGIN_FAIL, MessageUtils.message("user.jcaptcha.error")));
-                throw new CaptchaException();
+                redisCache.deleteObject(verifyKey);
             }
+            checkCaptcha(username, code, captcha);
+        }
+    }
+
+    /**
+     * 比对验证码
+     * 
+     * @param username 用户名
+     * @param code 验证码
+     * @param captcha 缓存中的验证码，已过期为null
+     */
+    private void checkCaptcha(String username, String code, String captcha)
+    {
+        if (captcha == null)
+        {
+            AsyncManager.me().execute(AsyncFactory.recordLogininfor(username, Constants.LOGIN_FAIL, MessageUtils.message("user.jcaptcha.expire")));
+            throw new CaptchaExpireException();
+        }
+        if (!code.equalsIgnoreCase(captcha))
+        {
+            AsyncManager.me().execute(AsyncFactory.recordLogininfor(username, Constants.LOGIN_FAIL, MessageUtils.message("user.jcaptcha.error")));
+            throw new CaptchaException();
         }
     }
 
@@ -1,8 +1,11 @@
 package com.jf.framework.web.service;
 
+import java.util.Collections;
 import java.util.concurrent.TimeUnit;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
 import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Component;
 import com.jf.common.constant.CacheConstants;
@@ -10,7 +13,7 @@ import com.jf.common.core.domain.entity.SysUser;
 import com.jf.common.core.redis.RedisCache;
 import com.jf.common.exception.user.UserPasswordNotMatchException;
 import com.jf.common.exception.user.UserPasswordRetryLimitExceedException;
-import com.jf.common.utils.SecurityUtils;
+import com.jf.framework.manager.PasswordHashExecutor;
 import com.jf.framework.security.context.AuthenticationContextHolder;
 
 /**
@@ -21,9 +24,18 @@ import com.jf.framework.security.context.AuthenticationContextHolder;
 @Component
 public class SysPasswordService
 {
+    /** 递增密码错误次数并重置过期时间，在一个脚本中执行，避免只递增而未设置过期导致永久锁定 */
+    private static final RedisScript<Long> RETRY_COUNT_SCRIPT = new DefaultRedisScript<>(
+            "local current = redis.call('incr', KEYS[1])\n" +
+            "redis.call('expire', KEYS[1], tonumber(ARGV[1]))\n" +
+            "return current", Long.class);
+
     @Autowired
     private RedisCache redisCache;
 
+    @Autowired
+    private PasswordHashExecutor passwordHashExecutor;
+
     @Value(value = "${user.password.maxRetryCount}")
     private int maxRetryCount;
 
@@ -36,33 +48,33 @@ public class SysPasswordService
      * @param username 用户名
      * @return 缓存键key
      */
-    private String getCacheKey(String username)
+    public String getCacheKey(String username)
     {
         return CacheConstants.PWD_ERR_CNT_KEY + username;
     }
 
+    /**
+     * 校验密码错误次数是否超出限制
+     * 
+     * @param retryCount 已错误次数，由登录时与验证码一并读取
+     */
+    public void checkRetryLimit(Number retryCount)
+    {
+        if (retryCount != null && retryCount.intValue() >= maxRetryCount)
+        {
+            throw new UserPasswordRetryLimitExceedException(maxRetryCount, lockTime);
+        }
+    }
+
     public void validate(SysUser user)
     {
         Authentication usernamePasswordAuthenticationToken = AuthenticationContextHolder.getContext();
         String username = usernamePasswordAuthenticationToken.getName();
         String password = usernamePasswordAuthenticationToken.getCredentials().toString();
 
-        Integer retryCount = redisCache.getCacheObject(getCacheKey(username));
-
-        if (retryCount == null)
-        {
-            retryCount = 0;
-        }
-
-        if (retryCount >= Integer.valueOf(maxRetryCount).intValue())
-        {
-            throw new UserPasswordRetryLimitExceedException(maxRetryCount, lockTime);
-        }
-
         if (!matches(user, password))
         {
-            retryCount = retryCount + 1;
-            redisCache.setCacheObject(getCacheKey(username), retryCount, lockTime, TimeUnit.MINUTES);
+            redisCache.redisTemplate.execute(RETRY_COUNT_SCRIPT, Collections.singletonList(getCacheKey(username)), (int) TimeUnit.MINUTES.toSeconds(lockTime));
             throw new UserPasswordNotMatchException();
         }
         else
@@ -73,14 +85,11 @@ public class SysPasswordService
 
     public boolean matches(SysUser user, String rawPassword)
     {
-        return SecurityUtils.matchesPassword(rawPassword, user.getPassword());
+        return passwordHashExecutor.matches(rawPassword, user.getPassword());
     }
 
     public void clearLoginRecordCache(String loginName)
     {
-        if (redisCache.hasKey(getCacheKey(loginName)))
-        {
-            redisCache.deleteObject(getCacheKey(loginName));
-        }
+        redisCache.deleteObject(getCacheKey(loginName));
     }
 }
@@ -1,5 +1,6 @@
 package com.jf.framework.web.service;
 
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
@@ -56,6 +57,18 @@ public class SysPermissionService
      * @return 菜单权限信息
      */
     public Set<String> getMenuPermission(SysUser user)
+    {
+        return getMenuPermission(user, false);
+    }
+
+    /**
+     * 获取菜单数据权限
+     * 
+     * @param user 用户信息
+     * @param preloaded 角色权限是否已随用户一并查询（selectLoginUserByUserName），否则按角色查询
+     * @return 菜单权限信息
+     */
+    public Set<String> getMenuPermission(SysUser user, boolean preloaded)
     {
         Set<String> perms = new HashSet<String>();
         // 管理员拥有所有权限
@@ -73,7 +86,8 @@ public class SysPermissionService
                 {
                     if (StringUtils.equals(role.getStatus(), UserConstants.ROLE_NORMAL) && !role.isAdmin())
                     {
-                        Set<String> rolePerms = menuService.selectMenuPermsByRoleId(role.getRoleId());
+                        Set<String> rolePerms = preloaded ? splitPerms(role.getPermissions())
+                                : menuService.selectMenuPermsByRoleId(role.getRoleId());
                         role.setPermissions(rolePerms);
                         perms.addAll(rolePerms);
                     }
@@ -86,4 +100,27 @@ public class SysPermissionService
         }
         return perms;
     }
+
+    /**
+     * 拆分逗号分隔的权限标识
+     * 
+     * @param perms 权限标识，角色没有菜单时为null
+     * @return 拆分后的权限标识
+     */
+    private Set<String> splitPerms(Set<String> perms)
+    {
+        Set<String> permsSet = new HashSet<String>();
+        if (perms == null)
+        {
+            return permsSet;
+        }
+        for (String perm : perms)
+        {
+            if (StringUtils.isNotEmpty(perm))
+            {
+                permsSet.addAll(Arrays.asList(perm.trim().split(",")));
+            }
+        }
+        return permsSet;
+    }
 }
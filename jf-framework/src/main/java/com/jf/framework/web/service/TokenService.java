@@ -54,6 +54,9 @@ public class TokenService
     @Autowired
     private RedisCache redisCache;
 
+    @Autowired
+    private OnlineSessionService onlineSessionService;
+
     /**
      * 获取用户身份信息
      * 
@@ -102,6 +105,7 @@ public class TokenService
         {
             String userKey = getTokenKey(token);
             redisCache.deleteObject(userKey);
+            onlineSessionService.unregister(token);
         }
     }
 
@@ -152,6 +156,7 @@ public class TokenService
         // 根据uuid将loginUser缓存
         String userKey = getTokenKey(loginUser.getToken());
         redisCache.setCacheObject(userKey, loginUser, expireTime, TimeUnit.MINUTES);
+        onlineSessionService.register(loginUser);
     }
 
     /**
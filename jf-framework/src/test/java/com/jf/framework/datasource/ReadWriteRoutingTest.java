@@ -0,0 +1,180 @@
+package com.jf.framework.datasource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import java.util.HashMap;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mybatis.spring.SqlSessionFactoryBean;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import com.jf.common.enums.DataSourceType;
+
+/**
+ * 读写分离路由测试，主从库使用两个独立的H2内存库，通过各自的数据区分语句落到哪个库
+ *
+ * @author jf
+ */
+public class ReadWriteRoutingTest
+{
+    private static int sequence;
+
+    private DataSource master;
+
+    private DataSource replica;
+
+    private NameMapper mapper;
+
+    private TransactionTemplate transactionTemplate;
+
+    public interface NameMapper
+    {
+        @Select("select name from sys_route_test where id = 1")
+        String selectName();
+
+        @Select("select name from sys_route_test where id = 1")
+        String checkName();
+
+        @Update("update sys_route_test set name = #{name} where id = 1")
+        int updateName(String name);
+    }
+
+    @BeforeEach
+    public void setUp() throws Exception
+    {
+        int id = ++sequence;
+        master = createDataSource("master" + id, "master");
+        replica = createDataSource("replica" + id, "replica");
+
+        ReadWriteRouter router = new ReadWriteRouter(10);
+        router.addReplica(replica, 1, false);
+        router.check();
+        DataSource dataSource = createRoutingDataSource(router);
+        mapper = createMapper(dataSource);
+        transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    public void selectOutsideTransactionReadsReplica()
+    {
+        assertEquals("replica", mapper.selectName());
+    }
+
+    @Test
+    public void nonSelectQueryOutsideTransactionReadsMaster()
+    {
+        assertEquals("master", mapper.checkName());
+    }
+
+    @Test
+    public void readsInsideTransactionGoToMaster()
+    {
+        assertEquals("master", transactionTemplate.execute(status -> mapper.selectName()));
+    }
+
+    @Test
+    public void writeThenReadInsideTransactionSeesWrite()
+    {
+        String name = transactionTemplate.execute(status -> {
+            mapper.updateName("changed");
+            return mapper.selectName();
+        });
+        assertEquals("changed", name);
+        assertEquals("changed", queryName(master));
+        assertEquals("replica", queryName(replica));
+    }
+
+    @Test
+    public void readOnlyTransactionReadsReplica()
+    {
+        transactionTemplate.setReadOnly(true);
+        assertEquals("replica", transactionTemplate.execute(status -> mapper.selectName()));
+    }
+
+    @Test
+    public void readAfterWriteInRequestStaysOnMaster()
+    {
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertEquals("replica", mapper.selectName());
+        mapper.updateName("changed");
+        assertEquals("changed", mapper.selectName());
+    }
+
+    @Test
+    public void explicitDataSourceOverridesRouting()
+    {
+        DynamicDataSourceContextHolder.setDataSourceType(DataSourceType.MASTER.name());
+        try
+        {
+            assertEquals("master", mapper.selectName());
+        }
+        finally
+        {
+            DynamicDataSourceContextHolder.clearDataSourceType();
+        }
+    }
+
+    @Test
+    public void selectFallsBackToMasterWithoutAvailableReplica() throws Exception
+    {
+        ReadWriteRouter router = new ReadWriteRouter(10);
+        router.addReplica(replica, 1, false);
+        // 未完成首次检测，没有可用从库
+        NameMapper masterOnly = createMapper(createRoutingDataSource(router));
+        assertEquals("master", masterOnly.selectName());
+    }
+
+    /**
+     * 与DruidConfig一致：动态数据源外包装延迟连接代理
+     */
+    private DataSource createRoutingDataSource(ReadWriteRouter router)
+    {
+        Map<Object, Object> targetDataSources = new HashMap<>();
+        targetDataSources.put(DataSourceType.MASTER.name(), master);
+        targetDataSources.putAll(router.getTargetDataSources());
+        return new LazyConnectionDataSourceProxy(new DynamicDataSource(master, targetDataSources, router));
+    }
+
+    private static NameMapper createMapper(DataSource dataSource) throws Exception
+    {
+        Configuration configuration = new Configuration();
+        configuration.addMapper(NameMapper.class);
+        SqlSessionFactoryBean factoryBean = new SqlSessionFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setConfiguration(configuration);
+        factoryBean.setPlugins(new ReadWriteInterceptor());
+        return new SqlSessionTemplate(factoryBean.getObject()).getMapper(NameMapper.class);
+    }
+
+    private static DataSource createDataSource(String database, String name)
+    {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + database + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("create table sys_route_test (id int primary key, name varchar(30))");
+        jdbcTemplate.update("insert into sys_route_test values (1, ?)", name);
+        return dataSource;
+    }
+
+    private static String queryName(DataSource dataSource)
+    {
+        return new JdbcTemplate(dataSource).queryForObject("select name from sys_route_test where id = 1", String.class);
+    }
+}
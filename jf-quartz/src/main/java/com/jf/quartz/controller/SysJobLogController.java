@@ -38,6 +38,10 @@ public class SysJobLogController extends BaseController
     @GetMapping("/list")
     public TableDataInfo list(SysJobLog sysJobLog)
     {
+        if (isSeekPage())
+        {
+            return getSeekDataTable(sysJobLog, () -> jobLogService.selectJobLogList(sysJobLog));
+        }
         startPage();
         List<SysJobLog> list = jobLogService.selectJobLogList(sysJobLog);
         return getDataTable(list);
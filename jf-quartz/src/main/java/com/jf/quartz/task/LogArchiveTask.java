@@ -0,0 +1,33 @@
+package com.jf.quartz.task;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import com.jf.system.service.ISysLogArchiveService;
+
+/**
+ * 日志分区维护与归档任务
+ * 
+ * @author jf
+ */
+@Component("logArchiveTask")
+public class LogArchiveTask
+{
+    @Autowired
+    private ISysLogArchiveService logArchiveService;
+
+    /**
+     * 提前创建日志表的月分区
+     */
+    public void rollover()
+    {
+        logArchiveService.rolloverPartitions();
+    }
+
+    /**
+     * 归档超出保留期的日志分区
+     */
+    public void archive()
+    {
+        logArchiveService.archivePartitions();
+    }
+}
@@ -0,0 +1,55 @@
+package com.jf.system.mapper;
+
+import java.util.List;
+import java.util.Map;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
+
+/**
+ * 日志表分区 数据层
+ * 
+ * @author jf
+ */
+public interface SysLogPartitionMapper
+{
+    /**
+     * 查询表的分区名称，按分区顺序排列
+     * 
+     * @param tableName 表名
+     * @return 分区名称集合，未分区时为空
+     */
+    public List<String> selectPartitionNames(String tableName);
+
+    /**
+     * 查询表的列名，按列顺序排列
+     * 
+     * @param tableName 表名
+     * @return 列名集合
+     */
+    public List<String> selectColumnNames(String tableName);
+
+    /**
+     * 拆分最大值分区，新增按月分区
+     * 
+     * @param tableName 表名
+     * @param partitions 新增分区（name分区名称，bound分区上界）
+     */
+    public void reorganizeMaxPartition(@Param("tableName") String tableName, @Param("partitions") List<Map<String, String>> partitions);
+
+    /**
+     * 删除分区
+     * 
+     * @param tableName 表名
+     * @param partitionName 分区名称
+     */
+    public void dropPartition(@Param("tableName") String tableName, @Param("partitionName") String partitionName);
+
+    /**
+     * 流式查询分区数据，结果逐行交给处理器
+     * 
+     * @param tableName 表名
+     * @param partitionName 分区名称
+     * @param handler 结果处理器
+     */
+    public void streamPartition(@Param("tableName") String tableName, @Param("partitionName") String partitionName, ResultHandler<Map<String, Object>> handler);
+}
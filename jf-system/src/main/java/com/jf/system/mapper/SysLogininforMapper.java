@@ -1,6 +1,7 @@
 package com.jf.system.mapper;
 
 import java.util.List;
+import org.apache.ibatis.session.ResultHandler;
 import com.jf.system.domain.SysLogininfor;
 
 /**
@@ -25,6 +26,14 @@ public interface SysLogininforMapper
      */
     public List<SysLogininfor> selectLogininforList(SysLogininfor logininfor);
 
+    /**
+     * 流式查询系统登录日志，结果逐行交给处理器，用于大数据量导出
+     * 
+     * @param logininfor 访问日志对象
+     * @param handler 结果处理器
+     */
+    public void streamLogininforList(SysLogininfor logininfor, ResultHandler<SysLogininfor> handler);
+
     /**
      * 批量删除系统登录日志
      * 
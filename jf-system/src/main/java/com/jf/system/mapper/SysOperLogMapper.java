@@ -1,6 +1,7 @@
 package com.jf.system.mapper;
 
 import java.util.List;
+import org.apache.ibatis.session.ResultHandler;
 import com.jf.system.domain.SysOperLog;
 
 /**
@@ -25,6 +26,14 @@ public interface SysOperLogMapper
      */
     public List<SysOperLog> selectOperLogList(SysOperLog operLog);
 
+    /**
+     * 流式查询系统操作日志，结果逐行交给处理器，用于大数据量导出
+     * 
+     * @param operLog 操作日志对象
+     * @param handler 结果处理器
+     */
+    public void streamOperLogList(SysOperLog operLog, ResultHandler<SysOperLog> handler);
+
     /**
      * 批量删除系统操作日志
      * 
@@ -41,6 +50,14 @@ public interface SysOperLogMapper
      */
     public SysOperLog selectOperLogById(Long operId);
 
+    /**
+     * 批量查询操作日志
+     * 
+     * @param operIds 操作ID
+     * @return 操作日志集合
+     */
+    public List<SysOperLog> selectOperLogByIds(Long[] operIds);
+
     /**
      * 清空操作日志
      */
@@ -1,6 +1,8 @@
 package com.jf.system.mapper;
 
+import java.util.Collection;
 import java.util.List;
+import org.apache.ibatis.annotations.Param;
 import com.jf.system.domain.SysRoleDept;
 
 /**
@@ -35,10 +37,27 @@ public interface SysRoleDeptMapper
     public int selectCountRoleDeptByDeptId(Long deptId);
 
     /**
-     * 批量新增角色部门信息
+     * 查询角色已关联的部门ID
      * 
-     * @param roleDeptList 角色部门列表
+     * @param roleId 角色ID
+     * @return 部门ID列表
+     */
+    public List<Long> selectDeptIdsByRoleId(Long roleId);
+
+    /**
+     * 删除角色与指定部门的关联
+     * 
+     * @param roleId 角色ID
+     * @param deptIds 部门ID
+     * @return 结果
+     */
+    public int deleteRoleDeptByDeptIds(@Param("roleId") Long roleId, @Param("deptIds") Collection<Long> deptIds);
+
+    /**
+     * 新增角色部门信息，配合批量会话使用
+     * 
+     * @param roleDept 角色部门
      * @return 结果
      */
-    public int batchRoleDept(List<SysRoleDept> roleDeptList);
+    public int insertRoleDept(SysRoleDept roleDept);
 }
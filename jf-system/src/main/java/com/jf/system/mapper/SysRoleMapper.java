@@ -1,6 +1,7 @@
 package com.jf.system.mapper;
 
 import java.util.List;
+import org.apache.ibatis.session.ResultHandler;
 import com.jf.common.core.domain.entity.SysRole;
 
 /**
@@ -18,6 +19,14 @@ public interface SysRoleMapper
      */
     public List<SysRole> selectRoleList(SysRole role);
 
+    /**
+     * 流式查询角色数据，结果逐行交给处理器，用于导出
+     * 
+     * @param role 角色信息
+     * @param handler 结果处理器
+     */
+    public void streamRoleList(SysRole role, ResultHandler<SysRole> handler);
+
     /**
      * 根据用户ID查询角色
      * 
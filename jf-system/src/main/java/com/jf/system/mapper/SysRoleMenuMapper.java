@@ -1,6 +1,8 @@
 package com.jf.system.mapper;
 
+import java.util.Collection;
 import java.util.List;
+import org.apache.ibatis.annotations.Param;
 import com.jf.system.domain.SysRoleMenu;
 
 /**
@@ -35,10 +37,27 @@ public interface SysRoleMenuMapper
     public int deleteRoleMenu(Long[] ids);
 
     /**
-     * 批量新增角色菜单信息
+     * 查询角色已关联的菜单ID
      * 
-     * @param roleMenuList 角色菜单列表
+     * @param roleId 角色ID
+     * @return 菜单ID列表
+     */
+    public List<Long> selectMenuIdsByRoleId(Long roleId);
+
+    /**
+     * 删除角色与指定菜单的关联
+     * 
+     * @param roleId 角色ID
+     * @param menuIds 菜单ID
+     * @return 结果
+     */
+    public int deleteRoleMenuByMenuIds(@Param("roleId") Long roleId, @Param("menuIds") Collection<Long> menuIds);
+
+    /**
+     * 新增角色菜单信息，配合批量会话使用
+     * 
+     * @param roleMenu 角色菜单
      * @return 结果
      */
-    public int batchRoleMenu(List<SysRoleMenu> roleMenuList);
+    public int insertRoleMenu(SysRoleMenu roleMenu);
 }
@@ -3,6 +3,7 @@ package com.jf.system.mapper;
 import java.util.Date;
 import java.util.List;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 import com.jf.common.core.domain.entity.SysUser;
 
 /**
@@ -20,6 +21,14 @@ public interface SysUserMapper
      */
     public List<SysUser> selectUserList(SysUser sysUser);
 
+    /**
+     * 流式查询用户列表，结果逐行交给处理器，用于大数据量导出
+     * 
+     * @param sysUser 用户信息
+     * @param handler 结果处理器
+     */
+    public void streamUserList(SysUser sysUser, ResultHandler<SysUser> handler);
+
     /**
      * 根据条件分页查询已配用户角色列表
      * 
@@ -44,6 +53,14 @@ public interface SysUserMapper
      */
     public SysUser selectUserByUserName(String userName);
 
+    /**
+     * 通过用户名查询登录用户，角色一并带出菜单权限标识
+     * 
+     * @param userName 用户名
+     * @return 用户对象信息
+     */
+    public SysUser selectLoginUserByUserName(String userName);
+
     /**
      * 通过用户ID查询用户
      * 
@@ -60,6 +77,14 @@ public interface SysUserMapper
      */
     public int insertUser(SysUser user);
 
+    /**
+     * 批量新增用户信息
+     * 
+     * @param userList 用户列表
+     * @return 结果
+     */
+    public int batchInsertUser(List<SysUser> userList);
+
     /**
      * 修改用户信息
      * 
@@ -129,6 +154,14 @@ public interface SysUserMapper
      */
     public SysUser checkUserNameUnique(String userName);
 
+    /**
+     * 根据用户名称批量查询已存在的用户
+     * 
+     * @param userNames 用户名称列表
+     * @return 用户信息集合
+     */
+    public List<SysUser> selectUsersByUserNames(List<String> userNames);
+
     /**
      * 校验手机号码是否唯一
      *
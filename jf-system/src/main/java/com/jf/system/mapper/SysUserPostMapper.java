@@ -1,6 +1,5 @@
 package com.jf.system.mapper;
 
-import java.util.List;
 import com.jf.system.domain.SysUserPost;
 
 /**
@@ -35,10 +34,10 @@ public interface SysUserPostMapper
     public int deleteUserPost(Long[] ids);
 
     /**
-     * 批量新增用户岗位信息
+     * 新增用户岗位信息，配合批量会话使用
      * 
-     * @param userPostList 用户岗位列表
+     * @param userPost 用户岗位
      * @return 结果
      */
-    public int batchUserPost(List<SysUserPost> userPostList);
+    public int insertUserPost(SysUserPost userPost);
 }
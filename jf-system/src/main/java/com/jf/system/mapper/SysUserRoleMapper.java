@@ -36,12 +36,20 @@ public interface SysUserRoleMapper
     public int countUserRoleByRoleId(Long roleId);
 
     /**
-     * 批量新增用户角色信息
+     * 查询已分配给用户的角色ID
      * 
-     * @param userRoleList 用户角色列表
+     * @param roleIds 角色ID
+     * @return 已分配的角色ID列表
+     */
+    public List<Long> selectAssignedRoleIds(Long[] roleIds);
+
+    /**
+     * 新增用户角色信息，配合批量会话使用
+     * 
+     * @param userRole 用户角色
      * @return 结果
      */
-    public int batchUserRole(List<SysUserRole> userRoleList);
+    public int insertUserRole(SysUserRole userRole);
 
     /**
      * 删除用户和角色关联信息
@@ -26,6 +26,22 @@ public interface ISysConfigService
      */
     public String selectConfigByKey(String configKey);
 
+    /**
+     * 根据键名查询布尔类型的参数值
+     * 
+     * @param configKey 参数键名
+     * @return 参数值，不存在或无法转换时返回null
+     */
+    public Boolean selectConfigBool(String configKey);
+
+    /**
+     * 根据键名查询整数类型的参数值
+     * 
+     * @param configKey 参数键名
+     * @return 参数值，不存在或无法转换时返回null
+     */
+    public Integer selectConfigInt(String configKey);
+
     /**
      * 获取验证码开关
      * 
@@ -0,0 +1,23 @@
+package com.jf.system.service;
+
+/**
+ * 日志分区归档 服务层
+ * 
+ * @author jf
+ */
+public interface ISysLogArchiveService
+{
+    /**
+     * 为日志表创建当前及之后若干个月的分区
+     * 
+     * @return 新建的分区数
+     */
+    public int rolloverPartitions();
+
+    /**
+     * 将超出保留期的日志分区导出为压缩文件并从数据库删除
+     * 
+     * @return 归档的分区数
+     */
+    public int archivePartitions();
+}
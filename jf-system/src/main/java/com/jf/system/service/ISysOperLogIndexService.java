@@ -0,0 +1,58 @@
+package com.jf.system.service;
+
+import java.util.Date;
+import com.github.pagehelper.Page;
+import com.jf.system.domain.SysOperLog;
+
+/**
+ * 操作日志全文索引 服务层
+ * 
+ * @author jf
+ */
+public interface ISysOperLogIndexService
+{
+    /**
+     * 索引操作日志，已存在的同ID文档会被替换
+     * 
+     * @param operLog 操作日志对象
+     */
+    public void index(SysOperLog operLog);
+
+    /**
+     * 全文检索操作日志ID，按操作时间倒序
+     * 
+     * @param keyword 检索关键字，支持词、"短语"、前缀*及AND/OR/NOT组合
+     * @param beginTime 开始时间，可为空
+     * @param endTime 结束时间，可为空
+     * @param pageNum 页码
+     * @param pageSize 每页记录数
+     * @return 操作日志ID分页，total为命中总数
+     */
+    public Page<Long> search(String keyword, Date beginTime, Date endTime, int pageNum, int pageSize);
+
+    /**
+     * 删除索引
+     * 
+     * @param operIds 操作日志ID
+     */
+    public void deleteByIds(Long[] operIds);
+
+    /**
+     * 删除操作时间早于指定时间的索引
+     * 
+     * @param time 截止时间
+     */
+    public void deleteBefore(Date time);
+
+    /**
+     * 清空索引
+     */
+    public void deleteAll();
+
+    /**
+     * 从数据库重建索引，在后台线程执行
+     * 
+     * @return 是否已开始重建，已有重建任务在执行时返回false
+     */
+    public boolean rebuild();
+}
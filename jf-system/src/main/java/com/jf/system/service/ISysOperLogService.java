@@ -1,6 +1,8 @@
 package com.jf.system.service;
 
 import java.util.List;
+import org.apache.ibatis.session.ResultHandler;
+import com.github.pagehelper.Page;
 import com.jf.system.domain.SysOperLog;
 
 /**
@@ -17,6 +19,13 @@ public interface ISysOperLogService
      */
     public void insertOperlog(SysOperLog operLog);
 
+    /**
+     * 批量新增操作日志
+     * 
+     * @param operLogs 操作日志集合
+     */
+    public void insertOperlogs(List<SysOperLog> operLogs);
+
     /**
      * 查询系统操作日志集合
      * 
@@ -25,6 +34,25 @@ public interface ISysOperLogService
      */
     public List<SysOperLog> selectOperLogList(SysOperLog operLog);
 
+    /**
+     * 全文检索系统操作日志，按操作时间倒序
+     * 
+     * @param keyword 检索关键字
+     * @param operLog 操作日志对象，使用params.beginTime、params.endTime过滤
+     * @param pageNum 页码
+     * @param pageSize 每页记录数
+     * @return 操作日志分页
+     */
+    public Page<SysOperLog> searchOperLog(String keyword, SysOperLog operLog, int pageNum, int pageSize);
+
+    /**
+     * 流式查询系统操作日志，结果逐行交给处理器，用于大数据量导出
+     * 
+     * @param operLog 操作日志对象
+     * @param handler 结果处理器
+     */
+    public void streamOperLogList(SysOperLog operLog, ResultHandler<SysOperLog> handler);
+
     /**
      * 批量删除系统操作日志
      * 
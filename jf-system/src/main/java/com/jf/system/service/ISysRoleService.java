@@ -2,6 +2,7 @@ package com.jf.system.service;
 
 import java.util.List;
 import java.util.Set;
+import org.apache.ibatis.session.ResultHandler;
 import com.jf.common.core.domain.entity.SysRole;
 import com.jf.system.domain.SysUserRole;
 
@@ -20,6 +21,14 @@ public interface ISysRoleService
      */
     public List<SysRole> selectRoleList(SysRole role);
 
+    /**
+     * 流式查询角色数据，结果逐行交给处理器，用于导出
+     * 
+     * @param role 角色信息
+     * @param handler 结果处理器
+     */
+    public void streamRoleList(SysRole role, ResultHandler<SysRole> handler);
+
     /**
      * 根据用户ID查询角色列表
      * 
@@ -1,7 +1,9 @@
 package com.jf.system.service;
 
+import java.io.InputStream;
 import java.util.Date;
 import java.util.List;
+import org.apache.ibatis.session.ResultHandler;
 import com.jf.common.core.domain.entity.SysUser;
 
 /**
@@ -19,6 +21,14 @@ public interface ISysUserService
      */
     public List<SysUser> selectUserList(SysUser user);
 
+    /**
+     * 流式查询用户列表，结果逐行交给处理器，用于大数据量导出
+     * 
+     * @param user 用户信息
+     * @param handler 结果处理器
+     */
+    public void streamUserList(SysUser user, ResultHandler<SysUser> handler);
+
     /**
      * 根据条件分页查询已分配用户角色列表
      * 
@@ -43,6 +53,14 @@ public interface ISysUserService
      */
     public SysUser selectUserByUserName(String userName);
 
+    /**
+     * 通过用户名查询登录用户，角色一并带出菜单权限标识
+     * 
+     * @param userName 用户名
+     * @return 用户对象信息
+     */
+    public SysUser selectLoginUserByUserName(String userName);
+
     /**
      * 通过用户ID查询用户
      * 
@@ -101,9 +119,9 @@ public interface ISysUserService
     /**
      * 校验用户是否有数据权限
      * 
-     * @param userId 用户id
+     * @param userIds 用户id
      */
-    public void checkUserDataScope(Long userId);
+    public void checkUserDataScope(Long... userIds);
 
     /**
      * 新增用户信息
@@ -214,4 +232,14 @@ public interface ISysUserService
      * @return 结果
      */
     public String importUser(List<SysUser> userList, Boolean isUpdateSupport, String operName);
+
+    /**
+     * 流式导入用户数据
+     * 
+     * @param is Excel文件输入流
+     * @param isUpdateSupport 是否更新支持，如果已存在，则进行更新数据
+     * @param operName 操作用户
+     * @return 结果
+     */
+    public String importUser(InputStream is, Boolean isUpdateSupport, String operName);
 }
@@ -1,9 +1,23 @@
 package com.jf.system.service.impl;
 
-import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.stereotype.Service;
 import com.jf.common.annotation.DataSource;
 import com.jf.common.constant.CacheConstants;
@@ -20,24 +34,64 @@ import com.jf.system.service.ISysConfigService;
 /**
  * 参数配置 服务层实现
  * 
+ * 全部参数在本地保存一份不可变快照，参数变更时递增Redis中的版本号并广播，
+ * 各节点收到与本地不同的版本后从数据库重新加载；另按checkInterval定时比对版本号，弥补丢失的通知。
+ * 
  * @author jf
  */
 @Service
-public class SysConfigServiceImpl implements ISysConfigService
+public class SysConfigServiceImpl implements ISysConfigService, MessageListener
 {
+    private static final Logger log = LoggerFactory.getLogger(SysConfigServiceImpl.class);
+
+    /** 定时比对版本号的间隔（秒） */
+    @Value("${sysConfig.checkInterval:30}")
+    private int checkInterval;
+
     @Autowired
     private SysConfigMapper configMapper;
 
     @Autowired
     private RedisCache redisCache;
 
+    @Autowired
+    private RedisMessageListenerContainer listenerContainer;
+
+    @Autowired
+    @Qualifier("scheduledExecutorService")
+    private ScheduledExecutorService scheduledExecutorService;
+
+    /**
+     * 本地参数快照（参数键 → 参数值）
+     */
+    private volatile Map<String, ConfigValue> localConfigs = Collections.emptyMap();
+
+    /**
+     * 本地快照对应的版本号
+     */
+    private long localVersion;
+
+    private ScheduledFuture<?> future;
+
     /**
      * 项目启动时，初始化参数到缓存
      */
     @PostConstruct
     public void init()
     {
+        localVersion = Convert.toLong(redisCache.getCacheObject(CacheConstants.SYS_CONFIG_VERSION_KEY), 0L);
+        listenerContainer.addMessageListener(this, new ChannelTopic(CacheConstants.SYS_CONFIG_TOPIC));
         loadingConfigCache();
+        future = scheduledExecutorService.scheduleWithFixedDelay(this::checkVersion, checkInterval, checkInterval, TimeUnit.SECONDS);
+    }
+
+    @PreDestroy
+    public void destroy()
+    {
+        if (future != null)
+        {
+            future.cancel(false);
+        }
     }
 
     /**
@@ -64,22 +118,40 @@ public class SysConfigServiceImpl implements ISysConfigService
     @Override
     public String selectConfigByKey(String configKey)
     {
-        String configValue = Convert.toStr(redisCache.getCacheObject(getCacheKey(configKey)));
-        if (StringUtils.isNotEmpty(configValue))
+        ConfigValue configValue = localConfigs.get(configKey);
+        if (StringUtils.isNotNull(configValue) && StringUtils.isNotNull(configValue.value))
         {
-            return configValue;
-        }
-        SysConfig config = new SysConfig();
-        config.setConfigKey(configKey);
-        SysConfig retConfig = configMapper.selectConfig(config);
-        if (StringUtils.isNotNull(retConfig))
-        {
-            redisCache.setCacheObject(getCacheKey(configKey), retConfig.getConfigValue());
-            return retConfig.getConfigValue();
+            return configValue.value;
         }
         return StringUtils.EMPTY;
     }
 
+    /**
+     * 根据键名查询布尔类型的参数值
+     * 
+     * @param configKey 参数key
+     * @return 参数值，不存在或无法转换时返回null
+     */
+    @Override
+    public Boolean selectConfigBool(String configKey)
+    {
+        ConfigValue configValue = localConfigs.get(configKey);
+        return StringUtils.isNotNull(configValue) ? configValue.boolValue : null;
+    }
+
+    /**
+     * 根据键名查询整数类型的参数值
+     * 
+     * @param configKey 参数key
+     * @return 参数值，不存在或无法转换时返回null
+     */
+    @Override
+    public Integer selectConfigInt(String configKey)
+    {
+        ConfigValue configValue = localConfigs.get(configKey);
+        return StringUtils.isNotNull(configValue) ? configValue.intValue : null;
+    }
+
     /**
      * 获取验证码开关
      * 
@@ -88,12 +160,12 @@ public class SysConfigServiceImpl implements ISysConfigService
     @Override
     public boolean selectCaptchaEnabled()
     {
-        String captchaEnabled = selectConfigByKey("sys.account.captchaEnabled");
-        if (StringUtils.isEmpty(captchaEnabled))
+        Boolean captchaEnabled = selectConfigBool("sys.account.captchaEnabled");
+        if (StringUtils.isNull(captchaEnabled))
         {
             return true;
         }
-        return Convert.toBool(captchaEnabled);
+        return captchaEnabled;
     }
 
     /**
@@ -121,6 +193,7 @@ public class SysConfigServiceImpl implements ISysConfigService
         if (row > 0)
         {
             redisCache.setCacheObject(getCacheKey(config.getConfigKey()), config.getConfigValue());
+            publishConfigChange();
         }
         return row;
     }
@@ -144,6 +217,7 @@ public class SysConfigServiceImpl implements ISysConfigService
         if (row > 0)
         {
             redisCache.setCacheObject(getCacheKey(config.getConfigKey()), config.getConfigValue());
+            publishConfigChange();
         }
         return row;
     }
@@ -166,6 +240,7 @@ public class SysConfigServiceImpl implements ISysConfigService
             configMapper.deleteConfigById(configId);
             redisCache.deleteObject(getCacheKey(config.getConfigKey()));
         }
+        publishConfigChange();
     }
 
     /**
@@ -174,11 +249,8 @@ public class SysConfigServiceImpl implements ISysConfigService
     @Override
     public void loadingConfigCache()
     {
-        List<SysConfig> configsList = configMapper.selectConfigList(new SysConfig());
-        for (SysConfig config : configsList)
-        {
-            redisCache.setCacheObject(getCacheKey(config.getConfigKey()), config.getConfigValue());
-        }
+        loadingRedisCache();
+        publishConfigChange();
     }
 
     /**
@@ -187,8 +259,8 @@ public class SysConfigServiceImpl implements ISysConfigService
     @Override
     public void clearConfigCache()
     {
-        Collection<String> keys = redisCache.keys(CacheConstants.SYS_CONFIG_KEY + "*");
-        redisCache.deleteObject(keys);
+        clearRedisCache();
+        publishConfigChange();
     }
 
     /**
@@ -197,8 +269,9 @@ public class SysConfigServiceImpl implements ISysConfigService
     @Override
     public void resetConfigCache()
     {
-        clearConfigCache();
-        loadingConfigCache();
+        clearRedisCache();
+        loadingRedisCache();
+        publishConfigChange();
     }
 
     /**
@@ -219,6 +292,89 @@ public class SysConfigServiceImpl implements ISysConfigService
         return UserConstants.UNIQUE;
     }
 
+    /**
+     * 收到其他节点的参数变更通知
+     */
+    @Override
+    public void onMessage(Message message, byte[] pattern)
+    {
+        Long version = Convert.toLong(redisCache.redisTemplate.getValueSerializer().deserialize(message.getBody()));
+        if (StringUtils.isNotNull(version))
+        {
+            refreshLocalConfigs(version);
+        }
+    }
+
+    /**
+     * 定时比对Redis中的版本号，版本号被清除时等待下次变更
+     */
+    private void checkVersion()
+    {
+        try
+        {
+            Long version = Convert.toLong(redisCache.getCacheObject(CacheConstants.SYS_CONFIG_VERSION_KEY));
+            if (StringUtils.isNotNull(version))
+            {
+                refreshLocalConfigs(version);
+            }
+        }
+        catch (Exception e)
+        {
+            log.warn("比对参数版本号失败：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 递增参数版本号，刷新本地快照并通知其他节点
+     */
+    private void publishConfigChange()
+    {
+        long version = redisCache.increment(CacheConstants.SYS_CONFIG_VERSION_KEY);
+        refreshLocalConfigs(version);
+        redisCache.publish(CacheConstants.SYS_CONFIG_TOPIC, version);
+    }
+
+    /**
+     * 从数据库重新加载本地快照，版本号与本地相同时忽略；
+     * 版本号被清除后会从1重新开始，因此不能只接受更大的版本
+     * 
+     * @param version 版本号
+     */
+    private synchronized void refreshLocalConfigs(long version)
+    {
+        if (version == localVersion)
+        {
+            return;
+        }
+        Map<String, ConfigValue> configs = new HashMap<>();
+        for (SysConfig config : configMapper.selectConfigList(new SysConfig()))
+        {
+            configs.put(config.getConfigKey(), new ConfigValue(config.getConfigValue()));
+        }
+        localConfigs = Collections.unmodifiableMap(configs);
+        localVersion = version;
+    }
+
+    /**
+     * 加载参数到Redis缓存
+     */
+    private void loadingRedisCache()
+    {
+        List<SysConfig> configsList = configMapper.selectConfigList(new SysConfig());
+        for (SysConfig config : configsList)
+        {
+            redisCache.setCacheObject(getCacheKey(config.getConfigKey()), config.getConfigValue());
+        }
+    }
+
+    /**
+     * 清空Redis中的参数缓存
+     */
+    private void clearRedisCache()
+    {
+        redisCache.deleteByPattern(CacheConstants.SYS_CONFIG_KEY + "*");
+    }
+
     /**
      * 设置cache key
      * 
@@ -229,4 +385,23 @@ public class SysConfigServiceImpl implements ISysConfigService
     {
         return CacheConstants.SYS_CONFIG_KEY + configKey;
     }
+
+    /**
+     * 参数值及预先转换的类型值
+     */
+    private static final class ConfigValue
+    {
+        private final String value;
+
+        private final Boolean boolValue;
+
+        private final Integer intValue;
+
+        ConfigValue(String value)
+        {
+            this.value = value;
+            this.boolValue = Convert.toBool(value, null);
+            this.intValue = Convert.toInt(value, null);
+        }
+    }
 }
@@ -9,6 +9,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.jf.common.constant.UserConstants;
+import com.jf.common.core.cache.DictDataLoader;
 import com.jf.common.core.domain.entity.SysDictData;
 import com.jf.common.core.domain.entity.SysDictType;
 import com.jf.common.exception.ServiceException;
@@ -24,7 +25,7 @@ import com.jf.system.service.ISysDictTypeService;
  * @author jf
  */
 @Service
-public class SysDictTypeServiceImpl implements ISysDictTypeService
+public class SysDictTypeServiceImpl implements ISysDictTypeService, DictDataLoader
 {
     @Autowired
     private SysDictTypeMapper dictTypeMapper;
@@ -87,6 +88,18 @@ public class SysDictTypeServiceImpl implements ISysDictTypeService
         return null;
     }
 
+    /**
+     * 字典缓存不存在时从数据库加载
+     * 
+     * @param dictType 字典类型
+     * @return 字典数据集合信息
+     */
+    @Override
+    public List<SysDictData> loadDictData(String dictType)
+    {
+        return dictDataMapper.selectDictDataByType(dictType);
+    }
+
     /**
      * 根据字典类型ID查询信息
      * 
@@ -0,0 +1,246 @@
+package com.jf.system.service.impl;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import com.jf.common.config.JFConfig;
+import com.jf.common.exception.ServiceException;
+import com.jf.common.utils.DateUtils;
+import com.jf.common.utils.StringUtils;
+import com.jf.system.mapper.SysLogPartitionMapper;
+import com.jf.system.service.ISysLogArchiveService;
+import com.jf.system.service.ISysOperLogIndexService;
+
+/**
+ * 日志分区归档 服务层处理
+ * 
+ * @author jf
+ */
+@Service
+public class SysLogArchiveServiceImpl implements ISysLogArchiveService
+{
+    private static final Logger log = LoggerFactory.getLogger(SysLogArchiveServiceImpl.class);
+
+    /** 按月分区的日志表 */
+    private static final String[] LOG_TABLES = { "sys_oper_log", "sys_logininfor" };
+
+    /** 最大值分区名称 */
+    private static final String MAX_PARTITION = "pmax";
+
+    /** 月分区名称前缀，如p202501 */
+    private static final String PARTITION_PREFIX = "p";
+
+    private static final DateTimeFormatter MONTH_FORMATTER = DateTimeFormatter.ofPattern("yyyyMM");
+
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern(DateUtils.YYYY_MM_DD_HH_MM_SS);
+
+    /** 提前创建的月分区数 */
+    @Value("${logArchive.aheadMonths:3}")
+    private int aheadMonths;
+
+    /** 数据库中保留的月数 */
+    @Value("${logArchive.retainMonths:6}")
+    private int retainMonths;
+
+    @Autowired
+    private SysLogPartitionMapper partitionMapper;
+
+    @Autowired
+    private ISysOperLogIndexService operLogIndexService;
+
+    /**
+     * 为日志表创建当前及之后若干个月的分区
+     *
+     * @return 新建的分区数
+     */
+    @Override
+    public int rolloverPartitions()
+    {
+        int created = 0;
+        for (String table : LOG_TABLES)
+        {
+            List<String> names = partitionMapper.selectPartitionNames(table);
+            if (!names.contains(MAX_PARTITION))
+            {
+                log.warn("日志表{}未按月分区，跳过分区维护", table);
+                continue;
+            }
+            YearMonth last = null;
+            for (String name : names)
+            {
+                YearMonth month = parseMonth(name);
+                if (month != null && (last == null || month.isAfter(last)))
+                {
+                    last = month;
+                }
+            }
+            YearMonth now = YearMonth.now();
+            YearMonth month = last == null || last.isBefore(now) ? now : last.plusMonths(1);
+            List<Map<String, String>> partitions = new ArrayList<Map<String, String>>();
+            for (; !month.isAfter(now.plusMonths(aheadMonths)); month = month.plusMonths(1))
+            {
+                Map<String, String> partition = new HashMap<String, String>();
+                partition.put("name", PARTITION_PREFIX + month.format(MONTH_FORMATTER));
+                partition.put("bound", month.plusMonths(1).atDay(1).toString());
+                partitions.add(partition);
+            }
+            if (!partitions.isEmpty())
+            {
+                partitionMapper.reorganizeMaxPartition(table, partitions);
+                log.info("日志表{}新建分区{}个", table, partitions.size());
+                created += partitions.size();
+            }
+        }
+        return created;
+    }
+
+    /**
+     * 将超出保留期的日志分区导出为压缩文件并从数据库删除
+     *
+     * @return 归档的分区数
+     */
+    @Override
+    public int archivePartitions()
+    {
+        YearMonth cutoff = YearMonth.now().minusMonths(retainMonths);
+        int archived = 0;
+        for (String table : LOG_TABLES)
+        {
+            for (String name : partitionMapper.selectPartitionNames(table))
+            {
+                YearMonth month = parseMonth(name);
+                if (month == null || !month.isBefore(cutoff))
+                {
+                    continue;
+                }
+                File file = exportPartition(table, name);
+                partitionMapper.dropPartition(table, name);
+                if ("sys_oper_log".equals(table))
+                {
+                    operLogIndexService.deleteBefore(Date.from(month.plusMonths(1).atDay(1).atStartOfDay(ZoneId.systemDefault()).toInstant()));
+                }
+                log.info("日志表{}分区{}已归档至{}", table, name, file.getPath());
+                archived++;
+            }
+        }
+        return archived;
+    }
+
+    /**
+     * 导出分区数据为gzip压缩的CSV文件，先写入临时文件，完成后再改名
+     */
+    private File exportPartition(String table, String partition)
+    {
+        File file = new File(JFConfig.getProfile() + "/archive/" + table + "/" + partition + ".csv.gz");
+        File temp = new File(file.getPath() + ".tmp");
+        temp.getParentFile().mkdirs();
+        List<String> columns = partitionMapper.selectColumnNames(table);
+        try
+        {
+            try (Writer writer = new BufferedWriter(new OutputStreamWriter(new GZIPOutputStream(new FileOutputStream(temp)), StandardCharsets.UTF_8)))
+            {
+                writeLine(writer, new ArrayList<Object>(columns));
+                partitionMapper.streamPartition(table, partition, context -> {
+                    Map<String, Object> row = context.getResultObject();
+                    List<Object> values = new ArrayList<Object>(columns.size());
+                    for (String column : columns)
+                    {
+                        values.add(row.get(column));
+                    }
+                    try
+                    {
+                        writeLine(writer, values);
+                    }
+                    catch (IOException e)
+                    {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+            Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+            return file;
+        }
+        catch (IOException | UncheckedIOException e)
+        {
+            throw new ServiceException(StringUtils.format("日志表{}分区{}导出失败：{}", table, partition, e.getMessage()));
+        }
+        finally
+        {
+            // 导出失败（含查询异常）时删除未完成的临时文件
+            temp.delete();
+        }
+    }
+
+    /**
+     * 写入一行CSV，含逗号、引号或换行的值加引号转义
+     */
+    private void writeLine(Writer writer, List<Object> values) throws IOException
+    {
+        for (int i = 0; i < values.size(); i++)
+        {
+            if (i > 0)
+            {
+                writer.write(',');
+            }
+            String value = format(values.get(i));
+            if (StringUtils.containsAny(value, ',', '"', '\n', '\r'))
+            {
+                value = "\"" + value.replace("\"", "\"\"") + "\"";
+            }
+            writer.write(value);
+        }
+        writer.write('\n');
+    }
+
+    private String format(Object value)
+    {
+        if (value == null)
+        {
+            return StringUtils.EMPTY;
+        }
+        if (value instanceof Date)
+        {
+            return DateUtils.parseDateToStr(DateUtils.YYYY_MM_DD_HH_MM_SS, (Date) value);
+        }
+        if (value instanceof LocalDateTime)
+        {
+            return TIME_FORMATTER.format((LocalDateTime) value);
+        }
+        return value.toString();
+    }
+
+    /**
+     * 从分区名称解析月份，非月分区返回null
+     */
+    private YearMonth parseMonth(String name)
+    {
+        String month = StringUtils.substringAfter(name, PARTITION_PREFIX);
+        if (month.length() != 6 || !StringUtils.isNumeric(month))
+        {
+            return null;
+        }
+        return YearMonth.parse(month, MONTH_FORMATTER);
+    }
+}
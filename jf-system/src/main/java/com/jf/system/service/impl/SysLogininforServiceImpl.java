@@ -1,8 +1,11 @@
 package com.jf.system.service.impl;
 
 import java.util.List;
+import org.apache.ibatis.session.ResultHandler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.jf.common.core.mybatis.SqlBatchTemplate;
 import com.jf.system.domain.SysLogininfor;
 import com.jf.system.mapper.SysLogininforMapper;
 import com.jf.system.service.ISysLogininforService;
@@ -19,6 +22,9 @@ public class SysLogininforServiceImpl implements ISysLogininforService
     @Autowired
     private SysLogininforMapper logininforMapper;
 
+    @Autowired
+    private SqlBatchTemplate sqlBatchTemplate;
+
     /**
      * 新增系统登录日志
      * 
@@ -30,6 +36,18 @@ public class SysLogininforServiceImpl implements ISysLogininforService
         logininforMapper.insertLogininfor(logininfor);
     }
 
+    /**
+     * 批量新增系统登录日志，在一个事务内按批次写入
+     * 
+     * @param logininfors 访问日志集合
+     */
+    @Override
+    @Transactional
+    public void insertLogininfors(List<SysLogininfor> logininfors)
+    {
+        sqlBatchTemplate.execute(SysLogininforMapper.class, logininfors, SysLogininforMapper::insertLogininfor);
+    }
+
     /**
      * 查询系统登录日志集合
      * 
@@ -42,6 +60,18 @@ public class SysLogininforServiceImpl implements ISysLogininforService
         return logininforMapper.selectLogininforList(logininfor);
     }
 
+    /**
+     * 流式查询系统登录日志，结果逐行交给处理器，用于大数据量导出
+     * 
+     * @param logininfor 访问日志对象
+     * @param handler 结果处理器
+     */
+    @Override
+    public void streamLogininforList(SysLogininfor logininfor, ResultHandler<SysLogininfor> handler)
+    {
+        logininforMapper.streamLogininforList(logininfor, handler);
+    }
+
     /**
      * 批量删除系统登录日志
      * 
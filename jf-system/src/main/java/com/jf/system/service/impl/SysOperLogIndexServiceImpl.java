@@ -0,0 +1,444 @@
+package com.jf.system.service.impl;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.Date;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.CharArraySet;
+import org.apache.lucene.analysis.cjk.CJKAnalyzer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.LongPoint;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.queryparser.classic.MultiFieldQueryParser;
+import org.apache.lucene.queryparser.classic.ParseException;
+import org.apache.lucene.queryparser.classic.QueryParser;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.MatchAllDocsQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TopDocs;
+import org.apache.lucene.search.TotalHits;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import com.github.pagehelper.Page;
+import com.jf.common.config.JFConfig;
+import com.jf.common.exception.ServiceException;
+import com.jf.common.utils.StringUtils;
+import com.jf.system.domain.SysOperLog;
+import com.jf.system.mapper.SysOperLogMapper;
+import com.jf.system.service.ISysOperLogIndexService;
+
+/**
+ * 操作日志全文索引 服务层处理
+ * 
+ * 索引保存在本地磁盘{profile}/index/operlog，写入后按refreshInterval刷新可见，按commitInterval落盘；
+ * 索引只保存日志ID，检索结果再按ID回表查询
+ * 
+ * @author jf
+ */
+@Service
+public class SysOperLogIndexServiceImpl implements ISysOperLogIndexService
+{
+    private static final Logger log = LoggerFactory.getLogger(SysOperLogIndexServiceImpl.class);
+
+    /** 日志ID */
+    private static final String ID = "operId";
+
+    /** 操作时间 */
+    private static final String TIME = "operTime";
+
+    /** 检索字段 */
+    private static final String[] SEARCH_FIELDS = { "title", "operName", "operIp", "operUrl", "method", "operParam", "jsonResult", "errorMsg" };
+
+    /** 索引开关 */
+    @Value("${operLogIndex.enabled:true}")
+    private boolean enabled;
+
+    /** 刷新间隔（秒），写入的日志在刷新后可被检索 */
+    @Value("${operLogIndex.refreshInterval:1}")
+    private int refreshInterval;
+
+    /** 提交间隔（秒），提交前的写入在进程异常退出时会丢失，需要重建 */
+    @Value("${operLogIndex.commitInterval:60}")
+    private int commitInterval;
+
+    @Autowired
+    private SysOperLogMapper operLogMapper;
+
+    @Autowired
+    @Qualifier("scheduledExecutorService")
+    private ScheduledExecutorService scheduledExecutorService;
+
+    private final AtomicBoolean rebuilding = new AtomicBoolean();
+
+    private Analyzer analyzer;
+
+    private Directory directory;
+
+    private IndexWriter writer;
+
+    private SearcherManager searcherManager;
+
+    private ScheduledFuture<?> refreshFuture;
+
+    private ScheduledFuture<?> commitFuture;
+
+    @PostConstruct
+    public void init() throws IOException
+    {
+        if (!enabled)
+        {
+            return;
+        }
+        analyzer = new CJKAnalyzer(CharArraySet.EMPTY_SET);
+        directory = FSDirectory.open(Paths.get(JFConfig.getProfile(), "index", "operlog"));
+        boolean exists = DirectoryReader.indexExists(directory);
+        IndexWriterConfig config = new IndexWriterConfig(analyzer);
+        config.setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND);
+        writer = new IndexWriter(directory, config);
+        searcherManager = new SearcherManager(writer, null);
+        refreshFuture = scheduledExecutorService.scheduleWithFixedDelay(this::refresh, refreshInterval, refreshInterval, TimeUnit.SECONDS);
+        commitFuture = scheduledExecutorService.scheduleWithFixedDelay(this::commit, commitInterval, commitInterval, TimeUnit.SECONDS);
+        if (!exists)
+        {
+            log.info("操作日志索引不存在，从数据库重建");
+            rebuild();
+        }
+    }
+
+    @PreDestroy
+    public void close()
+    {
+        if (writer == null)
+        {
+            return;
+        }
+        refreshFuture.cancel(false);
+        commitFuture.cancel(false);
+        try
+        {
+            searcherManager.close();
+            writer.close();
+            directory.close();
+        }
+        catch (IOException e)
+        {
+            log.error("关闭操作日志索引失败", e);
+        }
+    }
+
+    /**
+     * 索引操作日志，已存在的同ID文档会被替换
+     * 
+     * @param operLog 操作日志对象
+     */
+    @Override
+    public void index(SysOperLog operLog)
+    {
+        if (writer == null || operLog.getOperId() == null)
+        {
+            return;
+        }
+        try
+        {
+            String id = String.valueOf(operLog.getOperId());
+            writer.updateDocument(new Term(ID, id), toDocument(id, operLog));
+        }
+        catch (IOException e)
+        {
+            log.warn("索引操作日志{}失败：{}", operLog.getOperId(), e.getMessage());
+        }
+    }
+
+    /**
+     * 全文检索操作日志ID，按操作时间倒序
+     * 
+     * @param keyword 检索关键字，支持词、"短语"、前缀*及AND/OR/NOT组合
+     * @param beginTime 开始时间，可为空
+     * @param endTime 结束时间，可为空
+     * @param pageNum 页码
+     * @param pageSize 每页记录数
+     * @return 操作日志ID分页，total为命中总数
+     */
+    @Override
+    public Page<Long> search(String keyword, Date beginTime, Date endTime, int pageNum, int pageSize)
+    {
+        if (writer == null)
+        {
+            throw new ServiceException("操作日志全文检索未开启");
+        }
+        pageNum = Math.max(pageNum, 1);
+        pageSize = Math.max(pageSize, 1);
+        Query query = buildQuery(keyword, beginTime, endTime);
+        Page<Long> page = new Page<Long>(pageNum, pageSize);
+        int offset = (pageNum - 1) * pageSize;
+        IndexSearcher searcher = null;
+        try
+        {
+            searcher = searcherManager.acquire();
+            TopDocs topDocs = searcher.search(query, offset + pageSize, new Sort(new SortField(TIME, SortField.Type.LONG, true)));
+            long total = topDocs.totalHits.value;
+            if (topDocs.totalHits.relation != TotalHits.Relation.EQUAL_TO)
+            {
+                total = searcher.count(query);
+            }
+            page.setTotal(total);
+            StoredFields storedFields = searcher.storedFields();
+            ScoreDoc[] scoreDocs = topDocs.scoreDocs;
+            for (int i = offset; i < scoreDocs.length; i++)
+            {
+                page.add(Long.valueOf(storedFields.document(scoreDocs[i].doc).get(ID)));
+            }
+            return page;
+        }
+        catch (IOException e)
+        {
+            throw new ServiceException("操作日志检索失败：" + e.getMessage());
+        }
+        finally
+        {
+            release(searcher);
+        }
+    }
+
+    /**
+     * 删除索引
+     * 
+     * @param operIds 操作日志ID
+     */
+    @Override
+    public void deleteByIds(Long[] operIds)
+    {
+        if (writer == null)
+        {
+            return;
+        }
+        Term[] terms = new Term[operIds.length];
+        for (int i = 0; i < operIds.length; i++)
+        {
+            terms[i] = new Term(ID, String.valueOf(operIds[i]));
+        }
+        try
+        {
+            writer.deleteDocuments(terms);
+        }
+        catch (IOException e)
+        {
+            log.warn("删除操作日志索引失败：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 删除操作时间早于指定时间的索引
+     * 
+     * @param time 截止时间
+     */
+    @Override
+    public void deleteBefore(Date time)
+    {
+        if (writer == null)
+        {
+            return;
+        }
+        try
+        {
+            writer.deleteDocuments(LongPoint.newRangeQuery(TIME, Long.MIN_VALUE, time.getTime() - 1));
+        }
+        catch (IOException e)
+        {
+            log.warn("删除操作日志索引失败：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 清空索引
+     */
+    @Override
+    public void deleteAll()
+    {
+        if (writer == null)
+        {
+            return;
+        }
+        try
+        {
+            writer.deleteAll();
+            writer.commit();
+            searcherManager.maybeRefresh();
+        }
+        catch (IOException e)
+        {
+            log.warn("清空操作日志索引失败：{}", e.getMessage());
+        }
+    }
+
+    /**
+     * 从数据库重建索引，在后台线程执行；重建期间检索结果不完整
+     * 
+     * @return 是否已开始重建，已有重建任务在执行时返回false
+     */
+    @Override
+    public boolean rebuild()
+    {
+        if (writer == null)
+        {
+            throw new ServiceException("操作日志全文检索未开启");
+        }
+        if (!rebuilding.compareAndSet(false, true))
+        {
+            return false;
+        }
+        Thread thread = new Thread(() -> {
+            long start = System.currentTimeMillis();
+            AtomicLong count = new AtomicLong();
+            try
+            {
+                writer.deleteAll();
+                operLogMapper.streamOperLogList(new SysOperLog(), context -> {
+                    index(context.getResultObject());
+                    count.incrementAndGet();
+                });
+                writer.commit();
+                searcherManager.maybeRefresh();
+                log.info("操作日志索引重建完成，共{}条，耗时{}ms", count.get(), System.currentTimeMillis() - start);
+            }
+            catch (Exception e)
+            {
+                log.error("操作日志索引重建失败", e);
+            }
+            finally
+            {
+                rebuilding.set(false);
+            }
+        }, "operlog-index-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+        return true;
+    }
+
+    /**
+     * 关键字在各检索字段中匹配，多个词默认同时命中；时间范围作为过滤条件不参与评分
+     */
+    private Query buildQuery(String keyword, Date beginTime, Date endTime)
+    {
+        Query query = new MatchAllDocsQuery();
+        if (StringUtils.isNotBlank(keyword))
+        {
+            MultiFieldQueryParser parser = new MultiFieldQueryParser(SEARCH_FIELDS, analyzer);
+            parser.setDefaultOperator(QueryParser.Operator.AND);
+            try
+            {
+                query = parser.parse(keyword);
+            }
+            catch (ParseException e)
+            {
+                throw new ServiceException("检索关键字格式错误：" + keyword);
+            }
+        }
+        if (beginTime == null && endTime == null)
+        {
+            return query;
+        }
+        long lower = beginTime == null ? Long.MIN_VALUE : beginTime.getTime();
+        long upper = endTime == null ? Long.MAX_VALUE : endTime.getTime();
+        return new BooleanQuery.Builder()
+                .add(query, BooleanClause.Occur.MUST)
+                .add(LongPoint.newRangeQuery(TIME, lower, upper), BooleanClause.Occur.FILTER)
+                .build();
+    }
+
+    private Document toDocument(String id, SysOperLog operLog)
+    {
+        long time = operLog.getOperTime() == null ? System.currentTimeMillis() : operLog.getOperTime().getTime();
+        Document doc = new Document();
+        doc.add(new StringField(ID, id, Field.Store.YES));
+        doc.add(new LongPoint(TIME, time));
+        doc.add(new NumericDocValuesField(TIME, time));
+        addText(doc, "title", operLog.getTitle());
+        addText(doc, "operName", operLog.getOperName());
+        addText(doc, "operIp", operLog.getOperIp());
+        addText(doc, "operUrl", operLog.getOperUrl());
+        addText(doc, "method", operLog.getMethod());
+        addText(doc, "operParam", operLog.getOperParam());
+        addText(doc, "jsonResult", operLog.getJsonResult());
+        addText(doc, "errorMsg", operLog.getErrorMsg());
+        return doc;
+    }
+
+    private void addText(Document doc, String name, String value)
+    {
+        if (StringUtils.isNotEmpty(value))
+        {
+            doc.add(new TextField(name, value, Field.Store.NO));
+        }
+    }
+
+    private void refresh()
+    {
+        try
+        {
+            searcherManager.maybeRefresh();
+        }
+        catch (Exception e)
+        {
+            log.warn("刷新操作日志索引失败：{}", e.getMessage());
+        }
+    }
+
+    private void commit()
+    {
+        try
+        {
+            if (writer.hasUncommittedChanges())
+            {
+                writer.commit();
+            }
+        }
+        catch (Exception e)
+        {
+            log.warn("提交操作日志索引失败：{}", e.getMessage());
+        }
+    }
+
+    private void release(IndexSearcher searcher)
+    {
+        if (searcher == null)
+        {
+            return;
+        }
+        try
+        {
+            searcherManager.release(searcher);
+        }
+        catch (IOException e)
+        {
+            log.warn("释放操作日志索引失败：{}", e.getMessage());
+        }
+    }
+}
@@ -1,10 +1,19 @@
 package com.jf.system.service.impl;
 
+import java.util.Date;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import org.apache.ibatis.session.ResultHandler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import com.github.pagehelper.Page;
+import com.jf.common.core.mybatis.SqlBatchTemplate;
+import com.jf.common.utils.DateUtils;
 import com.jf.system.domain.SysOperLog;
 import com.jf.system.mapper.SysOperLogMapper;
+import com.jf.system.service.ISysOperLogIndexService;
 import com.jf.system.service.ISysOperLogService;
 
 /**
@@ -18,6 +27,12 @@ public class SysOperLogServiceImpl implements ISysOperLogService
     @Autowired
     private SysOperLogMapper operLogMapper;
 
+    @Autowired
+    private ISysOperLogIndexService operLogIndexService;
+
+    @Autowired
+    private SqlBatchTemplate sqlBatchTemplate;
+
     /**
      * 新增操作日志
      * 
@@ -27,6 +42,23 @@ public class SysOperLogServiceImpl implements ISysOperLogService
     public void insertOperlog(SysOperLog operLog)
     {
         operLogMapper.insertOperlog(operLog);
+        operLogIndexService.index(operLog);
+    }
+
+    /**
+     * 批量新增操作日志，在一个事务内按批次写入
+     * 
+     * @param operLogs 操作日志集合
+     */
+    @Override
+    @Transactional
+    public void insertOperlogs(List<SysOperLog> operLogs)
+    {
+        sqlBatchTemplate.execute(SysOperLogMapper.class, operLogs, SysOperLogMapper::insertOperlog);
+        for (SysOperLog operLog : operLogs)
+        {
+            operLogIndexService.index(operLog);
+        }
     }
 
     /**
@@ -41,6 +73,55 @@ public class SysOperLogServiceImpl implements ISysOperLogService
         return operLogMapper.selectOperLogList(operLog);
     }
 
+    /**
+     * 全文检索系统操作日志，按操作时间倒序
+     * 
+     * @param keyword 检索关键字
+     * @param operLog 操作日志对象，使用params.beginTime、params.endTime过滤
+     * @param pageNum 页码
+     * @param pageSize 每页记录数
+     * @return 操作日志分页
+     */
+    @Override
+    public Page<SysOperLog> searchOperLog(String keyword, SysOperLog operLog, int pageNum, int pageSize)
+    {
+        Date beginTime = DateUtils.parseDate(operLog.getParams().get("beginTime"));
+        Date endTime = DateUtils.parseDate(operLog.getParams().get("endTime"));
+        Page<Long> ids = operLogIndexService.search(keyword, beginTime, endTime, pageNum, pageSize);
+        Page<SysOperLog> page = new Page<SysOperLog>(pageNum, pageSize);
+        page.setTotal(ids.getTotal());
+        if (ids.isEmpty())
+        {
+            return page;
+        }
+        Map<Long, SysOperLog> logs = new HashMap<Long, SysOperLog>();
+        for (SysOperLog log : operLogMapper.selectOperLogByIds(ids.toArray(new Long[0])))
+        {
+            logs.put(log.getOperId(), log);
+        }
+        for (Long id : ids)
+        {
+            SysOperLog log = logs.get(id);
+            if (log != null)
+            {
+                page.add(log);
+            }
+        }
+        return page;
+    }
+
+    /**
+     * 流式查询系统操作日志，结果逐行交给处理器，用于大数据量导出
+     * 
+     * @param operLog 操作日志对象
+     * @param handler 结果处理器
+     */
+    @Override
+    public void streamOperLogList(SysOperLog operLog, ResultHandler<SysOperLog> handler)
+    {
+        operLogMapper.streamOperLogList(operLog, handler);
+    }
+
     /**
      * 批量删除系统操作日志
      * 
@@ -50,7 +131,9 @@ public class SysOperLogServiceImpl implements ISysOperLogService
     @Override
     public int deleteOperLogByIds(Long[] operIds)
     {
-        return operLogMapper.deleteOperLogByIds(operIds);
+        int rows = operLogMapper.deleteOperLogByIds(operIds);
+        operLogIndexService.deleteByIds(operIds);
+        return rows;
     }
 
     /**
@@ -72,5 +155,6 @@ public class SysOperLogServiceImpl implements ISysOperLogService
     public void cleanOperLog()
     {
         operLogMapper.cleanOperLog();
+        operLogIndexService.deleteAll();
     }
 }
@@ -2,15 +2,19 @@ package com.jf.system.service.impl;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Set;
+import org.apache.ibatis.session.ResultHandler;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import com.jf.common.annotation.DataScope;
 import com.jf.common.constant.UserConstants;
 import com.jf.common.core.domain.entity.SysRole;
+import com.jf.common.core.mybatis.SqlBatchTemplate;
 import com.jf.common.exception.ServiceException;
 import com.jf.common.utils.SecurityUtils;
 import com.jf.common.utils.StringUtils;
@@ -44,6 +48,9 @@ public class SysRoleServiceImpl implements ISysRoleService
     @Autowired
     private SysRoleDeptMapper roleDeptMapper;
 
+    @Autowired
+    private SqlBatchTemplate sqlBatchTemplate;
+
     /**
      * 根据条件分页查询角色数据
      * 
@@ -57,6 +64,19 @@ public class SysRoleServiceImpl implements ISysRoleService
         return roleMapper.selectRoleList(role);
     }
 
+    /**
+     * 流式查询角色数据，结果逐行交给处理器，用于导出
+     * 
+     * @param role 角色信息
+     * @param handler 结果处理器
+     */
+    @Override
+    @DataScope(deptAlias = "d")
+    public void streamRoleList(SysRole role, ResultHandler<SysRole> handler)
+    {
+        roleMapper.streamRoleList(role, handler);
+    }
+
     /**
      * 根据用户ID查询角色
      * 
@@ -196,17 +216,15 @@ public class SysRoleServiceImpl implements ISysRoleService
     @Override
     public void checkRoleDataScope(Long... roleIds)
     {
-        if (!SecurityUtils.isAdmin())
+        if (!SecurityUtils.isAdmin() && StringUtils.isNotEmpty(roleIds))
         {
-            for (Long roleId : roleIds)
+            Set<Long> ids = new HashSet<Long>(Arrays.asList(roleIds));
+            SysRole role = new SysRole();
+            role.getParams().put("roleIds", ids);
+            List<SysRole> roles = SpringUtils.getAopProxy(this).selectRoleList(role);
+            if (roles.size() < ids.size())
             {
-                SysRole role = new SysRole();
-                role.setRoleId(roleId);
-                List<SysRole> roles = SpringUtils.getAopProxy(this).selectRoleList(role);
-                if (StringUtils.isEmpty(roles))
-                {
-                    throw new ServiceException("没有权限访问角色数据！");
-                }
+                throw new ServiceException("没有权限访问角色数据！");
             }
         }
     }
@@ -250,9 +268,8 @@ public class SysRoleServiceImpl implements ISysRoleService
     {
         // 修改角色信息
         roleMapper.updateRole(role);
-        // 删除角色与菜单关联
-        roleMenuMapper.deleteRoleMenuByRoleId(role.getRoleId());
-        return insertRoleMenu(role);
+        // 只增删变化的角色与菜单关联
+        return updateRoleMenu(role);
     }
 
     /**
@@ -279,10 +296,8 @@ public class SysRoleServiceImpl implements ISysRoleService
     {
         // 修改角色信息
         roleMapper.updateRole(role);
-        // 删除角色与部门关联
-        roleDeptMapper.deleteRoleDeptByRoleId(role.getRoleId());
-        // 新增角色和部门信息（数据权限）
-        return insertRoleDept(role);
+        // 只增删变化的角色与部门关联（数据权限）
+        return updateRoleDept(role);
     }
 
     /**
@@ -292,21 +307,38 @@ public class SysRoleServiceImpl implements ISysRoleService
      */
     public int insertRoleMenu(SysRole role)
     {
-        int rows = 1;
-        // 新增用户与角色管理
-        List<SysRoleMenu> list = new ArrayList<SysRoleMenu>();
-        for (Long menuId : role.getMenuIds())
+        int rows = insertRoleMenu(role.getRoleId(), Arrays.asList(role.getMenuIds()));
+        return rows > 0 ? rows : 1;
+    }
+
+    /**
+     * 修改角色菜单信息，与现有关联比较后只删除取消的、新增勾选的
+     * 
+     * @param role 角色对象
+     */
+    public int updateRoleMenu(SysRole role)
+    {
+        Long roleId = role.getRoleId();
+        Set<Long> menuIds = new LinkedHashSet<Long>(Arrays.asList(role.getMenuIds()));
+        Set<Long> removed = new HashSet<Long>(roleMenuMapper.selectMenuIdsByRoleId(roleId));
+        menuIds.removeAll(removed);
+        removed.removeAll(Arrays.asList(role.getMenuIds()));
+        sqlBatchTemplate.partition(removed, ids -> roleMenuMapper.deleteRoleMenuByMenuIds(roleId, ids));
+        insertRoleMenu(roleId, menuIds);
+        return 1;
+    }
+
+    private int insertRoleMenu(Long roleId, Collection<Long> menuIds)
+    {
+        List<SysRoleMenu> list = new ArrayList<SysRoleMenu>(menuIds.size());
+        for (Long menuId : menuIds)
         {
             SysRoleMenu rm = new SysRoleMenu();
-            rm.setRoleId(role.getRoleId());
+            rm.setRoleId(roleId);
             rm.setMenuId(menuId);
             list.add(rm);
         }
-        if (list.size() > 0)
-        {
-            rows = roleMenuMapper.batchRoleMenu(list);
-        }
-        return rows;
+        return sqlBatchTemplate.execute(SysRoleMenuMapper.class, list, SysRoleMenuMapper::insertRoleMenu);
     }
 
     /**
@@ -316,21 +348,38 @@ public class SysRoleServiceImpl implements ISysRoleService
      */
     public int insertRoleDept(SysRole role)
     {
-        int rows = 1;
-        // 新增角色与部门（数据权限）管理
-        List<SysRoleDept> list = new ArrayList<SysRoleDept>();
-        for (Long deptId : role.getDeptIds())
+        int rows = insertRoleDept(role.getRoleId(), Arrays.asList(role.getDeptIds()));
+        return rows > 0 ? rows : 1;
+    }
+
+    /**
+     * 修改角色部门信息(数据权限)，与现有关联比较后只删除取消的、新增勾选的
+     *
+     * @param role 角色对象
+     */
+    public int updateRoleDept(SysRole role)
+    {
+        Long roleId = role.getRoleId();
+        Set<Long> deptIds = new LinkedHashSet<Long>(Arrays.asList(role.getDeptIds()));
+        Set<Long> removed = new HashSet<Long>(roleDeptMapper.selectDeptIdsByRoleId(roleId));
+        deptIds.removeAll(removed);
+        removed.removeAll(Arrays.asList(role.getDeptIds()));
+        sqlBatchTemplate.partition(removed, ids -> roleDeptMapper.deleteRoleDeptByDeptIds(roleId, ids));
+        insertRoleDept(roleId, deptIds);
+        return 1;
+    }
+
+    private int insertRoleDept(Long roleId, Collection<Long> deptIds)
+    {
+        List<SysRoleDept> list = new ArrayList<SysRoleDept>(deptIds.size());
+        for (Long deptId : deptIds)
         {
             SysRoleDept rd = new SysRoleDept();
-            rd.setRoleId(role.getRoleId());
+            rd.setRoleId(roleId);
             rd.setDeptId(deptId);
             list.add(rd);
         }
-        if (list.size() > 0)
-        {
-            rows = roleDeptMapper.batchRoleDept(list);
-        }
-        return rows;
+        return sqlBatchTemplate.execute(SysRoleDeptMapper.class, list, SysRoleDeptMapper::insertRoleDept);
     }
 
     /**
@@ -363,12 +412,13 @@ public class SysRoleServiceImpl implements ISysRoleService
         for (Long roleId : roleIds)
         {
             checkRoleAllowed(new SysRole(roleId));
-            checkRoleDataScope(roleId);
-            SysRole role = selectRoleById(roleId);
-            if (countUserRoleByRoleId(roleId) > 0)
-            {
-                throw new ServiceException(String.format("%1$s已分配,不能删除", role.getRoleName()));
-            }
+        }
+        checkRoleDataScope(roleIds);
+        List<Long> assigned = userRoleMapper.selectAssignedRoleIds(roleIds);
+        if (StringUtils.isNotEmpty(assigned))
+        {
+            SysRole role = selectRoleById(assigned.get(0));
+            throw new ServiceException(String.format("%1$s已分配,不能删除", role.getRoleName()));
         }
         // 删除角色与菜单关联
         roleMenuMapper.deleteRoleMenu(roleIds);
@@ -410,10 +460,11 @@ public class SysRoleServiceImpl implements ISysRoleService
      * @return 结果
      */
     @Override
+    @Transactional
     public int insertAuthUsers(Long roleId, Long[] userIds)
     {
         // 新增用户与角色管理
-        List<SysUserRole> list = new ArrayList<SysUserRole>();
+        List<SysUserRole> list = new ArrayList<SysUserRole>(userIds.length);
         for (Long userId : userIds)
         {
             SysUserRole ur = new SysUserRole();
@@ -421,6 +472,6 @@ public class SysRoleServiceImpl implements ISysRoleService
             ur.setRoleId(roleId);
             list.add(ur);
         }
-        return userRoleMapper.batchUserRole(list);
+        return sqlBatchTemplate.execute(SysUserRoleMapper.class, list, SysUserRoleMapper::insertUserRole);
     }
 }
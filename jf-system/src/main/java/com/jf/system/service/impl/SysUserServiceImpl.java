@@ -1,10 +1,18 @@
 package com.jf.system.service.impl;
 
+import java.io.InputStream;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import jakarta.validation.Validator;
+import org.apache.ibatis.session.ResultHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -15,10 +23,12 @@ import com.jf.common.annotation.DataScope;
 import com.jf.common.constant.UserConstants;
 import com.jf.common.core.domain.entity.SysRole;
 import com.jf.common.core.domain.entity.SysUser;
+import com.jf.common.core.mybatis.SqlBatchTemplate;
 import com.jf.common.exception.ServiceException;
 import com.jf.common.utils.SecurityUtils;
 import com.jf.common.utils.StringUtils;
 import com.jf.common.utils.bean.BeanValidators;
+import com.jf.common.utils.poi.ExcelUtil;
 import com.jf.common.utils.spring.SpringUtils;
 import com.jf.system.domain.SysPost;
 import com.jf.system.domain.SysUserPost;
@@ -42,6 +52,9 @@ public class SysUserServiceImpl implements ISysUserService
 {
     private static final Logger log = LoggerFactory.getLogger(SysUserServiceImpl.class);
 
+    /** 导入时每批处理的记录数 */
+    private static final int IMPORT_BATCH_SIZE = 500;
+
     @Autowired
     private SysUserMapper userMapper;
 
@@ -60,6 +73,9 @@ public class SysUserServiceImpl implements ISysUserService
     @Autowired
     private ISysConfigService configService;
 
+    @Autowired
+    private SqlBatchTemplate sqlBatchTemplate;
+
     @Autowired
     private ISysDeptService deptService;
 
@@ -79,6 +95,19 @@ public class SysUserServiceImpl implements ISysUserService
         return userMapper.selectUserList(user);
     }
 
+    /**
+     * 流式查询用户列表，结果逐行交给处理器，用于大数据量导出
+     * 
+     * @param user 用户信息
+     * @param handler 结果处理器
+     */
+    @Override
+    @DataScope(deptAlias = "d", userAlias = "u")
+    public void streamUserList(SysUser user, ResultHandler<SysUser> handler)
+    {
+        userMapper.streamUserList(user, handler);
+    }
+
     /**
      * 根据条件分页查询已分配用户角色列表
      * 
@@ -117,6 +146,18 @@ public class SysUserServiceImpl implements ISysUserService
         return userMapper.selectUserByUserName(userName);
     }
 
+    /**
+     * 通过用户名查询登录用户，角色一并带出菜单权限标识
+     * 
+     * @param userName 用户名
+     * @return 用户对象信息
+     */
+    @Override
+    public SysUser selectLoginUserByUserName(String userName)
+    {
+        return userMapper.selectLoginUserByUserName(userName);
+    }
+
     /**
      * 通过用户ID查询用户
      * 
@@ -234,17 +275,18 @@ public class SysUserServiceImpl implements ISysUserService
     /**
      * 校验用户是否有数据权限
      * 
-     * @param userId 用户id
+     * @param userIds 用户id
      */
     @Override
-    public void checkUserDataScope(Long userId)
+    public void checkUserDataScope(Long... userIds)
     {
-        if (!SecurityUtils.isAdmin())
+        if (!SecurityUtils.isAdmin() && StringUtils.isNotEmpty(userIds))
         {
+            Set<Long> ids = new HashSet<Long>(Arrays.asList(userIds));
             SysUser user = new SysUser();
-            user.setUserId(userId);
+            user.getParams().put("userIds", ids);
             List<SysUser> users = SpringUtils.getAopProxy(this).selectUserList(user);
-            if (StringUtils.isEmpty(users))
+            if (users.size() < ids.size())
             {
                 throw new ServiceException("没有权限访问用户数据！");
             }
@@ -422,7 +464,7 @@ public class SysUserServiceImpl implements ISysUserService
                 up.setPostId(postId);
                 list.add(up);
             }
-            userPostMapper.batchUserPost(list);
+            sqlBatchTemplate.execute(SysUserPostMapper.class, list, SysUserPostMapper::insertUserPost);
         }
     }
 
@@ -445,7 +487,7 @@ public class SysUserServiceImpl implements ISysUserService
                 ur.setRoleId(roleId);
                 list.add(ur);
             }
-            userRoleMapper.batchUserRole(list);
+            sqlBatchTemplate.execute(SysUserRoleMapper.class, list, SysUserRoleMapper::insertUserRole);
         }
     }
 
@@ -479,8 +521,8 @@ public class SysUserServiceImpl implements ISysUserService
         for (Long userId : userIds)
         {
             checkUserAllowed(new SysUser(userId));
-            checkUserDataScope(userId);
         }
+        checkUserDataScope(userIds);
         // 删除用户与角色关联
         userRoleMapper.deleteUserRole(userIds);
         // 删除用户与岗位关联
@@ -503,63 +545,239 @@ public class SysUserServiceImpl implements ISysUserService
         {
             throw new ServiceException("导入用户数据不能为空！");
         }
-        int successNum = 0;
-        int failureNum = 0;
-        StringBuilder successMsg = new StringBuilder();
-        StringBuilder failureMsg = new StringBuilder();
-        for (SysUser user : userList)
+        UserImport userImport = new UserImport(isUpdateSupport, operName);
+        for (int i = 0; i < userList.size(); i += IMPORT_BATCH_SIZE)
         {
+            importUserBatch(userList.subList(i, Math.min(i + IMPORT_BATCH_SIZE, userList.size())), userImport);
+        }
+        return userImport.getResult();
+    }
+
+    /**
+     * 流式导入用户数据
+     * 
+     * @param is Excel文件输入流
+     * @param isUpdateSupport 是否更新支持，如果已存在，则进行更新数据
+     * @param operName 操作用户
+     * @return 结果
+     */
+    @Override
+    public String importUser(InputStream is, Boolean isUpdateSupport, String operName)
+    {
+        UserImport userImport = new UserImport(isUpdateSupport, operName);
+        ExcelUtil<SysUser> util = new ExcelUtil<SysUser>(SysUser.class);
+        util.importStream(is, 0, IMPORT_BATCH_SIZE, users -> importUserBatch(users, userImport));
+        for (String error : util.getImportErrors())
+        {
+            userImport.failure(error);
+        }
+        if (userImport.isEmpty())
+        {
+            throw new ServiceException("导入用户数据不能为空！");
+        }
+        return userImport.getResult();
+    }
+
+    /**
+     * 导入一批用户数据，已存在的账号一次查询，新增的账号批量写入
+     * 
+     * @param userList 用户数据列表
+     * @param userImport 导入上下文
+     */
+    private void importUserBatch(List<SysUser> userList, UserImport userImport)
+    {
+        // 并行校验数据格式
+        String[] errors = new String[userList.size()];
+        IntStream.range(0, userList.size()).parallel().forEach(i -> {
             try
             {
-                // 验证是否存在这个用户
-                SysUser u = userMapper.selectUserByUserName(user.getUserName());
-                if (StringUtils.isNull(u))
+                BeanValidators.validateWithException(validator, userList.get(i));
+            }
+            catch (Exception e)
+            {
+                errors[i] = e.getMessage();
+            }
+        });
+        List<String> userNames = userList.stream().map(SysUser::getUserName).filter(StringUtils::isNotEmpty).distinct().collect(Collectors.toList());
+        Map<String, SysUser> existUsers = new HashMap<String, SysUser>();
+        if (!userNames.isEmpty())
+        {
+            for (SysUser u : userMapper.selectUsersByUserNames(userNames))
+            {
+                existUsers.put(u.getUserName(), u);
+            }
+        }
+        List<SysUser> insertList = new ArrayList<SysUser>();
+        for (int i = 0; i < userList.size(); i++)
+        {
+            SysUser user = userList.get(i);
+            try
+            {
+                SysUser u = existUsers.get(user.getUserName());
+                if (StringUtils.isNull(u) && !userImport.userNames.contains(user.getUserName()))
                 {
-                    BeanValidators.validateWithException(validator, user);
-                    deptService.checkDeptDataScope(user.getDeptId());
-                    String password = configService.selectConfigByKey("sys.user.initPassword");
-                    user.setPassword(SecurityUtils.encryptPassword(password));
-                    user.setCreateBy(operName);
-                    userMapper.insertUser(user);
-                    successNum++;
-                    successMsg.append("<br/>" + successNum + "、账号 " + user.getUserName() + " 导入成功");
+                    if (errors[i] != null)
+                    {
+                        throw new ServiceException(errors[i]);
+                    }
+                    checkImportDeptDataScope(user.getDeptId(), userImport);
+                    user.setPassword(getImportPassword(userImport));
+                    user.setCreateBy(userImport.operName);
+                    userImport.userNames.add(user.getUserName());
+                    insertList.add(user);
                 }
-                else if (isUpdateSupport)
+                else if (StringUtils.isNotNull(u) && userImport.isUpdateSupport)
                 {
-                    BeanValidators.validateWithException(validator, user);
+                    if (errors[i] != null)
+                    {
+                        throw new ServiceException(errors[i]);
+                    }
                     checkUserAllowed(u);
                     checkUserDataScope(u.getUserId());
-                    deptService.checkDeptDataScope(user.getDeptId());
+                    checkImportDeptDataScope(user.getDeptId(), userImport);
                     user.setUserId(u.getUserId());
                     user.setDeptId(u.getDeptId());
-                    user.setUpdateBy(operName);
+                    user.setUpdateBy(userImport.operName);
                     userMapper.updateUser(user);
-                    successNum++;
-                    successMsg.append("<br/>" + successNum + "、账号 " + user.getUserName() + " 更新成功");
+                    userImport.success("、账号 " + user.getUserName() + " 更新成功");
                 }
                 else
                 {
-                    failureNum++;
-                    failureMsg.append("<br/>" + failureNum + "、账号 " + user.getUserName() + " 已存在");
+                    userImport.failure("、账号 " + user.getUserName() + " 已存在");
                 }
             }
             catch (Exception e)
             {
-                failureNum++;
-                String msg = "<br/>" + failureNum + "、账号 " + user.getUserName() + " 导入失败：";
-                failureMsg.append(msg + e.getMessage());
+                String msg = userImport.failure("、账号 " + user.getUserName() + " 导入失败：" + e.getMessage());
                 log.error(msg, e);
             }
         }
-        if (failureNum > 0)
+        insertImportUsers(insertList, userImport);
+    }
+
+    /**
+     * 批量写入新增用户，批量失败时逐条写入以定位错误数据
+     * 
+     * @param insertList 新增用户列表
+     * @param userImport 导入上下文
+     */
+    private void insertImportUsers(List<SysUser> insertList, UserImport userImport)
+    {
+        if (insertList.isEmpty())
+        {
+            return;
+        }
+        try
+        {
+            userMapper.batchInsertUser(insertList);
+            for (SysUser user : insertList)
+            {
+                userImport.success("、账号 " + user.getUserName() + " 导入成功");
+            }
+        }
+        catch (Exception e)
+        {
+            log.warn("批量导入用户失败，改为逐条导入：{}", e.getMessage());
+            for (SysUser user : insertList)
+            {
+                try
+                {
+                    userMapper.insertUser(user);
+                    userImport.success("、账号 " + user.getUserName() + " 导入成功");
+                }
+                catch (Exception ex)
+                {
+                    String msg = userImport.failure("、账号 " + user.getUserName() + " 导入失败：" + ex.getMessage());
+                    log.error(msg, ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * 校验部门数据权限，同一次导入中每个部门只校验一次
+     */
+    private void checkImportDeptDataScope(Long deptId, UserImport userImport)
+    {
+        if (StringUtils.isNotNull(deptId) && !userImport.checkedDepts.contains(deptId))
+        {
+            deptService.checkDeptDataScope(deptId);
+            userImport.checkedDepts.add(deptId);
+        }
+    }
+
+    /**
+     * 获取导入用户的初始密码，同一次导入只加密一次
+     */
+    private String getImportPassword(UserImport userImport)
+    {
+        if (userImport.password == null)
         {
-            failureMsg.insert(0, "很抱歉，导入失败！共 " + failureNum + " 条数据格式不正确，错误如下：");
-            throw new ServiceException(failureMsg.toString());
+            userImport.password = SecurityUtils.encryptPassword(configService.selectConfigByKey("sys.user.initPassword"));
         }
-        else
+        return userImport.password;
+    }
+
+    /**
+     * 用户导入上下文
+     */
+    private static class UserImport
+    {
+        private final boolean isUpdateSupport;
+
+        private final String operName;
+
+        /** 本次导入已新增的账号 */
+        private final Set<String> userNames = new HashSet<String>();
+
+        /** 已校验数据权限的部门 */
+        private final Set<Long> checkedDepts = new HashSet<Long>();
+
+        /** 加密后的初始密码 */
+        private String password;
+
+        private int successNum = 0;
+
+        private int failureNum = 0;
+
+        private final StringBuilder successMsg = new StringBuilder();
+
+        private final StringBuilder failureMsg = new StringBuilder();
+
+        UserImport(Boolean isUpdateSupport, String operName)
         {
+            this.isUpdateSupport = Boolean.TRUE.equals(isUpdateSupport);
+            this.operName = operName;
+        }
+
+        void success(String msg)
+        {
+            successNum++;
+            successMsg.append("<br/>" + successNum + msg);
+        }
+
+        String failure(String msg)
+        {
+            failureNum++;
+            String message = "<br/>" + failureNum + msg;
+            failureMsg.append(message);
+            return message;
+        }
+
+        boolean isEmpty()
+        {
+            return successNum == 0 && failureNum == 0;
+        }
+
+        String getResult()
+        {
+            if (failureNum > 0)
+            {
+                failureMsg.insert(0, "很抱歉，导入失败！共 " + failureNum + " 条数据格式不正确，错误如下：");
+                throw new ServiceException(failureMsg.toString());
+            }
             successMsg.insert(0, "恭喜您，数据已全部导入成功！共 " + successNum + " 条，数据如下：");
+            return successMsg.toString();
         }
-        return successMsg.toString();
     }
 }
@@ -0,0 +1,188 @@
+package com.jf.system.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+import org.apache.ibatis.executor.result.DefaultResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.jf.common.config.JFConfig;
+import com.jf.system.domain.SysOperLog;
+import com.jf.system.mapper.SysOperLogMapper;
+
+/**
+ * 操作日志全文索引测试，索引写入临时目录，数据库由Mapper模拟
+ *
+ * @author jf
+ */
+@ExtendWith(MockitoExtension.class)
+public class SysOperLogIndexServiceImplTest
+{
+    @TempDir
+    Path profile;
+
+    @Mock
+    private SysOperLogMapper operLogMapper;
+
+    private ScheduledExecutorService scheduledExecutorService;
+
+    private SysOperLogIndexServiceImpl indexService;
+
+    /** 模拟数据库中的操作日志 */
+    private final List<SysOperLog> operLogs = new ArrayList<SysOperLog>();
+
+    @BeforeEach
+    public void setUp()
+    {
+        new JFConfig().setProfile(profile.toString());
+        scheduledExecutorService = new ScheduledThreadPoolExecutor(1);
+        indexService = new SysOperLogIndexServiceImpl();
+        ReflectionTestUtils.setField(indexService, "enabled", true);
+        ReflectionTestUtils.setField(indexService, "refreshInterval", 1);
+        ReflectionTestUtils.setField(indexService, "commitInterval", 60);
+        ReflectionTestUtils.setField(indexService, "operLogMapper", operLogMapper);
+        ReflectionTestUtils.setField(indexService, "scheduledExecutorService", scheduledExecutorService);
+        operLogs.add(operLog(1L, "用户管理", "admin", "/system/user/list", 1000L));
+        operLogs.add(operLog(2L, "角色管理", "admin", "/system/role/list", 2000L));
+        operLogs.add(operLog(3L, "用户管理", "jf", "/system/user/export", 3000L));
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        indexService.close();
+        scheduledExecutorService.shutdownNow();
+    }
+
+    @Test
+    public void firstStartRebuildsFromDatabase() throws Exception
+    {
+        streamOperLogs(null);
+        indexService.init();
+        awaitRebuilt();
+
+        assertEquals(3L, indexService.search(null, null, null, 1, 10).getTotal());
+        assertEquals(Arrays.asList(3L, 1L), indexService.search("用户管理", null, null, 1, 10));
+        assertEquals(Arrays.asList(2L), indexService.search("role", null, null, 1, 10));
+    }
+
+    @Test
+    public void concurrentRebuildIsRejected() throws Exception
+    {
+        CountDownLatch release = new CountDownLatch(1);
+        streamOperLogs(release);
+        indexService.init();
+        try
+        {
+            assertFalse(indexService.rebuild());
+        }
+        finally
+        {
+            release.countDown();
+        }
+        awaitRebuilt();
+        assertEquals(3L, indexService.search(null, null, null, 1, 10).getTotal());
+        assertTrue(indexService.rebuild());
+        awaitRebuilt();
+    }
+
+    @Test
+    public void searchFiltersByTimeAndPages() throws Exception
+    {
+        streamOperLogs(null);
+        indexService.init();
+        awaitRebuilt();
+
+        assertEquals(Arrays.asList(2L, 1L), indexService.search(null, null, new Date(2000L), 1, 10));
+        assertEquals(Arrays.asList(3L), indexService.search(null, new Date(2500L), null, 1, 10));
+        assertEquals(Arrays.asList(2L), indexService.search(null, null, null, 2, 1));
+    }
+
+    @Test
+    public void indexedAndDeletedLogsBecomeVisibleAfterRefresh() throws Exception
+    {
+        streamOperLogs(null);
+        indexService.init();
+        awaitRebuilt();
+
+        indexService.index(operLog(4L, "部门管理", "admin", "/system/dept/list", 4000L));
+        assertEquals(1L, await(() -> indexService.search("部门", null, null, 1, 10).getTotal(), 1L));
+
+        indexService.deleteByIds(new Long[] { 1L, 4L });
+        assertEquals(2L, await(() -> indexService.search(null, null, null, 1, 10).getTotal(), 2L));
+        assertEquals(Arrays.asList(3L), indexService.search("用户管理", null, null, 1, 10));
+    }
+
+    /**
+     * Mapper流式查询逐条推送模拟数据，release不为空时等待放行后再推送
+     */
+    private void streamOperLogs(CountDownLatch release)
+    {
+        doAnswer(invocation -> {
+            if (release != null)
+            {
+                release.await(5, TimeUnit.SECONDS);
+            }
+            ResultHandler<SysOperLog> handler = invocation.getArgument(1);
+            DefaultResultContext<SysOperLog> context = new DefaultResultContext<SysOperLog>();
+            for (SysOperLog operLog : operLogs)
+            {
+                context.nextResultObject(operLog);
+                handler.handleResult(context);
+            }
+            return null;
+        }).when(operLogMapper).streamOperLogList(any(), any());
+    }
+
+    private void awaitRebuilt() throws InterruptedException
+    {
+        AtomicBoolean rebuilding = (AtomicBoolean) ReflectionTestUtils.getField(indexService, "rebuilding");
+        assertFalse(await(() -> rebuilding.get(), false));
+    }
+
+    /**
+     * 重建和刷新在后台执行，轮询直到得到期望值或超时
+     */
+    private static <T> T await(Supplier<T> supplier, T expected) throws InterruptedException
+    {
+        long deadline = System.currentTimeMillis() + 10000;
+        T value = supplier.get();
+        while (!expected.equals(value) && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(50);
+            value = supplier.get();
+        }
+        return value;
+    }
+
+    private static SysOperLog operLog(Long operId, String title, String operName, String operUrl, long operTime)
+    {
+        SysOperLog operLog = new SysOperLog();
+        operLog.setOperId(operId);
+        operLog.setTitle(title);
+        operLog.setOperName(operName);
+        operLog.setOperUrl(operUrl);
+        operLog.setOperTime(new Date(operTime));
+        return operLog;
+    }
+}
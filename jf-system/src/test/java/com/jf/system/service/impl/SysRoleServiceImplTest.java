@@ -0,0 +1,154 @@
+package com.jf.system.service.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import com.jf.common.core.domain.entity.SysRole;
+import com.jf.common.core.mybatis.SqlBatchTemplate;
+import com.jf.system.domain.SysRoleDept;
+import com.jf.system.domain.SysRoleMenu;
+import com.jf.system.mapper.SysRoleDeptMapper;
+import com.jf.system.mapper.SysRoleMapper;
+import com.jf.system.mapper.SysRoleMenuMapper;
+
+/**
+ * 角色菜单、角色部门关联差量更新测试
+ *
+ * @author jf
+ */
+@ExtendWith(MockitoExtension.class)
+public class SysRoleServiceImplTest
+{
+    private static final Long ROLE_ID = 2L;
+
+    @Mock
+    private SysRoleMapper roleMapper;
+
+    @Mock
+    private SysRoleMenuMapper roleMenuMapper;
+
+    @Mock
+    private SysRoleDeptMapper roleDeptMapper;
+
+    private SysRoleServiceImpl roleService;
+
+    /** 批量写入的数据，按调用顺序 */
+    private final List<Object> inserted = new ArrayList<Object>();
+
+    @BeforeEach
+    public void setUp()
+    {
+        SqlBatchTemplate sqlBatchTemplate = spy(new SqlBatchTemplate());
+        ReflectionTestUtils.setField(sqlBatchTemplate, "batchSize", 2);
+        doAnswer(invocation -> {
+            Collection<?> list = invocation.getArgument(1);
+            inserted.addAll(list);
+            return list.size();
+        }).when(sqlBatchTemplate).execute(any(), anyCollection(), any());
+
+        roleService = new SysRoleServiceImpl();
+        ReflectionTestUtils.setField(roleService, "roleMapper", roleMapper);
+        ReflectionTestUtils.setField(roleService, "roleMenuMapper", roleMenuMapper);
+        ReflectionTestUtils.setField(roleService, "roleDeptMapper", roleDeptMapper);
+        ReflectionTestUtils.setField(roleService, "sqlBatchTemplate", sqlBatchTemplate);
+    }
+
+    @Test
+    public void updateRoleMenuOnlyWritesDelta()
+    {
+        when(roleMenuMapper.selectMenuIdsByRoleId(ROLE_ID)).thenReturn(Arrays.asList(1L, 2L, 3L));
+
+        roleService.updateRole(role(new Long[] { 2L, 3L, 4L, 5L }, null));
+
+        verify(roleMenuMapper).deleteRoleMenuByMenuIds(eq(ROLE_ID), eq(Arrays.asList(1L)));
+        assertEquals(Arrays.asList(4L, 5L), insertedMenuIds());
+    }
+
+    @Test
+    public void updateRoleMenuUnchangedWritesNothing()
+    {
+        when(roleMenuMapper.selectMenuIdsByRoleId(ROLE_ID)).thenReturn(Arrays.asList(1L, 2L));
+
+        roleService.updateRole(role(new Long[] { 2L, 1L }, null));
+
+        verify(roleMenuMapper, never()).deleteRoleMenuByMenuIds(anyLong(), anyCollection());
+        assertEquals(0, inserted.size());
+    }
+
+    @Test
+    public void updateRoleMenuDeletesRemovedInChunks()
+    {
+        when(roleMenuMapper.selectMenuIdsByRoleId(ROLE_ID)).thenReturn(Arrays.asList(1L, 2L, 3L, 4L, 5L));
+        List<Long> deleted = new ArrayList<Long>();
+        doAnswer(invocation -> {
+            Collection<Long> ids = invocation.getArgument(1);
+            assertTrue(ids.size() <= 2);
+            deleted.addAll(ids);
+            return ids.size();
+        }).when(roleMenuMapper).deleteRoleMenuByMenuIds(eq(ROLE_ID), anyCollection());
+
+        roleService.updateRole(role(new Long[0], null));
+
+        assertEquals(new HashSet<Long>(Arrays.asList(1L, 2L, 3L, 4L, 5L)), new HashSet<Long>(deleted));
+        verify(roleMenuMapper, times(3)).deleteRoleMenuByMenuIds(eq(ROLE_ID), anyCollection());
+    }
+
+    @Test
+    public void authDataScopeOnlyWritesDeptDelta()
+    {
+        when(roleDeptMapper.selectDeptIdsByRoleId(ROLE_ID)).thenReturn(Arrays.asList(100L, 101L));
+
+        roleService.authDataScope(role(null, new Long[] { 101L, 102L }));
+
+        verify(roleDeptMapper).deleteRoleDeptByDeptIds(eq(ROLE_ID), eq(Arrays.asList(100L)));
+        Set<Long> deptIds = new HashSet<Long>();
+        for (Object item : inserted)
+        {
+            SysRoleDept rd = (SysRoleDept) item;
+            assertEquals(ROLE_ID, rd.getRoleId());
+            deptIds.add(rd.getDeptId());
+        }
+        assertEquals(new HashSet<Long>(Arrays.asList(102L)), deptIds);
+    }
+
+    private List<Long> insertedMenuIds()
+    {
+        List<Long> menuIds = new ArrayList<Long>();
+        for (Object item : inserted)
+        {
+            SysRoleMenu rm = (SysRoleMenu) item;
+            assertEquals(ROLE_ID, rm.getRoleId());
+            menuIds.add(rm.getMenuId());
+        }
+        return menuIds;
+    }
+
+    private static SysRole role(Long[] menuIds, Long[] deptIds)
+    {
+        SysRole role = new SysRole(ROLE_ID);
+        role.setMenuIds(menuIds);
+        role.setDeptIds(deptIds);
+        return role;
+    }
+}
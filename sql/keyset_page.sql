@@ -0,0 +1,12 @@
+-- ----------------------------
+-- 已有库的游标分页升级（新安装使用 ry_20250522.sql 无需执行）
+-- 游标分页按 (时间, 主键) 倒序翻页，时间列为NULL的行无法被游标越过，补齐后改为非空
+-- 日志表（sys_oper_log、sys_logininfor）的时间列在 log_partition.sql 中已改为非空并建有索引
+-- ----------------------------
+update sys_user set create_time = ifnull(update_time, sysdate()) where create_time is null;
+alter table sys_user modify create_time datetime not null comment '创建时间';
+alter table sys_user add index idx_sys_user_ct (create_time);
+
+update sys_job_log set create_time = sysdate() where create_time is null;
+alter table sys_job_log modify create_time datetime not null comment '创建时间';
+alter table sys_job_log add index idx_sys_job_log_ct (create_time);
@@ -0,0 +1,45 @@
+-- ----------------------------
+-- 已有库的日志表改为按月分区（数据量大时请在低峰期执行）
+-- 分区列需包含在主键中，主键调整为(日志主键, 时间)
+-- 已有数据按最早的日志时间到当前月逐月建分区，之后由定时任务 logArchiveTask.rollover 提前创建月分区，
+-- logArchiveTask.archive 归档过期分区
+-- ----------------------------
+drop procedure if exists partition_log_by_month;
+delimiter $$
+create procedure partition_log_by_month(in tbl varchar(64), in col varchar(64))
+begin
+  declare m date;
+  declare parts text default '';
+  set @min_time = null;
+  set @sql = concat('select min(', col, ') into @min_time from ', tbl);
+  prepare stmt from @sql;
+  execute stmt;
+  deallocate prepare stmt;
+  set m = date_format(ifnull(@min_time, sysdate()), '%Y-%m-01');
+  while m <= date_format(sysdate(), '%Y-%m-01') do
+    set parts = concat(parts, 'partition p', date_format(m, '%Y%m'), ' values less than (''', date_add(m, interval 1 month), '''), ');
+    set m = date_add(m, interval 1 month);
+  end while;
+  set @sql = concat('alter table ', tbl, ' partition by range columns(', col, ') (', parts, 'partition pmax values less than (maxvalue))');
+  prepare stmt from @sql;
+  execute stmt;
+  deallocate prepare stmt;
+end$$
+delimiter ;
+
+update sys_oper_log set oper_time = sysdate() where oper_time is null;
+alter table sys_oper_log modify oper_time datetime not null comment '操作时间';
+alter table sys_oper_log drop primary key, add primary key (oper_id, oper_time);
+call partition_log_by_month('sys_oper_log', 'oper_time');
+
+update sys_logininfor set login_time = sysdate() where login_time is null;
+alter table sys_logininfor modify login_time datetime not null comment '访问时间';
+alter table sys_logininfor drop primary key, add primary key (info_id, login_time);
+call partition_log_by_month('sys_logininfor', 'login_time');
+
+drop procedure partition_log_by_month;
+
+insert into sys_job (job_name, job_group, invoke_target, cron_expression, misfire_policy, concurrent, status, create_by, create_time, remark)
+values ('日志分区维护', 'SYSTEM', 'logArchiveTask.rollover', '0 0 1 * * ?', '1', '1', '0', 'admin', sysdate(), '每天提前创建日志表的月分区');
+insert into sys_job (job_name, job_group, invoke_target, cron_expression, misfire_policy, concurrent, status, create_by, create_time, remark)
+values ('日志分区归档', 'SYSTEM', 'logArchiveTask.archive', '0 0 2 1 * ?', '1', '1', '1', 'admin', sysdate(), '每月将超出保留期的日志分区导出至archive目录后删除');
@@ -56,11 +56,12 @@ create table sys_user (
   login_date        datetime                                   comment '最后登录时间',
   pwd_update_date   datetime                                   comment '密码最后更新时间',
   create_by         varchar(64)     default ''                 comment '创建者',
-  create_time       datetime                                   comment '创建时间',
+  create_time       datetime        not null                   comment '创建时间',
   update_by         varchar(64)     default ''                 comment '更新者',
   update_time       datetime                                   comment '更新时间',
   remark            varchar(500)    default null               comment '备注',
-  primary key (user_id)
+  primary key (user_id),
+  key idx_sys_user_ct (create_time)
 ) engine=innodb auto_increment=100 comment = '用户信息表';
 
 -- ----------------------------
@@ -433,13 +434,17 @@ create table sys_oper_log (
   json_result       varchar(2000)   default ''                 comment '返回参数',
   status            int(1)          default 0                  comment '操作状态（0正常 1异常）',
   error_msg         varchar(2000)   default ''                 comment '错误消息',
-  oper_time         datetime                                   comment '操作时间',
+  oper_time         datetime        not null                   comment '操作时间',
   cost_time         bigint(20)      default 0                  comment '消耗时间',
-  primary key (oper_id),
+  primary key (oper_id, oper_time),
   key idx_sys_oper_log_bt (business_type),
   key idx_sys_oper_log_s  (status),
   key idx_sys_oper_log_ot (oper_time)
-) engine=innodb auto_increment=100 comment = '操作日志记录';
+) engine=innodb auto_increment=100 comment = '操作日志记录'
+partition by range columns(oper_time) (
+  partition p202505 values less than ('2025-06-01'),
+  partition pmax values less than (maxvalue)
+);
 
 
 -- ----------------------------
@@ -568,11 +573,15 @@ create table sys_logininfor (
   os             varchar(50)    default ''                comment '操作系统',
   status         char(1)        default '0'               comment '登录状态（0成功 1失败）',
   msg            varchar(255)   default ''                comment '提示消息',
-  login_time     datetime                                 comment '访问时间',
-  primary key (info_id),
+  login_time     datetime       not null                  comment '访问时间',
+  primary key (info_id, login_time),
   key idx_sys_logininfor_s  (status),
   key idx_sys_logininfor_lt (login_time)
-) engine=innodb auto_increment=100 comment = '系统访问记录';
+) engine=innodb auto_increment=100 comment = '系统访问记录'
+partition by range columns(login_time) (
+  partition p202505 values less than ('2025-06-01'),
+  partition pmax values less than (maxvalue)
+);
 
 
 -- ----------------------------
@@ -599,6 +608,8 @@ create table sys_job (
 insert into sys_job values(1, '系统默认（无参）', 'DEFAULT', 'ryTask.ryNoParams',        '0/10 * * * * ?', '3', '1', '1', 'admin', sysdate(), '', null, '');
 insert into sys_job values(2, '系统默认（有参）', 'DEFAULT', 'ryTask.ryParams(\'ry\')',  '0/15 * * * * ?', '3', '1', '1', 'admin', sysdate(), '', null, '');
 insert into sys_job values(3, '系统默认（多参）', 'DEFAULT', 'ryTask.ryMultipleParams(\'ry\', true, 2000L, 316.50D, 100)',  '0/20 * * * * ?', '3', '1', '1', 'admin', sysdate(), '', null, '');
+insert into sys_job values(4, '日志分区维护',     'SYSTEM',  'logArchiveTask.rollover',  '0 0 1 * * ?',    '1', '1', '0', 'admin', sysdate(), '', null, '每天提前创建日志表的月分区');
+insert into sys_job values(5, '日志分区归档',     'SYSTEM',  'logArchiveTask.archive',   '0 0 2 1 * ?',    '1', '1', '1', 'admin', sysdate(), '', null, '每月将超出保留期的日志分区导出至archive目录后删除');
 
 
 -- ----------------------------
@@ -613,8 +624,9 @@ create table sys_job_log (
   job_message         varchar(500)                              comment '日志信息',
   status              char(1)        default '0'                comment '执行状态（0正常 1失败）',
   exception_info      varchar(2000)  default ''                 comment '异常信息',
-  create_time         datetime                                  comment '创建时间',
-  primary key (job_log_id)
+  create_time         datetime       not null                   comment '创建时间',
+  primary key (job_log_id),
+  key idx_sys_job_log_ct (create_time)
 ) engine=innodb comment = '定时任务调度日志表';
 
 